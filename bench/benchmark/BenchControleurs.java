@@ -0,0 +1,58 @@
+package benchmark;
+
+import Controleur.ControleurAlertes;
+import Controleur.ControleurOptimisation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import simulation.modele.simulation.EnergieException;
+import simulation.modele.simulation.GestionEnergie;
+
+/**
+ * Contrôleurs appelés périodiquement par l'interface : alertes et recommandations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchControleurs {
+
+    @Param({"10", "1000", "100000"})
+    public int sources;
+
+    private GestionEnergie gestion;
+    private ControleurAlertes alertes;
+    private ControleurOptimisation optimisation;
+
+    @Setup(Level.Trial)
+    public void preparer() throws EnergieException {
+        gestion = Parcs.creer(sources);
+        optimisation = new ControleurOptimisation(gestion);
+    }
+
+    @Setup(Level.Iteration)
+    public void preparerIteration() {
+        // L'historique des alertes repart de zéro à chaque itération
+        alertes = new ControleurAlertes(gestion);
+        alertes.configurerSeuils(100.0, 50.0, 20.0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void terminerIteration() {
+        // Un diffuseur (thread démon) par contrôleur : arrêté avant la prochaine itération
+        alertes.close();
+    }
+
+    @Benchmark
+    public int verifierEtGenererAlertes() {
+        alertes.verifierEtGenererAlertes();
+        return alertes.compterAlertes();
+    }
+
+    @Benchmark
+    public List<?> genererRecommandations() {
+        return optimisation.genererRecommandations();
+    }
+}
@@ -0,0 +1,119 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import simulation.modele.simulation.Historique;
+import simulation.modele.simulation.RecordSimulation;
+
+/**
+ * Sauvegarde par lots et rechargement de l'historique selon sa taille.
+ * Les fichiers sont créés dans un répertoire temporaire supprimé à la fin.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchHistorique {
+
+    @Param({"10000", "1000000"})
+    public int enregistrements;
+
+    @Param({"1000"})
+    public int lot;
+
+    private Path repertoire;
+    private Historique ecriture;
+    private Path fichierCharge;
+    private int temps;
+    private PrintStream sortieOrigine;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        sortieOrigine = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        repertoire = Files.createTempDirectory("bench-historique");
+
+        fichierCharge = repertoire.resolve("charge.csv");
+        try (Historique h = new Historique(fichierCharge)) {
+            for (int i = 0; i < enregistrements; i++) {
+                h.ajouter(new RecordSimulation(i, 100.0 + i % 50, 80.0 + i % 70));
+            }
+            h.sauvegarderBatch();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void preparerIteration() {
+        // Historique d'écriture pré-rempli à la taille demandée
+        ecriture = new Historique(repertoire.resolve("ecriture.csv"));
+        ecriture.vider();
+        for (temps = 0; temps < enregistrements; temps++) {
+            ecriture.ajouter(new RecordSimulation(temps, 100.0, 80.0));
+        }
+        ecriture.sauvegarderBatch();
+    }
+
+    @TearDown(Level.Iteration)
+    public void terminerIteration() {
+        ecriture.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() throws IOException {
+        System.setOut(sortieOrigine);
+        try (var fichiers = Files.list(repertoire)) {
+            for (Path f : (Iterable<Path>) fichiers::iterator) {
+                Files.deleteIfExists(f);
+            }
+        }
+        Files.deleteIfExists(repertoire);
+    }
+
+    /**
+     * Ajout d'un lot puis sauvegarde (CSV + binaire).
+     */
+    @Benchmark
+    public int sauvegarderBatch() {
+        for (int i = 0; i < lot; i++, temps++) {
+            ecriture.ajouter(new RecordSimulation(temps, 100.0, 80.0));
+        }
+        ecriture.sauvegarderBatch();
+        return ecriture.taille();
+    }
+
+    /**
+     * Format relu par chargerDepuisFichier. Historique préfère toujours le fichier
+     * binaire : pour mesurer la relecture CSV, il est supprimé avant chaque appel
+     * (la relecture CSV le reconstruit, ce qui fait partie de son coût réel).
+     */
+    @State(Scope.Thread)
+    public static class Chargement {
+        @Param({"csv", "binaire"})
+        public String format;
+
+        @Setup(Level.Invocation)
+        public void preparer(BenchHistorique bench) throws IOException {
+            if ("csv".equals(format)) {
+                Files.deleteIfExists(bench.fichierCharge.resolveSibling("charge.bin"));
+            }
+        }
+    }
+
+    /**
+     * Rechargement complet d'un historique de la taille demandée
+     * (le constructeur charge le fichier existant).
+     */
+    @Benchmark
+    public int chargerDepuisFichier(Chargement chargement) {
+        try (Historique h = new Historique(fichierCharge)) {
+            return h.taille();
+        }
+    }
+}
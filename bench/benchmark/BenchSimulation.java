@@ -0,0 +1,72 @@
+package benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import simulation.modele.simulation.EnergieException;
+import simulation.modele.simulation.GestionEnergie;
+import simulation.modele.simulation.ProfilMeteoGenere;
+import simulation.modele.simulation.RecordSimulation;
+import simulation.modele.simulation.Simulation;
+
+/**
+ * Pas de simulation et calcul des totaux selon la taille du parc.
+ * Avec météo, chaque pas modifie les sources : les totaux sont recalculés à chaque fois.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchSimulation {
+
+    @Param({"10", "1000", "100000"})
+    public int sources;
+
+    @Param({"false", "true"})
+    public boolean meteo;
+
+    private GestionEnergie gestion;
+    private Simulation simulation;
+    private PrintStream sortieOrigine;
+
+    @Setup(Level.Trial)
+    public void preparer() throws EnergieException {
+        GestionEnergie parc = Parcs.creer(sources);
+        simulation = new Simulation(parc.getSources(), parc.getConsommateurs());
+        // simulerUniteTemps journalise chaque pas : on mesure le calcul, pas la console
+        sortieOrigine = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Setup(Level.Iteration)
+    public void preparerIteration() throws EnergieException {
+        // Nouveau modèle à chaque itération : l'historique interne ne grossit pas indéfiniment
+        gestion = Parcs.creer(sources);
+        if (meteo) {
+            gestion.definirProfilMeteo(new ProfilMeteoGenere(42));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() {
+        System.setOut(sortieOrigine);
+    }
+
+    @Benchmark
+    public void simulerUniteTemps() throws EnergieException {
+        gestion.simulerUniteTemps();
+    }
+
+    @Benchmark
+    public RecordSimulation avancerUniteTemps() throws EnergieException {
+        return gestion.avancerUniteTemps();
+    }
+
+    @Benchmark
+    public double getProduc() {
+        return simulation.getProduc();
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import simulation.modele.simulation.EnergieException;
+import simulation.modele.source.Batterie;
+import simulation.modele.source.FlotteBatteries;
+
+/**
+ * Répartition d'un déficit puis d'un excédent sur N batteries en partie vides.
+ * La demande dépasse le niveau d'une batterie sur deux : avec decharger, chaque
+ * dépassement construit une EnergieException (pile comprise). Les variantes
+ * sans exception ne doivent rien allouer ; à vérifier avec le profileur GC :
+ *
+ *   ant bench -Dbench.args="BenchStockage -prof gc"
+ *
+ * (gc.alloc.rate.norm proche de 0 B/op hormis decharger).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BenchStockage {
+
+    private static final double DEMANDE = 6.0;
+
+    @Param({"100", "10000"})
+    public int batteries;
+
+    private Batterie[] unites;
+    private FlotteBatteries flotte;
+    private double[] demandes;
+    private double[] resultats;
+
+    @Setup(Level.Trial)
+    public void preparer() throws EnergieException {
+        unites = new Batterie[batteries];
+        flotte = new FlotteBatteries(batteries);
+        demandes = new double[batteries];
+        resultats = new double[batteries];
+        for (int i = 0; i < batteries; i++) {
+            // Niveaux de 0 à 10 : une batterie sur deux ne couvre pas la demande.
+            // Efficacité 1 : la recharge restitue exactement l'état initial
+            double niveau = (i % 11);
+            unites[i] = new Batterie(20.0, niveau, 1.0);
+            flotte.ajouter(20.0, niveau, 1.0);
+            demandes[i] = DEMANDE;
+        }
+    }
+
+    /**
+     * Ancien schéma : decharger, puis repli sur le niveau restant en cas d'exception.
+     */
+    @Benchmark
+    public double decharger() throws EnergieException {
+        double total = 0.0;
+        for (int i = 0; i < unites.length; i++) {
+            Batterie b = unites[i];
+            try {
+                b.decharger(DEMANDE);
+                resultats[i] = DEMANDE;
+            } catch (EnergieException e) {
+                resultats[i] = b.getNiveau();
+                b.decharger(resultats[i]);
+            }
+            total += resultats[i];
+        }
+        rechargerUnites();
+        return total;
+    }
+
+    @Benchmark
+    public double dechargerJusqua() {
+        double total = 0.0;
+        for (int i = 0; i < unites.length; i++) {
+            resultats[i] = unites[i].dechargerJusqua(DEMANDE);
+            total += resultats[i];
+        }
+        rechargerUnites();
+        return total;
+    }
+
+    @Benchmark
+    public double dechargerLotFlotte() {
+        double total = flotte.dechargerParBatterie(demandes, resultats);
+        flotte.chargerParBatterie(resultats, resultats);
+        return total;
+    }
+
+    @Benchmark
+    public double dechargerFlotteAgregee() {
+        double total = flotte.dechargerJusqua(DEMANDE * batteries);
+        flotte.chargerJusqua(total);
+        return total;
+    }
+
+    /**
+     * Recharge ce que chaque batterie a fourni (état initial pour l'appel suivant).
+     */
+    private void rechargerUnites() {
+        for (int i = 0; i < unites.length; i++) {
+            unites[i].chargerJusqua(resultats[i]);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package benchmark;
+
+import simulation.modele.simulation.Consommateur;
+import simulation.modele.simulation.EnergieException;
+import simulation.modele.simulation.GestionEnergie;
+import simulation.modele.source.Batterie;
+import simulation.modele.source.Eolienne;
+import simulation.modele.source.PanneauSolaire;
+
+/**
+ * Construction des parcs de test communs aux benchmarks.
+ */
+final class Parcs {
+
+    private Parcs() {}
+
+    /**
+     * Parc de N sources (moitié panneaux, moitié éoliennes, 1 batterie pour 100)
+     * et N / 2 consommateurs, avec les mêmes paramètres que LanceurBatch.
+     */
+    static GestionEnergie creer(int nombreSources) throws EnergieException {
+        GestionEnergie gestion = new GestionEnergie();
+        for (int i = 0; i < nombreSources; i++) {
+            if (i % 100 == 99) {
+                gestion.ajouterSource(new Batterie(100.0, 50.0, 0.9));
+            } else if (i % 2 == 0) {
+                gestion.ajouterSource(new PanneauSolaire(10.0, 0.2, 5.0));
+            } else {
+                gestion.ajouterSource(new Eolienne(4.0 + i % 10, 20.0));
+            }
+        }
+        for (int i = 0; i < Math.max(1, nombreSources / 2); i++) {
+            gestion.ajouterConsommateur(new Consommateur("Consommateur " + (i + 1), 15.0));
+        }
+        return gestion;
+    }
+}
@@ -1,23 +1,37 @@
 package Controleur;
 
 import simulation.modele.simulation.*;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Contrôleur pour gérer les alertes énergétiques.
  * Gère la création, le suivi et l'historique des alertes.
+ * Fermer le contrôleur arrête le thread de diffusion des notifications.
  */
-public class ControleurAlertes {
+public class ControleurAlertes implements AutoCloseable {
     
     private final GestionEnergie gestionEnergie;
-    private final List<AlerteRecord> historiqueAlertes;
+    private static final int CAPACITE_ALERTES = 100_000;
+    
+    private final RegistreAlertes historiqueAlertes;
+    private final CoalesceurAlertes coalesceur;
     private double seuilConsommation = 100.0;
     private double seuilProduction = 50.0;
     private double seuilBatterie = 20.0;
-    private Consumer<AlerteRecord> gestionnaireNouvelleAlerte;
+    private double hysteresis = 0.05; // marge relative de retour sous/au-dessus du seuil
+    private MoteurRegles regles = MoteurRegles.parDefaut(seuilConsommation, seuilProduction, seuilBatterie, hysteresis);
+    private boolean reglesParDefaut = true;
+    private final double[] instantane = new double[MoteurRegles.Grandeur.values().length];
+    private volatile Consumer<AlerteRecord> gestionnaireNouvelleAlerte;
+    // Notifications hors de la boucle de simulation : une alerte en attente par (type, source)
+    private final DiffuseurAlertes<AlerteRecord> diffuseur = new DiffuseurAlertes<>(
+        "diffuseur-alertes", DiffuseurAlertes.CAPACITE_PAR_DEFAUT, DiffuseurAlertes.TAILLE_LOT_PAR_DEFAUT,
+        DiffuseurAlertes.Politique.FUSIONNER, a -> a.type() + '|' + a.source());
     
     /**
      * Constructeur du contrôleur.
@@ -28,7 +42,15 @@ public class ControleurAlertes {
             throw new IllegalArgumentException("GestionEnergie ne peut pas être null");
         }
         this.gestionEnergie = gestionEnergie;
-        this.historiqueAlertes = new ArrayList<>();
+        this.historiqueAlertes = new RegistreAlertes();
+        this.historiqueAlertes.definirCapacite(CAPACITE_ALERTES, 24 * 365);
+        this.coalesceur = new CoalesceurAlertes(historiqueAlertes);
+        this.diffuseur.ajouterAuditeur(lot -> {
+            Consumer<AlerteRecord> gestionnaire = gestionnaireNouvelleAlerte;
+            if (gestionnaire != null) {
+                lot.forEach(gestionnaire);
+            }
+        });
     }
     
     /**
@@ -40,6 +62,33 @@ public class ControleurAlertes {
         this.gestionnaireNouvelleAlerte = gestionnaire;
     }
     
+    /**
+     * Définit le gestionnaire et le thread sur lequel il est appelé.
+     * Les alertes sont livrées par lots : un seul appel à l'Executor par lot.
+     * @param gestionnaire Le gestionnaire (Consumer)
+     * @param executeur Ex. Platform::runLater pour une vue JavaFX
+     */
+    public void definirGestionnaireNouvelleAlerte(Consumer<AlerteRecord> gestionnaire, Executor executeur) {
+        diffuseur.definirExecuteur(executeur);
+        this.gestionnaireNouvelleAlerte = gestionnaire;
+    }
+    
+    /**
+     * Obtient le diffuseur des nouvelles alertes (auditeurs par lots, compteurs).
+     * @return Le diffuseur
+     */
+    public DiffuseurAlertes<AlerteRecord> getDiffuseur() {
+        return diffuseur;
+    }
+    
+    /**
+     * Obtient le registre des alertes (lecture incrémentale, ex. indexation).
+     * @return Le registre
+     */
+    public RegistreAlertes getRegistre() {
+        return historiqueAlertes;
+    }
+    
     /**
      * Configure les seuils d'alerte.
      * @param seuilConso Seuil de consommation
@@ -50,129 +99,142 @@ public class ControleurAlertes {
         this.seuilConsommation = seuilConso;
         this.seuilProduction = seuilProd;
         this.seuilBatterie = seuilBat;
+        reconstruireReglesParDefaut();
         
         // Mettre à jour l'alerte dans GestionEnergie
         gestionEnergie.definirAlerte(seuilConso, seuilProd);
     }
     
+    /**
+     * Configure la rétention : au plus {@code capacite} alertes détaillées,
+     * les plus anciennes étant résumées par heure.
+     * @param capacite Nombre maximal d'alertes conservées
+     * @param heuresResumees Nombre d'heures de résumés conservées
+     */
+    public void configurerRetention(int capacite, int heuresResumees) {
+        historiqueAlertes.definirCapacite(capacite, heuresResumees);
+    }
+    
+    /**
+     * Résumés horaires des alertes retirées par la rétention.
+     * @return Résumés, du plus ancien au plus récent
+     */
+    public List<RegistreAlertes.ResumeHoraire> obtenirResumesHoraires() {
+        return historiqueAlertes.resumesHoraires();
+    }
+    
+    /**
+     * Configure l'hystérésis : une alerte ouverte n'est résolue que lorsque la
+     * mesure repasse le seuil d'au moins cette fraction (ex. 0.05 = 5 %).
+     * @param marge Marge relative (0 = pas d'hystérésis)
+     */
+    public void configurerHysteresis(double marge) {
+        if (marge < 0 || marge >= 1) {
+            throw new IllegalArgumentException("L'hystérésis doit être dans [0, 1[");
+        }
+        this.hysteresis = marge;
+        reconstruireReglesParDefaut();
+    }
+    
+    /**
+     * Les règles par défaut suivent les seuils ; un fichier de règles chargé reste prioritaire.
+     */
+    private void reconstruireReglesParDefaut() {
+        if (reglesParDefaut) {
+            // L'état des règles dépassées est repris : les alertes ouvertes seront rétablies normalement
+            regles = MoteurRegles.parDefaut(seuilConsommation, seuilProduction, seuilBatterie, hysteresis)
+                .reprendreEtat(regles);
+        }
+    }
+    
+    /**
+     * Charge des règles d'alerte depuis un fichier (format décrit dans MoteurRegles).
+     * Le fichier est ensuite rechargé à chaud quand il est modifié.
+     * @param fichier Le fichier de règles
+     * @throws EnergieException Si le fichier est illisible ou invalide
+     */
+    public void chargerRegles(Path fichier) throws EnergieException {
+        this.regles = MoteurRegles.depuisFichier(fichier).reprendreEtat(regles);
+        this.reglesParDefaut = false;
+    }
+    
     /**
      * Vérifie et génère des alertes si nécessaire.
-     * Utilise des expressions Lambda pour les conditions.
+     * Les règles compilées sont évaluées sur un instantané du tick ; les dépassements
+     * répétés d'une même règle sont regroupés dans une seule alerte ouverte et seules
+     * les nouvelles alertes (et les aggravations) sont notifiées.
      */
     public void verifierEtGenererAlertes() {
+        regles.rechargerSiModifie();
+        
         double production = gestionEnergie.productionTotale();
         double consommation = gestionEnergie.consommationTotale();
-        double bilan = production - consommation;
+        instantane[MoteurRegles.Grandeur.PRODUCTION.ordinal()] = production;
+        instantane[MoteurRegles.Grandeur.CONSOMMATION.ordinal()] = consommation;
+        instantane[MoteurRegles.Grandeur.BILAN.ordinal()] = production - consommation;
+        regles.evaluerReseau(instantane, (r, i, valeur, depasse) ->
+            signaler(r, i, valeur, depasse, AlerteRecord.SOURCE_GLOBALE));
         
-        // Alerte consommation excessive
-        if (consommation > seuilConsommation) {
-            String severite = consommation > seuilConsommation * 1.5 ? "CRITIQUE" : "HAUTE";
-            AlerteRecord alerte = new AlerteRecord(
-                "CONSOMMATION_EXCESSIVE",
-                severite,
-                String.format("Consommation excessive : %.2f kWh (seuil : %.2f kWh)", 
-                    consommation, seuilConsommation),
-                "ACTIVE",
-                consommation,
-                seuilConsommation
-            );
-            ajouterAlerte(alerte);
+        // Règles de batterie : une clé par stockage (source = position dans la liste des sources).
+        // Une flotte est évaluée comme un seul stockage agrégé (niveau cumulé / capacité cumulée).
+        List<simulation.modele.source.SourceEnergie> sources = gestionEnergie.getSources();
+        for (int k = 0; k < sources.size(); k++) {
+            if (!(sources.get(k) instanceof simulation.modele.source.StockageEnergie stockage)
+                || !(stockage.getCapacite() > 0)) continue; // flotte vide : pas de niveau
+            String source = (stockage instanceof simulation.modele.source.FlotteBatteries
+                ? "Flotte de batteries #" : "Batterie #") + (k + 1);
+            instantane[MoteurRegles.Grandeur.BATTERIE.ordinal()] = (stockage.getNiveau() / stockage.getCapacite()) * 100;
+            regles.evaluerBatterie(k + 1, instantane, (r, i, valeur, depasse) ->
+                signaler(r, i, valeur, depasse, source));
         }
-        
-        // Alerte production insuffisante
-        if (production < seuilProduction) {
-            String severite = production < seuilProduction * 0.5 ? "CRITIQUE" : "MOYENNE";
-            AlerteRecord alerte = new AlerteRecord(
-                "PRODUCTION_FAIBLE",
-                severite,
-                String.format("Production insuffisante : %.2f kWh (seuil : %.2f kWh)", 
-                    production, seuilProduction),
-                "ACTIVE",
-                production,
-                seuilProduction
-            );
-            ajouterAlerte(alerte);
-        }
-        
-        // Alerte déficit énergétique
-        if (bilan < 0) {
-            String severite = Math.abs(bilan) > 50 ? "CRITIQUE" : "HAUTE";
-            AlerteRecord alerte = new AlerteRecord(
-                "DEFICIT_ENERGETIQUE",
-                severite,
-                String.format("Déficit énergétique : %.2f kWh", Math.abs(bilan)),
+    }
+    
+    /**
+     * Passe une règle dépassée ou rétablie au coalesceur.
+     */
+    private void signaler(MoteurRegles.ReglesCompilees r, int i, double valeur, boolean depasse, String source) {
+        signaler(r.type(i), source, depasse, !depasse,
+            () -> new AlerteRecord(
+                r.type(i),
+                r.severite(i, valeur),
+                r.message(i, valeur),
                 "ACTIVE",
-                bilan,
-                0.0
-            );
-            ajouterAlerte(alerte);
-        }
-        
-        // Alerte batteries faibles
-        verifierEtatBatteries();
-    }
-    
-    /**
-     * Vérifie l'état des batteries et génère des alertes.
-     * Utilise un stream avec filter.
-     */
-    private void verifierEtatBatteries() {
-        gestionEnergie.getSources().stream()
-            .filter(simulation.modele.source.Batterie.class::isInstance)
-            .map(s -> (simulation.modele.source.Batterie) s)
-            .forEach(batterie -> {
-                double pourcentage = (batterie.getNiveau() / batterie.getCapacite()) * 100;
-                if (pourcentage < seuilBatterie) {
-                    String severite = pourcentage < seuilBatterie * 0.5 ? "CRITIQUE" : "HAUTE";
-                    AlerteRecord alerte = new AlerteRecord(
-                        "BATTERIE_FAIBLE",
-                        severite,
-                        String.format("Batterie faible : %.1f%% (seuil : %.1f%%)", 
-                            pourcentage, seuilBatterie),
-                        "ACTIVE",
-                        pourcentage,
-                        seuilBatterie
-                    );
-                    ajouterAlerte(alerte);
-                }
-            });
-    }
-    
-    /**
-     * Ajoute une alerte à l'historique.
-     * @param alerte L'alerte à ajouter
-     */
-    private void ajouterAlerte(AlerteRecord alerte) {
-        historiqueAlertes.add(alerte);
+                valeur,
+                r.seuil(i),
+                source
+            ));
+    }
+    
+    /**
+     * Passe une règle au coalesceur et notifie le résultat éventuel.
+     */
+    private void signaler(String type, String source, boolean depasse, boolean retabli,
+                          Supplier<AlerteRecord> occurrence) {
+        AlerteRecord aNotifier = coalesceur.evaluer(type, source, depasse, retabli, occurrence);
         
-        // Notifier via Consumer si défini
-        if (gestionnaireNouvelleAlerte != null) {
-            gestionnaireNouvelleAlerte.accept(alerte);
+        // Notification asynchrone : ne bloque jamais la vérification
+        if (aNotifier != null) {
+            diffuseur.publier(aNotifier);
+            BusEvenements.signaler(BusEvenements.Evenement.ALERTES);
         }
     }
     
     /**
      * Obtient toutes les alertes.
-     * Utilise un stream pour créer une copie.
-     * @return Liste des alertes
+     * @return Liste des alertes (copie)
      */
     public List<AlerteRecord> obtenirAlertes() {
-        return historiqueAlertes.stream()
-            .toList();
+        return historiqueAlertes.toutes();
     }
     
     /**
      * Filtre les alertes par sévérité.
-     * Utilise une interface fonctionnelle Predicate.
+     * Utilise l'index par sévérité (pas de parcours de l'historique).
      * @param severite La sévérité recherchée
      * @return Liste filtrée
      */
     public List<AlerteRecord> filtrerParSeverite(String severite) {
-        Predicate<AlerteRecord> predicatSeverite = alerte -> alerte.severite().equals(severite);
-        
-        return historiqueAlertes.stream()
-            .filter(predicatSeverite)
-            .toList();
+        return historiqueAlertes.parSeverite(severite);
     }
     
     /**
@@ -181,9 +243,7 @@ public class ControleurAlertes {
      * @return Liste filtrée
      */
     public List<AlerteRecord> filtrerParType(String type) {
-        return historiqueAlertes.stream()
-            .filter(a -> a.type().equals(type))
-            .toList();
+        return historiqueAlertes.parType(type);
     }
     
     /**
@@ -192,20 +252,15 @@ public class ControleurAlertes {
      * @return Liste filtrée
      */
     public List<AlerteRecord> filtrerParStatut(String statut) {
-        return historiqueAlertes.stream()
-            .filter(a -> a.statut().equals(statut))
-            .toList();
+        return historiqueAlertes.parStatut(statut);
     }
     
     /**
      * Obtient les alertes actives uniquement.
-     * Utilise une référence de méthode.
      * @return Liste des alertes actives
      */
     public List<AlerteRecord> obtenirAlertesActives() {
-        return historiqueAlertes.stream()
-            .filter(AlerteRecord::estActive)
-            .toList();
+        return historiqueAlertes.parStatut("ACTIVE");
     }
     
     /**
@@ -213,9 +268,7 @@ public class ControleurAlertes {
      * @return Liste des alertes critiques
      */
     public List<AlerteRecord> obtenirAlertesCritiques() {
-        return historiqueAlertes.stream()
-            .filter(AlerteRecord::estCritique)
-            .toList();
+        return historiqueAlertes.parSeverite("CRITIQUE");
     }
     
     /**
@@ -223,31 +276,24 @@ public class ControleurAlertes {
      * @return Nombre d'alertes
      */
     public int compterAlertes() {
-        return historiqueAlertes.size();
+        return historiqueAlertes.taille();
     }
     
     /**
      * Compte le nombre d'alertes actives.
-     * Utilise un stream avec filter et count.
+     * Compteur tenu à jour par le registre (O(1)).
      * @return Nombre d'alertes actives
      */
     public int compterAlertesActives() {
-        return (int) historiqueAlertes.stream()
-            .filter(AlerteRecord::estActive)
-            .count();
+        return historiqueAlertes.compterStatut("ACTIVE");
     }
     
     /**
      * Compte les alertes par sévérité.
-     * Utilise un stream avec Collectors.
      * @return Map sévérité -> nombre
      */
     public Map<String, Long> compterParSeverite() {
-        return historiqueAlertes.stream()
-            .collect(Collectors.groupingBy(
-                AlerteRecord::severite,
-                Collectors.counting()
-            ));
+        return historiqueAlertes.compterParSeverite();
     }
     
     /**
@@ -255,41 +301,30 @@ public class ControleurAlertes {
      * @return Description de la dernière alerte
      */
     public String obtenirDerniereAlerte() {
-        if (historiqueAlertes.isEmpty()) {
+        AlerteRecord derniere = historiqueAlertes.derniere();
+        if (derniere == null) {
             return "Aucune alerte";
         }
         
-        AlerteRecord derniere = historiqueAlertes.get(historiqueAlertes.size() - 1);
         return String.format("%s - %s", derniere.dateHeure(), derniere.message());
     }
     
     /**
      * Calcule le niveau de sévérité global (0-1).
-     * Utilise un stream avec mapToDouble.
+     * Moyenne des scores des alertes actives, à partir des compteurs.
      * @return Niveau de sévérité moyen
      */
     public double calculerNiveauSeverite() {
-        if (historiqueAlertes.isEmpty()) {
-            return 0.0;
-        }
-        
-        return obtenirAlertesActives().stream()
-            .mapToDouble(AlerteRecord::scoreSeverite)
-            .average()
-            .orElse(0.0);
+        return historiqueAlertes.scoreMoyenActives();
     }
     
     /**
      * Acquitte toutes les alertes actives.
-     * Utilise un stream avec map.
+     * Ne parcourt que l'index des alertes actives.
      */
     public void acquitterToutesAlertes() {
-        List<AlerteRecord> nouvelleListe = historiqueAlertes.stream()
-            .map(alerte -> alerte.estActive() ? alerte.avecStatut("ACQUITTEE") : alerte)
-            .toList();
-        
-        historiqueAlertes.clear();
-        historiqueAlertes.addAll(nouvelleListe);
+        historiqueAlertes.changerStatutTous("ACTIVE", "ACQUITTEE");
+        BusEvenements.signaler(BusEvenements.Evenement.ALERTES);
     }
     
     /**
@@ -297,11 +332,10 @@ public class ControleurAlertes {
      * @param index L'index de l'alerte
      */
     public void acquitterAlerte(int index) {
-        if (index >= 0 && index < historiqueAlertes.size()) {
-            AlerteRecord alerte = historiqueAlertes.get(index);
-            if (alerte.estActive()) {
-                historiqueAlertes.set(index, alerte.avecStatut("ACQUITTEE"));
-            }
+        if (index >= 0 && index < historiqueAlertes.taille()
+                && historiqueAlertes.get(index).estActive()) {
+            historiqueAlertes.changerStatut(index, "ACQUITTEE");
+            BusEvenements.signaler(BusEvenements.Evenement.ALERTES);
         }
     }
     
@@ -310,25 +344,25 @@ public class ControleurAlertes {
      * @param index L'index de l'alerte
      */
     public void resoudreAlerte(int index) {
-        if (index >= 0 && index < historiqueAlertes.size()) {
-            AlerteRecord alerte = historiqueAlertes.get(index);
-            historiqueAlertes.set(index, alerte.avecStatut("RESOLUE"));
-        }
+        historiqueAlertes.changerStatut(index, "RESOLUE");
+        BusEvenements.signaler(BusEvenements.Evenement.ALERTES);
     }
     
     /**
      * Supprime les alertes résolues.
-     * Utilise removeIf avec Predicate.
      */
     public void supprimerAlertesResolues() {
-        historiqueAlertes.removeIf(alerte -> "RESOLUE".equals(alerte.statut()));
+        historiqueAlertes.supprimerStatut("RESOLUE");
+        BusEvenements.signaler(BusEvenements.Evenement.ALERTES);
     }
     
     /**
      * Vide l'historique des alertes.
      */
     public void viderHistorique() {
-        historiqueAlertes.clear();
+        historiqueAlertes.vider();
+        coalesceur.vider();
+        BusEvenements.signaler(BusEvenements.Evenement.ALERTES);
     }
     
     /**
@@ -337,7 +371,7 @@ public class ControleurAlertes {
      * @return String formaté
      */
     public String exporterAlertes() {
-        if (historiqueAlertes.isEmpty()) {
+        if (historiqueAlertes.estVide()) {
             return "Aucune alerte enregistrée.";
         }
         
@@ -362,7 +396,7 @@ public class ControleurAlertes {
         sb.append("═══════════════════════════════════════════════════════\n\n");
         
         // Détails de chaque alerte
-        String details = historiqueAlertes.stream()
+        String details = historiqueAlertes.toutes().stream()
             .map(AlerteRecord::toString)
             .collect(Collectors.joining("\n"));
         
@@ -379,4 +413,12 @@ public class ControleurAlertes {
     public GestionEnergie getGestionEnergie() {
         return gestionEnergie;
     }
+    
+    /**
+     * Arrête le diffuseur des notifications (les alertes restent consultables).
+     */
+    @Override
+    public void close() {
+        diffuseur.close();
+    }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import simulation.modele.simulation.Consommateur;
 import simulation.modele.simulation.EnergieException;
 import simulation.modele.simulation.GestionEnergie;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 /**
@@ -111,6 +112,14 @@ public class ControleurConsommateur {
                 .toList();
     }
     
+    /**
+     * Consommation cumulée par type d'appareil (du plus au moins consommateur).
+     * @return Nom de l'appareil -> consommation totale
+     */
+    public Map<String, Double> obtenirRepartitionAppareils() {
+        return gestionEnergie.repartitionAppareils().enMap();
+    }
+    
     /**
      * Obtient le modèle de gestion.
      * @return GestionEnergie
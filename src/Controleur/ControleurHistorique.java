@@ -2,6 +2,7 @@ package Controleur;
 
 import simulation.modele.simulation.Historique;
 import simulation.modele.simulation.RecordSimulation;
+import simulation.modele.simulation.StatistiquesHistorique;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -94,16 +95,30 @@ public class ControleurHistorique {
                 .toList();
     }
     
+    /**
+     * Obtient un instantané (vue sans copie, position absolue, statistiques).
+     * Sert aux vues qui ne rafraîchissent que les nouveaux enregistrements.
+     * @return Instantané cohérent
+     */
+    public Historique.Instantane obtenirInstantane() {
+        return historique.instantane();
+    }
+    
+    /**
+     * Obtient les statistiques incrémentales de l'historique.
+     * @return Instantané des agrégats (coût constant)
+     */
+    public StatistiquesHistorique obtenirStatistiques() {
+        return historique.getStatistiques();
+    }
+    
     /**
      * Calcule la production moyenne sur tout l'historique.
-     * Utilise un stream avec mapToDouble et average.
+     * Lue dans les agrégats incrémentaux : coût constant.
      * @return Production moyenne
      */
     public double calculerProductionMoyenne() {
-        return historique.getListe().stream()
-                .mapToDouble(RecordSimulation::production) // Référence de méthode
-                .average()
-                .orElse(0.0);
+        return historique.getStatistiques().getProductionMoyenne();
     }
     
     /**
@@ -111,22 +126,15 @@ public class ControleurHistorique {
      * @return Consommation moyenne
      */
     public double calculerConsommationMoyenne() {
-        return historique.getListe().stream()
-                .mapToDouble(RecordSimulation::consommation) // Référence de méthode
-                .average()
-                .orElse(0.0);
+        return historique.getStatistiques().getConsommationMoyenne();
     }
     
     /**
      * Trouve la production maximale enregistrée.
-     * Utilise un stream avec max.
      * @return Production maximale
      */
     public double trouverProductionMax() {
-        return historique.getListe().stream()
-                .mapToDouble(RecordSimulation::production)
-                .max()
-                .orElse(0.0);
+        return historique.getStatistiques().getProductionMax();
     }
     
     /**
@@ -134,41 +142,48 @@ public class ControleurHistorique {
      * @return Consommation maximale
      */
     public double trouverConsommationMax() {
-        return historique.getListe().stream()
-                .mapToDouble(RecordSimulation::consommation)
-                .max()
-                .orElse(0.0);
+        return historique.getStatistiques().getConsommationMax();
     }
     
     /**
      * Calcule le bilan moyen (production - consommation).
-     * Utilise un stream avec map et moyenne.
      * @return Bilan moyen
      */
     public double calculerBilanMoyen() {
-        return historique.getListe().stream()
-                .mapToDouble(r -> r.production() - r.consommation()) // Expression Lambda
-                .average()
-                .orElse(0.0);
+        return historique.getStatistiques().getBilanMoyen();
+    }
+    
+    /**
+     * Calcule l'écart-type de la production (variance de Welford).
+     * @return Écart-type de la production
+     */
+    public double calculerEcartTypeProduction() {
+        return historique.getStatistiques().getEcartTypeProduction();
     }
     
     /**
-     * Compte le nombre de simulations.
+     * Calcule l'écart-type de la consommation (variance de Welford).
+     * @return Écart-type de la consommation
+     */
+    public double calculerEcartTypeConsommation() {
+        return historique.getStatistiques().getEcartTypeConsommation();
+    }
+    
+    /**
+     * Compte le nombre de simulations (toutes, y compris celles retirées de la mémoire
+     * par la rétention : même périmètre que les statistiques affichées à côté).
      * @return Nombre de simulations
      */
-    public int compterSimulations() {
-        return historique.taille();
+    public long compterSimulations() {
+        return historique.getStatistiques().getNombre();
     }
     
     /**
      * Compte le nombre de déficits.
-     * Utilise un stream avec filter et count.
      * @return Nombre de déficits
      */
     public long compterDeficits() {
-        return historique.getListe().stream()
-                .filter(r -> r.production() < r.consommation())
-                .count();
+        return historique.getStatistiques().getDeficits();
     }
     
     /**
@@ -176,9 +191,7 @@ public class ControleurHistorique {
      * @return Nombre d'excédents
      */
     public long compterExcedents() {
-        return historique.getListe().stream()
-                .filter(r -> r.production() >= r.consommation())
-                .count();
+        return historique.getStatistiques().getExcedents();
     }
     
     /**
@@ -196,13 +209,14 @@ public class ControleurHistorique {
         sb.append("           HISTORIQUE DES SIMULATIONS\n");
         sb.append("═══════════════════════════════════════════════════════\n\n");
         
-        // Statistiques globales
-        sb.append(String.format("Nombre total de simulations : %d\n", compterSimulations()));
-        sb.append(String.format("Production moyenne : %.2f kWh\n", calculerProductionMoyenne()));
-        sb.append(String.format("Consommation moyenne : %.2f kWh\n", calculerConsommationMoyenne()));
-        sb.append(String.format("Bilan moyen : %.2f kWh\n", calculerBilanMoyen()));
-        sb.append(String.format("Nombre de déficits : %d\n", compterDeficits()));
-        sb.append(String.format("Nombre d'excédents : %d\n\n", compterExcedents()));
+        // Statistiques globales (un seul instantané cohérent)
+        StatistiquesHistorique stats = historique.getStatistiques();
+        sb.append(String.format("Nombre total de simulations : %d\n", stats.getNombre()));
+        sb.append(String.format("Production moyenne : %.2f kWh\n", stats.getProductionMoyenne()));
+        sb.append(String.format("Consommation moyenne : %.2f kWh\n", stats.getConsommationMoyenne()));
+        sb.append(String.format("Bilan moyen : %.2f kWh\n", stats.getBilanMoyen()));
+        sb.append(String.format("Nombre de déficits : %d\n", stats.getDeficits()));
+        sb.append(String.format("Nombre d'excédents : %d\n\n", stats.getExcedents()));
         
         sb.append("═══════════════════════════════════════════════════════\n");
         sb.append("                  DÉTAILS DES SIMULATIONS\n");
@@ -228,7 +242,7 @@ public class ControleurHistorique {
     
     /**
      * Génère un rapport de statistiques détaillé.
-     * Utilise plusieurs streams pour les calculs.
+     * Toutes les valeurs viennent des agrégats incrémentaux.
      * @return String formaté du rapport
      */
     public String genererRapportStatistiques() {
@@ -240,13 +254,14 @@ public class ControleurHistorique {
         sb.append("📊 RAPPORT STATISTIQUES DÉTAILLÉ\n");
         sb.append("================================\n\n");
         
-        sb.append(String.format("📈 Production maximale : %.2f kWh\n", trouverProductionMax()));
-        sb.append(String.format("📉 Consommation maximale : %.2f kWh\n", trouverConsommationMax()));
-        sb.append(String.format("⚖️ Bilan moyen : %.2f kWh\n", calculerBilanMoyen()));
-        sb.append(String.format("✅ Taux d'excédent : %.1f%%\n", 
-            (compterExcedents() * 100.0 / compterSimulations())));
-        sb.append(String.format("⚠️ Taux de déficit : %.1f%%\n", 
-            (compterDeficits() * 100.0 / compterSimulations())));
+        StatistiquesHistorique stats = historique.getStatistiques();
+        sb.append(String.format("📈 Production maximale : %.2f kWh\n", stats.getProductionMax()));
+        sb.append(String.format("📉 Consommation maximale : %.2f kWh\n", stats.getConsommationMax()));
+        sb.append(String.format("⚖️ Bilan moyen : %.2f kWh\n", stats.getBilanMoyen()));
+        sb.append(String.format("📐 Écart-type production : %.2f kWh\n", stats.getEcartTypeProduction()));
+        sb.append(String.format("📐 Écart-type consommation : %.2f kWh\n", stats.getEcartTypeConsommation()));
+        sb.append(String.format("✅ Taux d'excédent : %.1f%%\n", stats.getTauxExcedent()));
+        sb.append(String.format("⚠️ Taux de déficit : %.1f%%\n", stats.getTauxDeficit()));
         
         return sb.toString();
     }
@@ -91,16 +91,31 @@ public class ControleurOptimisation {
      * @return Ratio en pourcentage
      */
     private double calculerRatioSourcesRenouvelables() {
-        long totalSources = gestionEnergie.getSources().size();
+        // Une flotte compte pour autant de sources qu'elle contient d'unités
+        long totalSources = gestionEnergie.getSources().stream()
+            .mapToLong(ControleurOptimisation::nombreUnites)
+            .sum();
         if (totalSources == 0) return 0.0;
         
         long sourcesRenouvelables = gestionEnergie.getSources().stream()
-            .filter(s -> s instanceof PanneauSolaire || s instanceof Eolienne)
-            .count();
+            .filter(s -> s instanceof PanneauSolaire || s instanceof Eolienne
+                    || s instanceof FlotteSolaire || s instanceof FlotteEolienne)
+            .mapToLong(ControleurOptimisation::nombreUnites)
+            .sum();
         
         return (sourcesRenouvelables * 100.0) / totalSources;
     }
     
+    /**
+     * Nombre d'unités représentées par une source (taille pour une flotte).
+     */
+    private static long nombreUnites(SourceEnergie source) {
+        if (source instanceof FlotteSolaire f) return f.taille();
+        if (source instanceof FlotteEolienne f) return f.taille();
+        if (source instanceof FlotteBatteries f) return f.taille();
+        return 1;
+    }
+    
     /**
      * Calcule les émissions de CO2 estimées.
      * @return Émissions en kg de CO2
@@ -185,10 +200,10 @@ public class ControleurOptimisation {
             ));
         }
         
-        // Recommandation sur le stockage
+        // Recommandation sur le stockage (une flotte compte pour ses batteries)
         long nombreBatteries = gestionEnergie.getSources().stream()
-            .filter(Batterie.class::isInstance)
-            .count();
+            .mapToLong(s -> s instanceof Batterie ? 1 : s instanceof FlotteBatteries f ? f.taille() : 0)
+            .sum();
         
         if (nombreBatteries == 0) {
             recommandations.add(new RecommandationOptimisation(
@@ -215,8 +230,9 @@ public class ControleurOptimisation {
         
         // Recommandation sur les panneaux solaires
         long nombrePanneaux = gestionEnergie.getSources().stream()
-            .filter(PanneauSolaire.class::isInstance)
-            .count();
+            .filter(s -> s instanceof PanneauSolaire || s instanceof FlotteSolaire)
+            .mapToLong(ControleurOptimisation::nombreUnites)
+            .sum();
         
         if (nombrePanneaux == 0 && bilan < 0) {
             recommandations.add(new RecommandationOptimisation(
@@ -354,6 +370,49 @@ public class ControleurOptimisation {
         );
     }
     
+    /**
+     * Simule un scénario d'optimisation par Monte Carlo sur un an (météo, bruit de charge, pannes).
+     * @param augmentationProd Augmentation de production en %
+     * @param reductionConso Réduction de consommation en %
+     * @param trajectoires Nombre de trajectoires
+     * @param graine Graine (même graine = même résultat)
+     * @return Résultat chiffré (centiles du déficit, probabilité de batterie vide)
+     */
+    public MoteurMonteCarlo.Resultat simulerScenarioMonteCarlo(double augmentationProd, double reductionConso,
+                                                              int trajectoires, long graine) {
+        MoteurMonteCarlo.Parametres parametres = MoteurMonteCarlo.Parametres.parDefaut()
+            .avecScenario(1 + augmentationProd / 100.0, 1 - reductionConso / 100.0);
+        MoteurMonteCarlo moteur = new MoteurMonteCarlo(gestionEnergie, MoteurMonteCarlo.HEURES_PAR_AN);
+        return moteur.executer(trajectoires, MoteurMonteCarlo.HEURES_PAR_AN, graine, parametres);
+    }
+
+    /**
+     * Formate un résultat Monte Carlo.
+     * @param resultat Le résultat
+     * @return Description du résultat
+     */
+    public String formaterMonteCarlo(MoteurMonteCarlo.Resultat resultat) {
+        MoteurMonteCarlo.Intervalle vide = resultat.probabiliteBatterieVide();
+        String batterieVide = vide == null ? "N/A (aucun stockage)"
+            : String.format("%.1f%% [%.1f%% ; %.1f%%]", vide.estimation() * 100, vide.bas() * 100, vide.haut() * 100);
+        return String.format(
+            "RÉSULTAT MONTE CARLO (%d trajectoires × %d h, graine %d)\n\n" +
+            "Déficit non couvert (kWh, IC 95%%):\n" +
+            "  P5:  %s\n" +
+            "  P50: %s\n" +
+            "  P95: %s\n" +
+            "  Moyenne: %s\n\n" +
+            "Probabilité de batterie vide: %s\n" +
+            "Heures de déficit (moyenne): %.0f h\n\n" +
+            "Calcul: %.1f s",
+            resultat.trajectoires(), resultat.heures(), resultat.graine(),
+            resultat.deficitP5(), resultat.deficitP50(), resultat.deficitP95(), resultat.deficitMoyen(),
+            batterieVide,
+            resultat.heuresDeficitMoyennes(),
+            resultat.dureeSecondes()
+        );
+    }
+
     /**
      * Génère un rapport d'optimisation complet.
      * @return Rapport formaté
@@ -2,19 +2,24 @@ package Controleur;
 
 import simulation.modele.simulation.*;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.BiConsumer;
 
 /**
  * Contrôleur principal pour gérer la simulation.
  * Coordonne les opérations entre la vue et le modèle.
+ * Fermer le contrôleur arrête le diffuseur des alertes et ferme l'historique.
  */
-public class ControleurSimulation {
+public class ControleurSimulation implements AutoCloseable {
     
     private final GestionEnergie gestionEnergie;
     private final Historique historique;
     private AlerteEnergie alerteActive;
-    private Consumer<String> gestionnairealerte; // Interface fonctionnelle pour callback
+    private volatile Consumer<List<String>> gestionnairealerte; // Interface fonctionnelle pour callback
+    // Un seul message en attente : le plus récent remplace les précédents non encore affichés
+    private final DiffuseurAlertes<String> diffuseur = new DiffuseurAlertes<>(
+        "diffuseur-simulation", 1, 1, DiffuseurAlertes.Politique.FUSIONNER, message -> "ALERTE");
     
     /**
      * Constructeur du contrôleur.
@@ -26,6 +31,12 @@ public class ControleurSimulation {
         }
         this.gestionEnergie = gestionEnergie;
         this.historique = new Historique();
+        this.diffuseur.ajouterAuditeur(lot -> {
+            Consumer<List<String>> gestionnaire = gestionnairealerte;
+            if (gestionnaire != null) {
+                gestionnaire.accept(lot);
+            }
+        });
     }
     
     /**
@@ -55,10 +66,8 @@ public class ControleurSimulation {
         if (alerteActive != null && gestionEnergie.verifierAlerte()) {
             String message = genererMessageAlerte();
             
-            // Notification via Consumer (interface fonctionnelle)
-            if (gestionnairealerte != null) {
-                gestionnairealerte.accept(message);
-            }
+            // Notification asynchrone : la boucle de simulation n'attend jamais l'affichage
+            diffuseur.publier(message);
         }
     }
     
@@ -82,6 +91,18 @@ public class ControleurSimulation {
      * @param gestionnaire Le gestionnaire (Consumer)
      */
     public void definirGestionnaireAlerte(Consumer<String> gestionnaire) {
+        this.gestionnairealerte = gestionnaire == null ? null : lot -> lot.forEach(gestionnaire);
+    }
+    
+    /**
+     * Définit un gestionnaire recevant les messages par lots, sur l'Executor donné.
+     * Un seul appel à l'Executor par lot ; les messages non encore affichés
+     * sont remplacés par le plus récent.
+     * @param gestionnaire Le gestionnaire de lots
+     * @param executeur Ex. Platform::runLater pour une vue JavaFX
+     */
+    public void definirGestionnaireAlerte(Consumer<List<String>> gestionnaire, Executor executeur) {
+        diffuseur.definirExecuteur(executeur);
         this.gestionnairealerte = gestionnaire;
     }
     
@@ -150,19 +171,16 @@ public class ControleurSimulation {
     
     /**
      * Obtient les N dernières simulations.
-     * Utilise un stream avec limit.
+     * Utilise une sous-vue de la série (sans copie).
      * @param n Nombre de simulations à récupérer
      * @return Liste des N dernières simulations
      */
     public List<RecordSimulation> obtenirDernieresSimulations(int n) {
-        List<RecordSimulation> liste = historique.getListe();
-        int taille = liste.size();
+        SerieTemporelle.Vue serie = historique.getSerie();
+        int taille = serie.size();
         int debut = Math.max(0, taille - n);
         
-        return liste.stream()
-                .skip(debut)
-                .limit(n)
-                .toList();
+        return serie.subList(debut, taille); // Vue sans copie
     }
     
     /**
@@ -182,37 +200,16 @@ public class ControleurSimulation {
     
     /**
      * Obtient les statistiques globales.
-     * Utilise des streams pour les calculs.
+     * Lues dans les agrégats incrémentaux de l'historique.
      * @return String formaté avec les statistiques
      */
     public String obtenirStatistiques() {
-        List<RecordSimulation> liste = historique.getListe();
+        StatistiquesHistorique stats = historique.getStatistiques();
         
-        if (liste.isEmpty()) {
+        if (stats.getNombre() == 0) {
             return "Aucune simulation effectuée.";
         }
         
-        // Calculs avec streams et références de méthode
-        double prodMoyenne = liste.stream()
-                .mapToDouble(RecordSimulation::production)
-                .average()
-                .orElse(0.0);
-        
-        double consoMoyenne = liste.stream()
-                .mapToDouble(RecordSimulation::consommation)
-                .average()
-                .orElse(0.0);
-        
-        double prodMax = liste.stream()
-                .mapToDouble(RecordSimulation::production)
-                .max()
-                .orElse(0.0);
-        
-        double consoMax = liste.stream()
-                .mapToDouble(RecordSimulation::consommation)
-                .max()
-                .orElse(0.0);
-        
         return String.format(
             "📊 STATISTIQUES\n" +
             "Nombre de simulations: %d\n" +
@@ -220,7 +217,8 @@ public class ControleurSimulation {
             "Consommation moyenne: %.2f kWh\n" +
             "Production max: %.2f kWh\n" +
             "Consommation max: %.2f kWh",
-            liste.size(), prodMoyenne, consoMoyenne, prodMax, consoMax
+            stats.getNombre(), stats.getProductionMoyenne(), stats.getConsommationMoyenne(),
+            stats.getProductionMax(), stats.getConsommationMax()
         );
     }
     
@@ -245,4 +243,13 @@ public void ajouterRecordSimulation(RecordSimulation record) {
     public Historique getHistorique() {
         return historique;
     }
+    
+    /**
+     * Arrête le diffuseur des alertes et ferme l'historique (dernière synchronisation disque).
+     */
+    @Override
+    public void close() {
+        diffuseur.close();
+        historique.close();
+    }
 }
\ No newline at end of file
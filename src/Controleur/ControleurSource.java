@@ -38,6 +38,22 @@ public class ControleurSource {
         gestionEnergie.ajouterSource(new Batterie(capaciteMax, niveauInitial, efficacite));
     }
 
+    /**
+     * Ajoute une flotte de batteries identiques (une seule source, stockage en tableaux).
+     * @param nombre Nombre de batteries
+     */
+    public void ajouterFlotteBatteries(int nombre, double capaciteMax, double niveauInitial, double efficacite)
+            throws EnergieException {
+        if (nombre <= 0) {
+            throw new IllegalArgumentException("Le nombre de batteries doit être positif");
+        }
+        FlotteBatteries flotte = new FlotteBatteries(nombre);
+        for (int i = 0; i < nombre; i++) {
+            flotte.ajouter(capaciteMax, niveauInitial, efficacite);
+        }
+        gestionEnergie.ajouterSource(flotte);
+    }
+
     // ============================= READ =============================
     public List<SourceEnergie> obtenirSources() {
         return gestionEnergie.getSources();
@@ -110,12 +126,16 @@ public class ControleurSource {
     }
 
     public String obtenirStatistiques() {
+        // Une flotte compte pour autant d'unités qu'elle contient
         long nbPanneaux = gestionEnergie.getSources().stream()
-                .filter(PanneauSolaire.class::isInstance).count();
+                .mapToLong(s -> s instanceof PanneauSolaire ? 1
+                        : s instanceof FlotteSolaire f ? f.taille() : 0).sum();
         long nbEoliennes = gestionEnergie.getSources().stream()
-                .filter(Eolienne.class::isInstance).count();
+                .mapToLong(s -> s instanceof Eolienne ? 1
+                        : s instanceof FlotteEolienne f ? f.taille() : 0).sum();
         long nbBatteries = gestionEnergie.getSources().stream()
-                .filter(Batterie.class::isInstance).count();
+                .mapToLong(s -> s instanceof Batterie ? 1
+                        : s instanceof FlotteBatteries f ? f.taille() : 0).sum();
 
         double productionTotale = calculerProductionTotale();
 
@@ -0,0 +1,201 @@
+package simulation.modele.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agrégats min/max/moyenne de l'historique par minute, heure et jour.
+ *
+ * Chaque niveau est un tampon circulaire de périodes en tableaux primitifs :
+ * la période en cours est complétée à chaque ajout puis fermée quand le temps
+ * passe à la période suivante ; la plus ancienne est écrasée quand le niveau est plein.
+ *
+ * Classe non synchronisée : Historique la protège par son verrou.
+ */
+public final class AgregatsTemporels {
+
+    /**
+     * Une période agrégée.
+     * @param debut Premier temps de la période
+     * @param duree Durée de la période (unités de temps)
+     */
+    public record Agregat(
+        int debut,
+        int duree,
+        long nombre,
+        double productionMin,
+        double productionMax,
+        double productionMoyenne,
+        double consommationMin,
+        double consommationMax,
+        double consommationMoyenne
+    ) {}
+
+    private final List<Niveau> niveaux = new ArrayList<>();
+    private final List<String> noms = new ArrayList<>();
+
+    /**
+     * Constructeur : un niveau par granularité utile de la politique.
+     * @param politique La politique de rétention
+     */
+    public AgregatsTemporels(PolitiqueRetention politique) {
+        for (int i = 0; i < PolitiqueRetention.NIVEAUX.length; i++) {
+            int duree = politique.dureeNiveau(i);
+            int capacite = politique.capaciteNiveau(i);
+            if (duree > 0 && capacite > 0) {
+                niveaux.add(new Niveau(duree, capacite));
+                noms.add(PolitiqueRetention.NIVEAUX[i]);
+            }
+        }
+    }
+
+    /**
+     * Intègre un enregistrement dans tous les niveaux.
+     */
+    public void ajouter(int temps, double production, double consommation) {
+        for (Niveau n : niveaux) {
+            n.ajouter(temps, production, consommation);
+        }
+    }
+
+    public void vider() {
+        for (Niveau n : niveaux) {
+            n.vider();
+        }
+    }
+
+    /**
+     * Noms des niveaux disponibles, du plus fin au plus grossier.
+     */
+    public List<String> getNiveaux() {
+        return List.copyOf(noms);
+    }
+
+    /**
+     * Périodes conservées d'un niveau, de la plus ancienne à la plus récente
+     * (la période en cours est incluse).
+     * @param nom Nom du niveau ("minute", "heure", "jour")
+     * @return Copie des périodes (vide si niveau absent)
+     */
+    public List<Agregat> niveau(String nom) {
+        int i = noms.indexOf(nom);
+        return i < 0 ? List.of() : niveaux.get(i).periodes(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Périodes recouvrant [depuis, jusqua[ au niveau le plus fin qui couvre encore
+     * le début de l'intervalle (sinon le plus grossier).
+     * @param depuis Premier temps (inclus)
+     * @param jusqua Dernier temps (exclus)
+     * @return Périodes agrégées
+     */
+    public List<Agregat> interroger(int depuis, int jusqua) {
+        if (niveaux.isEmpty() || depuis >= jusqua) return List.of();
+        for (Niveau n : niveaux) {
+            if (n.couvre(depuis)) {
+                return n.periodes(depuis, jusqua);
+            }
+        }
+        return niveaux.get(niveaux.size() - 1).periodes(depuis, jusqua);
+    }
+
+    /**
+     * Tampon circulaire des périodes d'une granularité.
+     */
+    private static final class Niveau {
+        private final int duree;
+        private final int[] debut;
+        private final long[] nombre;
+        private final double[] prodMin, prodMax, prodSomme;
+        private final double[] consoMin, consoMax, consoSomme;
+        private int tete = 0;     // prochaine case écrite
+        private int fermees = 0;  // périodes fermées conservées
+
+        // Période en cours
+        private boolean ouverte = false;
+        private long cle;
+        private long n;
+        private double pMin, pMax, pSomme, cMin, cMax, cSomme;
+
+        Niveau(int duree, int capacite) {
+            this.duree = duree;
+            this.debut = new int[capacite];
+            this.nombre = new long[capacite];
+            this.prodMin = new double[capacite];
+            this.prodMax = new double[capacite];
+            this.prodSomme = new double[capacite];
+            this.consoMin = new double[capacite];
+            this.consoMax = new double[capacite];
+            this.consoSomme = new double[capacite];
+        }
+
+        void ajouter(int temps, double production, double consommation) {
+            long c = Math.floorDiv(temps, duree);
+            if (!ouverte || c != cle) {
+                if (ouverte) fermer();
+                ouverte = true;
+                cle = c;
+                n = 0;
+                pMin = cMin = Double.POSITIVE_INFINITY;
+                pMax = cMax = Double.NEGATIVE_INFINITY;
+                pSomme = cSomme = 0;
+            }
+            n++;
+            pMin = Math.min(pMin, production);
+            pMax = Math.max(pMax, production);
+            pSomme += production;
+            cMin = Math.min(cMin, consommation);
+            cMax = Math.max(cMax, consommation);
+            cSomme += consommation;
+        }
+
+        private void fermer() {
+            debut[tete] = (int) (cle * duree);
+            nombre[tete] = n;
+            prodMin[tete] = pMin;
+            prodMax[tete] = pMax;
+            prodSomme[tete] = pSomme;
+            consoMin[tete] = cMin;
+            consoMax[tete] = cMax;
+            consoSomme[tete] = cSomme;
+            tete = (tete + 1) % debut.length;
+            if (fermees < debut.length) fermees++;
+        }
+
+        void vider() {
+            tete = 0;
+            fermees = 0;
+            ouverte = false;
+        }
+
+        /**
+         * true si la plus ancienne période conservée commence avant le temps donné.
+         */
+        boolean couvre(int temps) {
+            if (fermees > 0) {
+                int plusAncienne = (tete - fermees + debut.length) % debut.length;
+                return debut[plusAncienne] <= temps;
+            }
+            return ouverte && cle * duree <= temps;
+        }
+
+        List<Agregat> periodes(int depuis, int jusqua) {
+            List<Agregat> resultat = new ArrayList<>();
+            for (int k = 0; k < fermees; k++) {
+                int i = (tete - fermees + k + debut.length) % debut.length;
+                if ((long) debut[i] + duree > depuis && debut[i] < jusqua) {
+                    resultat.add(new Agregat(debut[i], duree, nombre[i],
+                            prodMin[i], prodMax[i], prodSomme[i] / nombre[i],
+                            consoMin[i], consoMax[i], consoSomme[i] / nombre[i]));
+                }
+            }
+            if (ouverte) {
+                int d = (int) (cle * duree);
+                if ((long) d + duree > depuis && d < jusqua) {
+                    resultat.add(new Agregat(d, duree, n, pMin, pMax, pSomme / n, cMin, cMax, cSomme / n));
+                }
+            }
+            return resultat;
+        }
+    }
+}
@@ -1,25 +1,39 @@
 package simulation.modele.simulation;
 
+import java.util.function.Predicate;
+
 /**
  * Classe AlerteEnergie pour surveiller les seuils de consommation et production.
  */
 public final class AlerteEnergie {
     private final double seuilConsommation;
     private final double seuilProduction;
+    // Construite une seule fois (et non à chaque vérification)
+    private final Predicate<Simulation> predicateAlerte;
         public AlerteEnergie(double seuilConsommation, double seuilProduction) {
         if (seuilConsommation < 0 || seuilProduction < 0) {
             throw new IllegalArgumentException("Les seuils doivent être positifs.");
         }
         this.seuilConsommation = seuilConsommation;
         this.seuilProduction = seuilProduction;
+        this.predicateAlerte = s ->
+            s.getConsommationTotale() > seuilConsommation || s.getProduc() < seuilProduction;
     }
     /**
      * Vérifie si les seuils sont dépassés via une Predicate (interface fonctionnelle).
      
      */
     public boolean verifierSeuils(Simulation sim) {
-        java.util.function.Predicate<Simulation> predicateAlerte = s ->
-            s.getConsommationTotale() > seuilConsommation || s.getProduc() < seuilProduction;
         return predicateAlerte.test(sim);
     }
+
+    /**
+     * Vérifie les seuils à partir de totaux déjà calculés.
+     * @param consommation Consommation totale
+     * @param production Production totale
+     * @return true si un seuil est dépassé
+     */
+    public boolean verifierSeuils(double consommation, double production) {
+        return consommation > seuilConsommation || production < seuilProduction;
+    }
 }
\ No newline at end of file
@@ -6,6 +6,10 @@ import java.time.format.DateTimeFormatter;
 /**
  * Record immuable pour représenter une alerte énergétique.
  * Conforme aux exigences Java 17 (Record).
+ *
+ * Une alerte regroupe les dépassements répétés d'un même couple (type, source) :
+ * timestamp = première occurrence, derniereOccurrence = dernière,
+ * valeurMesuree = valeur la plus éloignée du seuil.
  */
 public record AlerteRecord(
     LocalDateTime timestamp,
@@ -14,8 +18,14 @@ public record AlerteRecord(
     String message,
     String statut,
     double valeurMesuree,
-    double valeurSeuil
+    double valeurSeuil,
+    String source,
+    int occurrences,
+    LocalDateTime derniereOccurrence
 ) {
+
+    /** Source par défaut : le bilan global du réseau. */
+    public static final String SOURCE_GLOBALE = "RESEAU";
     
     /**
      * Constructeur compact avec validation.
@@ -36,6 +46,24 @@ public record AlerteRecord(
         if (statut == null || !statut.matches("ACTIVE|RESOLUE|ACQUITTEE")) {
             statut = "ACTIVE";
         }
+        if (source == null || source.isEmpty()) {
+            source = SOURCE_GLOBALE;
+        }
+        if (occurrences < 1) {
+            occurrences = 1;
+        }
+        if (derniereOccurrence == null) {
+            derniereOccurrence = timestamp;
+        }
+    }
+
+    /**
+     * Constructeur d'une alerte isolée (une seule occurrence, source globale).
+     */
+    public AlerteRecord(LocalDateTime timestamp, String type, String severite, String message, String statut,
+                        double valeurMesuree, double valeurSeuil) {
+        this(timestamp, type, severite, message, statut, valeurMesuree, valeurSeuil,
+             SOURCE_GLOBALE, 1, timestamp);
     }
     
     /**
@@ -45,6 +73,15 @@ public record AlerteRecord(
                         double valeurMesuree, double valeurSeuil) {
         this(LocalDateTime.now(), type, severite, message, statut, valeurMesuree, valeurSeuil);
     }
+
+    /**
+     * Constructeur simplifié avec source (utilise l'instant actuel).
+     */
+    public AlerteRecord(String type, String severite, String message, String statut,
+                        double valeurMesuree, double valeurSeuil, String source) {
+        this(LocalDateTime.now(), type, severite, message, statut, valeurMesuree, valeurSeuil,
+             source, 1, null);
+    }
     
     /**
      * Retourne la date/heure formatée (NÉCESSAIRE pour PropertyValueFactory).
@@ -68,6 +105,15 @@ public record AlerteRecord(
     public String getStatut() { return statut; }
     public double getValeurMesuree() { return valeurMesuree; }
     public double getValeurSeuil() { return valeurSeuil; }
+    public String getSource() { return source; }
+    public int getOccurrences() { return occurrences; }
+
+    /**
+     * Date/heure de la dernière occurrence, formatée.
+     */
+    public String getDerniereOccurrence() {
+        return derniereOccurrence.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
+    }
     
     /**
      * Crée une copie avec un nouveau statut.
@@ -76,7 +122,25 @@ public record AlerteRecord(
      */
     public AlerteRecord avecStatut(String nouveauStatut) {
         return new AlerteRecord(timestamp, type, severite, message, nouveauStatut, 
-                                valeurMesuree, valeurSeuil);
+                                valeurMesuree, valeurSeuil, source, occurrences, derniereOccurrence);
+    }
+
+    /**
+     * Intègre une nouvelle occurrence du même (type, source).
+     * Garde la première date, la valeur la plus éloignée du seuil (pic)
+     * avec son message, et la sévérité la plus grave.
+     * @param occurrence La nouvelle occurrence
+     * @return Nouvelle instance regroupée
+     */
+    public AlerteRecord fusionner(AlerteRecord occurrence) {
+        boolean pic = Math.abs(occurrence.valeurMesuree - occurrence.valeurSeuil)
+                > Math.abs(valeurMesuree - valeurSeuil);
+        String plusGrave = occurrence.scoreSeverite() > scoreSeverite() ? occurrence.severite : severite;
+        return new AlerteRecord(timestamp, type, plusGrave,
+                pic ? occurrence.message : message, statut,
+                pic ? occurrence.valeurMesuree : valeurMesuree,
+                pic ? occurrence.valeurSeuil : valeurSeuil,
+                source, occurrences + occurrence.occurrences, occurrence.derniereOccurrence);
     }
     
     /**
@@ -111,7 +175,10 @@ public record AlerteRecord(
     
     @Override
     public String toString() {
-        return String.format("[%s] %s - %s: %s (Statut: %s)",
-            getDateHeure(), severite, type, message, statut);
+        String repetitions = occurrences > 1
+            ? String.format(" ×%d, dernière : %s", occurrences, getDerniereOccurrence())
+            : "";
+        return String.format("[%s] %s - %s: %s (Statut: %s%s)",
+            getDateHeure(), severite, type, message, statut, repetitions);
     }
 }
\ No newline at end of file
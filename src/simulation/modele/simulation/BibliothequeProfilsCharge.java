@@ -0,0 +1,189 @@
+package simulation.modele.simulation;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Bibliothèque de profils de charge lue dans un fichier binaire par MappedByteBuffer.
+ *
+ * En-tête (24 octets) : magie "CHRG" (int), version (int), nombre de profils (int),
+ * pas par profil (int), unités de temps par pas (int), réservé (int).
+ * Profils : nombre × pas facteurs (float), profil après profil.
+ * Ordre des octets : little-endian.
+ *
+ * Seul l'en-tête est lu à l'ouverture. profil(i) renvoie toujours la même instance
+ * (poids mouche) ; sa courbe est mappée et vérifiée (facteurs finis et positifs,
+ * comme ProfilChargeTableau) au premier profil(i), jamais pendant une simulation.
+ * Une ville de 100 000 foyers partageant 50 profils ne coûte donc que 50 vues,
+ * quelle que soit la taille de la bibliothèque. Les profils obtenus avant close()
+ * restent lisibles ; profil(i) est refusé après.
+ */
+public final class BibliothequeProfilsCharge implements AutoCloseable {
+
+    public static final int MAGIE = 0x43485247; // "CHRG"
+    public static final int VERSION = 1;
+    public static final int TAILLE_EN_TETE = 24;
+    public static final int TAILLE_VALEUR = 4;
+
+    private final FileChannel canal;
+    private final int nombre;
+    private final int pas;
+    private final int unitesParPas;
+    private final Profil[] profils; // créés à la demande
+
+    /**
+     * Ouvre une bibliothèque (seul l'en-tête est lu).
+     * @param fichier Le fichier binaire
+     * @throws IOException Si le fichier est illisible ou invalide
+     */
+    public BibliothequeProfilsCharge(Path fichier) throws IOException {
+        this.canal = FileChannel.open(fichier, StandardOpenOption.READ);
+        try {
+            if (canal.size() < TAILLE_EN_TETE) {
+                throw new IOException("Bibliothèque de profils tronquée (en-tête incomplet)");
+            }
+            MappedByteBuffer entete = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAILLE_EN_TETE);
+            entete.order(ByteOrder.LITTLE_ENDIAN);
+            if (entete.getInt(0) != MAGIE) {
+                throw new IOException("Bibliothèque de profils invalide (magie incorrecte)");
+            }
+            if (entete.getInt(4) != VERSION) {
+                throw new IOException("Version de bibliothèque de profils non supportée : " + entete.getInt(4));
+            }
+            this.nombre = entete.getInt(8);
+            this.pas = entete.getInt(12);
+            this.unitesParPas = entete.getInt(16);
+            if (nombre <= 0 || pas <= 0 || unitesParPas <= 0) {
+                throw new IOException("Bibliothèque de profils vide ou en-tête invalide");
+            }
+            if (canal.size() < TAILLE_EN_TETE + (long) nombre * pas * TAILLE_VALEUR) {
+                throw new IOException("Bibliothèque de profils tronquée");
+            }
+            this.profils = new Profil[nombre];
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Profil partagé d'indice donné (même instance à chaque appel).
+     * @param indice Indice du profil dans la bibliothèque
+     * @return Le profil
+     * @throws IllegalArgumentException Si la courbe contient un facteur négatif ou non fini
+     * @throws IllegalStateException Si la bibliothèque est fermée ou illisible
+     */
+    public synchronized ProfilCharge profil(int indice) {
+        if (indice < 0 || indice >= nombre) {
+            throw new IndexOutOfBoundsException("Profil inexistant : " + indice);
+        }
+        Profil p = profils[indice];
+        if (p == null) {
+            if (!canal.isOpen()) {
+                throw new IllegalStateException("Bibliothèque de profils fermée");
+            }
+            p = new Profil(mapper(indice));
+            profils[indice] = p;
+        }
+        return p;
+    }
+
+    /**
+     * Nombre de profils de la bibliothèque.
+     */
+    public int taille() {
+        return nombre;
+    }
+
+    public int getPasParProfil() {
+        return pas;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        // Les courbes déjà mappées restent lisibles : un mapping survit à son canal
+        canal.close();
+    }
+
+    /**
+     * Écrit une bibliothèque (ex. pour figer des profils mesurés ou générés).
+     * @param fichier Le fichier binaire (remplacé)
+     * @param sources Profils à échantillonner
+     * @param pas Nombre de pas par profil
+     * @param unitesParPas Unités de temps par pas (1 = horaire, 24 = journalier)
+     * @throws IOException Si erreur d'écriture
+     */
+    public static void ecrire(Path fichier, List<? extends ProfilCharge> sources, int pas, int unitesParPas)
+            throws IOException {
+        if (sources == null || sources.isEmpty() || pas <= 0 || unitesParPas <= 0) {
+            throw new IllegalArgumentException("Profils sources absents ou pas invalide");
+        }
+        try (FileChannel sortie = FileChannel.open(fichier, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long tailleProfil = (long) pas * TAILLE_VALEUR;
+            for (int k = 0; k < sources.size(); k++) {
+                ProfilCharge source = sources.get(k);
+                MappedByteBuffer tampon = sortie.map(FileChannel.MapMode.READ_WRITE,
+                        TAILLE_EN_TETE + k * tailleProfil, tailleProfil);
+                tampon.order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < pas; i++) {
+                    tampon.putFloat(i * TAILLE_VALEUR, (float) source.facteur(i * unitesParPas));
+                }
+                tampon.force();
+            }
+            MappedByteBuffer entete = sortie.map(FileChannel.MapMode.READ_WRITE, 0, TAILLE_EN_TETE);
+            entete.order(ByteOrder.LITTLE_ENDIAN);
+            entete.putInt(0, MAGIE);
+            entete.putInt(4, VERSION);
+            entete.putInt(8, sources.size());
+            entete.putInt(12, pas);
+            entete.putInt(16, unitesParPas);
+            entete.force();
+        }
+    }
+
+    /**
+     * Mappe et vérifie une courbe (une seule passe), lue ensuite sans verrou.
+     */
+    private FloatBuffer mapper(int indice) {
+        FloatBuffer valeurs;
+        try {
+            long tailleProfil = (long) pas * TAILLE_VALEUR;
+            MappedByteBuffer tampon = canal.map(FileChannel.MapMode.READ_ONLY,
+                    TAILLE_EN_TETE + indice * tailleProfil, tailleProfil);
+            valeurs = tampon.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        } catch (IOException e) {
+            throw new IllegalStateException("Lecture du profil de charge impossible : " + e.getMessage(), e);
+        }
+        for (int i = 0; i < pas; i++) {
+            float v = valeurs.get(i);
+            if (!(v >= 0) || Float.isInfinite(v)) { // NaN inclus
+                throw new IllegalArgumentException("Facteur de charge invalide : " + v
+                        + " (profil " + indice + ", pas " + i + ")");
+            }
+        }
+        return valeurs;
+    }
+
+    /**
+     * Vue poids mouche sur un profil de la bibliothèque.
+     */
+    private final class Profil implements ProfilCharge {
+        private final FloatBuffer valeurs;
+
+        Profil(FloatBuffer valeurs) {
+            this.valeurs = valeurs;
+        }
+
+        @Override
+        public double facteur(int temps) {
+            return valeurs.get(Math.floorMod(Math.floorDiv(temps, unitesParPas), pas));
+        }
+    }
+}
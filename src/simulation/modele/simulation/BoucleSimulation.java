@@ -0,0 +1,156 @@
+package simulation.modele.simulation;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Boucle de simulation cadencée sur son propre thread, découplée de l'affichage.
+ *
+ * À chaque pas, le record produit est transmis au puits (ex. l'historique)
+ * puis déposé dans un TamponSPSC que l'interface vide à son rythme (une fois
+ * par pulse JavaFX). La fréquence est réglable jusqu'à FREQUENCE_MAX :
+ * à 1 pas = 1 seconde simulée, 1000 Hz correspond à un avance rapide x1000.
+ */
+public final class BoucleSimulation implements AutoCloseable {
+
+    public static final double FREQUENCE_MAX = 10_000.0;
+    /** Nombre maximal de pas rattrapés d'un coup après un retard (ex. pause GC). */
+    private static final int RATTRAPAGE_MAX = 1000;
+
+    private final LongFunction<RecordSimulation> pas;
+    private final Consumer<RecordSimulation> puits;
+    private final TamponSPSC tampon;
+    private final Object verrouPas = new Object();
+
+    private volatile double frequence = 1.0;
+    private volatile boolean enMarche = false;
+    private volatile boolean fermee = false;
+    private volatile long ticks = 0;
+    private volatile long perdus = 0;
+    private Thread thread;
+
+    /**
+     * Constructeur.
+     * @param pas Calcule le record du pas numéro n (appelé sur le thread de simulation)
+     * @param puits Destination de chaque record (peut être null)
+     * @param capaciteTampon Capacité du tampon vers l'interface
+     */
+    public BoucleSimulation(LongFunction<RecordSimulation> pas, Consumer<RecordSimulation> puits, int capaciteTampon) {
+        if (pas == null) {
+            throw new IllegalArgumentException("La fonction de pas ne peut pas être null");
+        }
+        this.pas = pas;
+        this.puits = puits;
+        this.tampon = new TamponSPSC(capaciteTampon);
+    }
+
+    /**
+     * Démarre (ou reprend) la boucle.
+     */
+    public synchronized void demarrer() {
+        if (fermee) {
+            throw new IllegalStateException("Boucle de simulation fermée");
+        }
+        enMarche = true;
+        if (thread == null) {
+            thread = new Thread(this::boucler, "boucle-simulation");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Suspend la boucle. Au retour, aucun pas n'est en cours.
+     */
+    public void pause() {
+        enMarche = false;
+        synchronized (verrouPas) {
+            // attend la fin du lot de pas en cours
+        }
+    }
+
+    /**
+     * Suspend la boucle et remet le compteur de pas à zéro.
+     * Le tampon doit être vidé par son consommateur.
+     */
+    public void reinitialiser() {
+        pause();
+        synchronized (verrouPas) {
+            ticks = 0;
+        }
+    }
+
+    /**
+     * Définit la fréquence des pas.
+     * @param hz Pas par seconde (0 < hz <= FREQUENCE_MAX)
+     */
+    public void definirFrequence(double hz) {
+        if (!(hz > 0) || hz > FREQUENCE_MAX) {
+            throw new IllegalArgumentException("Fréquence invalide : " + hz + " Hz");
+        }
+        this.frequence = hz;
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    public double getFrequence() { return frequence; }
+    public boolean estEnMarche() { return enMarche; }
+    public long getTicks() { return ticks; }
+    /** Records non transmis à l'interface faute de place dans le tampon. */
+    public long getPerdus() { return perdus; }
+    public TamponSPSC getTampon() { return tampon; }
+
+    /**
+     * Termine le thread de la boucle. Au retour, aucun pas n'est en cours :
+     * le puits ne reçoit plus rien et peut être fermé à son tour.
+     */
+    @Override
+    public void close() {
+        fermee = true;
+        enMarche = false;
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+        synchronized (verrouPas) {
+            // attend la fin du lot de pas en cours
+        }
+    }
+
+    private void boucler() {
+        long echeance = System.nanoTime();
+        while (!fermee) {
+            if (!enMarche) {
+                LockSupport.park(this);
+                echeance = System.nanoTime();
+                continue;
+            }
+            long periode = (long) (1e9 / frequence);
+            long maintenant = System.nanoTime();
+            if (maintenant < echeance) {
+                LockSupport.parkNanos(this, Math.min(echeance - maintenant, periode));
+                continue;
+            }
+            long retard = (maintenant - echeance) / periode;
+            int aFaire = (int) Math.min(1 + retard, RATTRAPAGE_MAX);
+            try {
+                synchronized (verrouPas) {
+                    for (int i = 0; i < aFaire && enMarche; i++) {
+                        RecordSimulation record = pas.apply(ticks);
+                        ticks++;
+                        if (puits != null) puits.accept(record);
+                        if (!tampon.offrir(record.temps(), record.production(), record.consommation())) {
+                            perdus++;
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                enMarche = false;
+                System.err.println("❌ Boucle de simulation arrêtée : " + e.getMessage());
+            }
+            // Retard trop important : on repart de maintenant plutôt que d'accumuler
+            echeance = retard >= RATTRAPAGE_MAX ? maintenant + periode : echeance + aFaire * periode;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package simulation.modele.simulation;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Bus global de notifications de changement du modèle.
+ *
+ * Les émetteurs (GestionEnergie, Historique, ControleurAlertes) ne font que
+ * lever un bit dans un masque atomique ; si le bit est déjà levé, la publication
+ * ne coûte qu'une lecture. La première publication d'une rafale programme une
+ * seule livraison sur l'Executor : les abonnés reçoivent alors l'ensemble des
+ * types d'événements survenus depuis la livraison précédente.
+ * Sans publication, aucune livraison n'a lieu (aucune scrutation).
+ */
+public final class BusEvenements {
+
+    /** Types de changement signalés. */
+    public enum Evenement {
+        /** Source ajoutée ou retirée */
+        SOURCES,
+        /** Consommateur ajouté ou retiré, appareil ajouté */
+        CONSOMMATEURS,
+        /** Unité de temps simulée */
+        SIMULATION,
+        /** Historique complété, vidé ou rechargé */
+        HISTORIQUE,
+        /** Alerte levée ou changement de statut */
+        ALERTES
+    }
+
+    private static final Evenement[] EVENEMENTS = Evenement.values();
+    private static final BusEvenements GLOBAL = new BusEvenements();
+
+    private final AtomicInteger enAttente = new AtomicInteger();
+    private final List<Consumer<Set<Evenement>>> abonnes = new CopyOnWriteArrayList<>();
+    private volatile Executor executeur = Runnable::run;
+
+    BusEvenements() {}
+
+    /**
+     * Bus partagé par tout le modèle.
+     * @return Le bus global
+     */
+    public static BusEvenements global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Raccourci : publie sur le bus global.
+     * @param evenement Le type de changement
+     */
+    public static void signaler(Evenement evenement) {
+        GLOBAL.publier(evenement);
+    }
+
+    /**
+     * Signale un changement (tout thread, sans attente).
+     * @param evenement Le type de changement
+     */
+    public void publier(Evenement evenement) {
+        if (abonnes.isEmpty()) return;
+        int bit = 1 << evenement.ordinal();
+        int avant;
+        do {
+            avant = enAttente.get();
+            if ((avant & bit) != 0) return; // déjà en attente de livraison
+        } while (!enAttente.compareAndSet(avant, avant | bit));
+        if (avant == 0) {
+            executeur.execute(this::livrer);
+        }
+    }
+
+    /**
+     * Abonne un auditeur recevant l'ensemble des types survenus depuis la livraison précédente.
+     * @param abonne L'auditeur
+     */
+    public void abonner(Consumer<Set<Evenement>> abonne) {
+        if (abonne == null) {
+            throw new IllegalArgumentException("L'abonné ne peut pas être null");
+        }
+        abonnes.add(abonne);
+    }
+
+    public void desabonner(Consumer<Set<Evenement>> abonne) {
+        abonnes.remove(abonne);
+    }
+
+    /**
+     * Définit où les livraisons sont exécutées (par défaut : sur le thread émetteur).
+     * @param executeur Ex. un exécuteur aligné sur les pulses JavaFX
+     */
+    public void definirExecuteur(Executor executeur) {
+        this.executeur = executeur == null ? Runnable::run : executeur;
+    }
+
+    private void livrer() {
+        int masque = enAttente.getAndSet(0);
+        if (masque == 0) return;
+        EnumSet<Evenement> evenements = EnumSet.noneOf(Evenement.class);
+        for (Evenement e : EVENEMENTS) {
+            if ((masque & (1 << e.ordinal())) != 0) evenements.add(e);
+        }
+        Set<Evenement> lecture = Collections.unmodifiableSet(evenements);
+        for (Consumer<Set<Evenement>> abonne : abonnes) {
+            try {
+                abonne.accept(lecture);
+            } catch (RuntimeException ex) {
+                System.err.println("❌ Abonné au bus en échec : " + ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package simulation.modele.simulation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des alertes répétées par clé (type, source).
+ *
+ * Tant qu'une alerte est ouverte pour une clé, les nouveaux dépassements
+ * l'enrichissent (nombre d'occurrences, dernière date, pic) au lieu d'en créer
+ * une nouvelle. L'alerte n'est résolue automatiquement que lorsque la mesure est
+ * revenue au-delà du seuil d'une marge (hystérésis) : pas d'oscillation autour du seuil.
+ *
+ * Seules les nouvelles alertes sont à notifier, ainsi que les aggravations de
+ * sévérité, au plus une fois par intervalle de rappel.
+ *
+ * Verrous : toujours le coalesceur puis le registre. La lecture de la position,
+ * la fusion et l'écriture se font sous le verrou du registre : une compaction
+ * concurrente (ex. suppression des résolues depuis l'interface) ne peut pas
+ * décaler les positions entre la lecture et l'écriture.
+ */
+public final class CoalesceurAlertes {
+
+    private final RegistreAlertes registre;
+    private final Map<String, Integer> ouvertes = new HashMap<>();
+    private final Map<String, LocalDateTime> derniersRappels = new HashMap<>();
+    private Duration intervalleRappel = Duration.ofMinutes(1);
+    private long generation;
+
+    /**
+     * Constructeur.
+     * @param registre Registre dans lequel les alertes sont rangées
+     */
+    public CoalesceurAlertes(RegistreAlertes registre) {
+        if (registre == null) {
+            throw new IllegalArgumentException("Le registre ne peut pas être null");
+        }
+        this.registre = registre;
+        this.generation = registre.generation();
+    }
+
+    /**
+     * Intervalle minimal entre deux notifications d'aggravation d'une même alerte.
+     */
+    public synchronized void definirIntervalleRappel(Duration intervalle) {
+        if (intervalle == null || intervalle.isNegative()) {
+            throw new IllegalArgumentException("Intervalle de rappel invalide");
+        }
+        this.intervalleRappel = intervalle;
+    }
+
+    /**
+     * Évalue une règle pour une clé (type, source).
+     * @param type Type d'alerte
+     * @param source Source concernée
+     * @param depasse true si le seuil est franchi
+     * @param retabli true si la mesure est revenue au-delà de la marge d'hystérésis
+     * @param occurrence Construit l'occurrence (appelé seulement si depasse)
+     * @return L'alerte à notifier (nouvelle ou aggravée), sinon null
+     */
+    public synchronized AlerteRecord evaluer(String type, String source, boolean depasse, boolean retabli,
+                                             Supplier<AlerteRecord> occurrence) {
+        synchronized (registre) {
+            if (registre.generation() != generation) {
+                reindexer(); // positions compactées par le registre
+            }
+            String cle = cle(type, source);
+            Integer position = ouvertes.get(cle);
+            AlerteRecord ouverte = position == null ? null : registre.get(position);
+
+            // Résolue ou supprimée entre-temps (ex. par l'utilisateur) : l'épisode est clos
+            if (ouverte != null && ("RESOLUE".equals(ouverte.statut()) || !cle.equals(cle(ouverte.type(), ouverte.source())))) {
+                ouvertes.remove(cle);
+                ouverte = null;
+            }
+
+            if (depasse) {
+                AlerteRecord nouvelle = occurrence.get();
+                if (ouverte == null) {
+                    ouvertes.put(cle, registre.ajouter(nouvelle));
+                    derniersRappels.put(cle, nouvelle.timestamp());
+                    return nouvelle;
+                }
+                AlerteRecord fusionnee = ouverte.fusionner(nouvelle);
+                registre.remplacer(position, fusionnee);
+                if (fusionnee.scoreSeverite() > ouverte.scoreSeverite() && rappelAutorise(cle, nouvelle.timestamp())) {
+                    derniersRappels.put(cle, nouvelle.timestamp());
+                    return fusionnee;
+                }
+                return null;
+            }
+
+            if (ouverte != null && retabli) {
+                registre.changerStatut(position, "RESOLUE");
+                ouvertes.remove(cle);
+                derniersRappels.remove(cle);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Nombre d'alertes ouvertes (non résolues) suivies.
+     */
+    public synchronized int compterOuvertes() {
+        return ouvertes.size();
+    }
+
+    /**
+     * Reconstruit les positions après compaction du registre
+     * (rétention, suppression des résolues) : dernière alerte non résolue par clé.
+     * Appelé automatiquement quand la génération du registre change.
+     */
+    public synchronized void reindexer() {
+        synchronized (registre) {
+            generation = registre.generation();
+            ouvertes.clear();
+            for (int i = 0; i < registre.taille(); i++) {
+                AlerteRecord a = registre.get(i);
+                if (!"RESOLUE".equals(a.statut())) {
+                    ouvertes.put(cle(a.type(), a.source()), i);
+                }
+            }
+        }
+        derniersRappels.keySet().retainAll(ouvertes.keySet());
+    }
+
+    /**
+     * Oublie toutes les alertes ouvertes (registre vidé).
+     */
+    public synchronized void vider() {
+        ouvertes.clear();
+        derniersRappels.clear();
+    }
+
+    private boolean rappelAutorise(String cle, LocalDateTime maintenant) {
+        LocalDateTime dernier = derniersRappels.get(cle);
+        return dernier == null || !maintenant.isBefore(dernier.plus(intervalleRappel));
+    }
+
+    private static String cle(String type, String source) {
+        return type + '\u0000' + (source == null ? AlerteRecord.SOURCE_GLOBALE : source);
+    }
+}
@@ -1,7 +1,7 @@
 package simulation.modele.simulation;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 /**
  * Classe Consommateur représentant un utilisateur d'énergie.
  
@@ -9,7 +9,16 @@ import java.util.stream.Collectors;
 public final class Consommateur {
     private String nom;
     private double consoParUniteTemps;
-    private final Map<String, Double> consommations; // Mutable interne, mais getter immuable
+    // Appareils : identifiants internés (TypesAppareils) et consommations en tableaux
+    // parallèles, alloués au premier appareil seulement
+    private int[] typesAppareils;
+    private double[] consoAppareils;
+    private int nbAppareils;
+    private double totalAppareils; // tenu à jour par ajouterConsommation
+    private Map<String, Double> vueAppareils; // getConsommations(), recréée après modification
+    private ProfilCharge profil; // partagé, null = consommation constante
+    private int dephasage;
+    private VersionModele version; // null tant que le consommateur n'est pas dans un modèle
     
     public Consommateur(String nom, double consoParUniteTemps) throws EnergieException { // AJOUT throws
     if (nom == null || nom.isEmpty()) {
@@ -20,7 +29,6 @@ public final class Consommateur {
     }
     this.nom = nom;
     this.consoParUniteTemps = consoParUniteTemps;
-    this.consommations = new HashMap<>();
 }
     /**
      * Retourne la consommation actuelle par unité de temps.
@@ -29,6 +37,35 @@ public final class Consommateur {
     public double consommerEnergie() {
         return consoParUniteTemps;
     }
+    /**
+     * Consommation à un instant donné : nominale × facteur du profil (déphasé).
+     * Sans profil, égale à la consommation nominale.
+     * @param temps Temps simulé
+     */
+    public double consommationA(int temps) {
+        ProfilCharge p = profil;
+        return p == null ? consoParUniteTemps : consoParUniteTemps * p.facteur(temps + dephasage);
+    }
+    /**
+     * Associe un profil de charge partagé. La consommation nominale sert d'échelle
+     * (ajusterConso la modifie) ; le déphasage décale la courbe pour ce consommateur.
+     * @param profil Le profil, ou null pour une consommation constante
+     * @param dephasage Décalage en unités de temps (ex. 1 = une heure d'avance)
+     */
+    public void definirProfil(ProfilCharge profil, int dephasage) {
+        this.profil = profil;
+        this.dephasage = dephasage;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.CONSOMMATEURS);
+    }
+    public ProfilCharge getProfil() { return profil; }
+    /**
+     * Rattache le consommateur au compteur de version de son modèle (GestionEnergie.ajouterConsommateur).
+     */
+    void rattacherVersion(VersionModele version) {
+        this.version = version;
+    }
+    public int getDephasage() { return dephasage; }
     /**
      * Ajuste par multiplication (facteur >0).
     
@@ -38,6 +75,8 @@ public final class Consommateur {
             throw new IllegalArgumentException("Facteur d'ajustement doit être positif.");
         }
         consoParUniteTemps *= facteur;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.CONSOMMATEURS);
     }
     /**
      * Ajuste par delta (évite négatif).
@@ -48,27 +87,106 @@ public final class Consommateur {
         if (consoParUniteTemps < 0) {
             consoParUniteTemps = 0;
         }
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.CONSOMMATEURS);
     }
     /**
-     * Ajoute consommation pour appareil.
+     * Ajoute (ou remplace) la consommation d'un appareil.
+     * L'écart est reporté sur le total des appareils et sur la consommation nominale.
     
      */
     public void ajouterConsommation(String appareil, double conso) {
         if (appareil == null || appareil.isEmpty() || conso < 0) {
             throw new IllegalArgumentException("Appareil valide et conso positive obligatoires.");
         }
-        consommations.put(appareil, conso);
+        int type = TypesAppareils.identifiant(appareil);
+        int i = indiceAppareil(type);
+        double ancienne = 0.0;
+        if (i >= 0) {
+            ancienne = consoAppareils[i];
+        } else {
+            if (typesAppareils == null) {
+                typesAppareils = new int[2];
+                consoAppareils = new double[2];
+            } else if (nbAppareils == typesAppareils.length) {
+                typesAppareils = Arrays.copyOf(typesAppareils, nbAppareils * 2);
+                consoAppareils = Arrays.copyOf(consoAppareils, nbAppareils * 2);
+            }
+            i = nbAppareils++;
+            typesAppareils[i] = type;
+        }
+        consoAppareils[i] = conso;
+        totalAppareils += conso - ancienne;
+        consoParUniteTemps = Math.max(0, consoParUniteTemps + conso - ancienne);
+        vueAppareils = null;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.CONSOMMATEURS);
+    }
+
+    private int indiceAppareil(int type) {
+        for (int i = 0; i < nbAppareils; i++) {
+            if (typesAppareils[i] == type) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Nombre d'appareils déclarés.
+     */
+    public int getNombreAppareils() { return nbAppareils; }
+    /**
+     * Identifiant (TypesAppareils) du i-ème appareil.
+     */
+    public int getTypeAppareil(int i) {
+        verifierIndiceAppareil(i);
+        return typesAppareils[i];
+    }
+    /**
+     * Consommation du i-ème appareil.
+     */
+    public double getConsommationAppareil(int i) {
+        verifierIndiceAppareil(i);
+        return consoAppareils[i];
+    }
+    /**
+     * Somme des consommations des appareils (coût constant).
+     */
+    public double getConsommationAppareils() { return totalAppareils; }
+
+    /**
+     * Ajoute la consommation de chaque appareil à repartition[type] (sans allocation).
+     * @param repartition Tableau indexé par identifiant de type, d'au moins TypesAppareils.nombre() cases
+     */
+    void cumulerAppareils(double[] repartition) {
+        for (int i = 0; i < nbAppareils; i++) {
+            int type = typesAppareils[i];
+            if (type < repartition.length) repartition[type] += consoAppareils[i]; // type interné après dimensionnement
+        }
+    }
+
+    private void verifierIndiceAppareil(int i) {
+        if (i < 0 || i >= nbAppareils) {
+            throw new IndexOutOfBoundsException("Appareil inexistant : " + i);
+        }
     }
     // Getters
     public String getNom() { return nom; }
     public double getConsommation() { return consoParUniteTemps; }
     public double getConsommationParUniteTemps() { return consoParUniteTemps; }
     /**
-     * Retourne Map immuable des consommations via stream.
+     * Retourne Map immuable des consommations, construite une fois par modification.
     
      */
     public Map<String, Double> getConsommations() {
-        return consommations.entrySet().stream()
-                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
+        Map<String, Double> vue = vueAppareils;
+        if (vue == null) {
+            Map<String, Double> copie = new HashMap<>(nbAppareils * 2);
+            for (int i = 0; i < nbAppareils; i++) {
+                copie.put(TypesAppareils.nom(typesAppareils[i]), consoAppareils[i]);
+            }
+            vue = Map.copyOf(copie);
+            vueAppareils = vue;
+        }
+        return vue;
     }
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package simulation.modele.simulation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * File bornée multi-producteurs / un consommateur pour les notifications d'alertes.
+ *
+ * Les producteurs (boucle de simulation, contrôleurs) ne font que déposer
+ * l'élément et repartent : ils n'attendent jamais de place ni les auditeurs.
+ * Un thread démon dédié vide la file par lots et remet chaque lot aux
+ * auditeurs via un Executor (ex. Platform::runLater), une seule fois par lot.
+ *
+ * Un seul lot est en cours de livraison à la fois : tant que l'Executor ne l'a
+ * pas exécuté, les nouveaux éléments s'accumulent dans la file bornée, où la
+ * politique de contre-pression s'applique (au lieu de saturer l'Executor).
+ *
+ * @param <T> Type des éléments diffusés
+ */
+public final class DiffuseurAlertes<T> implements AutoCloseable {
+
+    /** Politique appliquée quand la file est pleine ou qu'un élément équivalent attend déjà. */
+    public enum Politique {
+        /** File pleine : l'élément le plus ancien est abandonné. */
+        SUPPRIMER_PLUS_ANCIEN,
+        /** Un élément de même clé en attente est remplacé (sa place est conservée) ; file pleine : le plus ancien est abandonné. */
+        FUSIONNER
+    }
+
+    public static final int CAPACITE_PAR_DEFAUT = 1024;
+    public static final int TAILLE_LOT_PAR_DEFAUT = 256;
+
+    private final int capacite;
+    private final int tailleLot;
+    private final Politique politique;
+    private final Function<? super T, ?> cle;
+
+    private final ReentrantLock verrou = new ReentrantLock();
+    private final Condition nonVide = verrou.newCondition();
+    private final ArrayDeque<T> file;                  // SUPPRIMER_PLUS_ANCIEN
+    private final LinkedHashMap<Object, T> enAttente;  // FUSIONNER
+
+    private final List<Consumer<List<T>>> auditeurs = new CopyOnWriteArrayList<>();
+    private final Semaphore livraison = new Semaphore(1);
+    private volatile Executor executeur = Runnable::run;
+    private volatile boolean ferme = false;
+    private final Thread distributeur;
+
+    // Compteurs (lus sans verrou, à titre indicatif)
+    private volatile long publies;
+    private volatile long abandonnes;
+    private volatile long fusionnes;
+    private volatile long lotsLivres;
+
+    /**
+     * Diffuseur avec abandon du plus ancien.
+     * @param nom Nom du thread distributeur
+     * @param capacite Nombre maximal d'éléments en attente
+     */
+    public DiffuseurAlertes(String nom, int capacite) {
+        this(nom, capacite, TAILLE_LOT_PAR_DEFAUT, Politique.SUPPRIMER_PLUS_ANCIEN, null);
+    }
+
+    /**
+     * Constructeur complet.
+     * @param nom Nom du thread distributeur
+     * @param capacite Nombre maximal d'éléments en attente
+     * @param tailleLot Nombre maximal d'éléments par lot livré
+     * @param politique Politique de contre-pression
+     * @param cle Clé de fusion (obligatoire pour FUSIONNER, ignorée sinon)
+     */
+    public DiffuseurAlertes(String nom, int capacite, int tailleLot, Politique politique, Function<? super T, ?> cle) {
+        if (capacite < 1 || tailleLot < 1) {
+            throw new IllegalArgumentException("La capacité et la taille de lot doivent être positives.");
+        }
+        if (politique == null) {
+            throw new IllegalArgumentException("La politique ne peut pas être null");
+        }
+        if (politique == Politique.FUSIONNER && cle == null) {
+            throw new IllegalArgumentException("La politique FUSIONNER exige une clé");
+        }
+        this.capacite = capacite;
+        this.tailleLot = tailleLot;
+        this.politique = politique;
+        this.cle = cle;
+        this.file = politique == Politique.SUPPRIMER_PLUS_ANCIEN ? new ArrayDeque<>() : null;
+        this.enAttente = politique == Politique.FUSIONNER ? new LinkedHashMap<>() : null;
+
+        this.distributeur = new Thread(this::boucler, nom);
+        this.distributeur.setDaemon(true);
+        this.distributeur.start();
+    }
+
+    /**
+     * Dépose un élément sans jamais attendre (ni place, ni auditeurs).
+     * @param element L'élément à diffuser (ignoré si null ou diffuseur fermé)
+     */
+    public void publier(T element) {
+        if (element == null || ferme) return;
+        verrou.lock();
+        try {
+            boolean etaitVide = tailleEnAttente() == 0;
+            if (politique == Politique.FUSIONNER) {
+                Object k = cle.apply(element);
+                if (enAttente.containsKey(k)) {
+                    enAttente.put(k, element); // remplace, garde la position
+                    fusionnes++;
+                } else {
+                    if (enAttente.size() >= capacite) {
+                        Iterator<Object> it = enAttente.keySet().iterator();
+                        it.next();
+                        it.remove();
+                        abandonnes++;
+                    }
+                    enAttente.put(k, element);
+                }
+            } else {
+                if (file.size() >= capacite) {
+                    file.pollFirst();
+                    abandonnes++;
+                }
+                file.addLast(element);
+            }
+            publies++;
+            if (etaitVide) nonVide.signal();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Ajoute un auditeur recevant chaque lot (dans l'ordre de publication).
+     * @param auditeur L'auditeur
+     */
+    public void ajouterAuditeur(Consumer<List<T>> auditeur) {
+        if (auditeur == null) {
+            throw new IllegalArgumentException("L'auditeur ne peut pas être null");
+        }
+        auditeurs.add(auditeur);
+    }
+
+    /**
+     * Retire un auditeur.
+     * @param auditeur L'auditeur
+     */
+    public void retirerAuditeur(Consumer<List<T>> auditeur) {
+        auditeurs.remove(auditeur);
+    }
+
+    /**
+     * Retire tous les auditeurs.
+     */
+    public void viderAuditeurs() {
+        auditeurs.clear();
+    }
+
+    /**
+     * Définit l'Executor de livraison (par défaut : le thread distributeur lui-même).
+     * @param executeur Ex. Platform::runLater pour livrer sur le thread JavaFX
+     */
+    public void definirExecuteur(Executor executeur) {
+        this.executeur = executeur == null ? Runnable::run : executeur;
+    }
+
+    public long getPublies() { return publies; }
+    public long getAbandonnes() { return abandonnes; }
+    public long getFusionnes() { return fusionnes; }
+    public long getLotsLivres() { return lotsLivres; }
+    public Politique getPolitique() { return politique; }
+    public int getCapacite() { return capacite; }
+
+    /**
+     * Nombre d'éléments en attente de livraison.
+     * @return Taille courante de la file
+     */
+    public int taille() {
+        verrou.lock();
+        try {
+            return tailleEnAttente();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Arrête le thread distributeur ; les éléments en attente sont abandonnés.
+     */
+    @Override
+    public void close() {
+        ferme = true;
+        distributeur.interrupt();
+    }
+
+    private int tailleEnAttente() {
+        return politique == Politique.FUSIONNER ? enAttente.size() : file.size();
+    }
+
+    private void boucler() {
+        try {
+            while (!ferme) {
+                // Attendre que le lot précédent ait été exécuté par l'Executor
+                livraison.acquire();
+                List<T> lot = prendreLot();
+                Runnable tache = () -> {
+                    try {
+                        for (Consumer<List<T>> auditeur : auditeurs) {
+                            try {
+                                auditeur.accept(lot);
+                            } catch (RuntimeException e) {
+                                System.err.println("❌ Auditeur d'alertes en échec : " + e.getMessage());
+                            }
+                        }
+                        lotsLivres++;
+                    } finally {
+                        livraison.release();
+                    }
+                };
+                try {
+                    executeur.execute(tache);
+                } catch (RuntimeException e) {
+                    // Executor indisponible (ex. toolkit arrêté) : lot perdu
+                    livraison.release();
+                    System.err.println("⚠️ Livraison d'alertes impossible : " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<T> prendreLot() throws InterruptedException {
+        verrou.lock();
+        try {
+            while (tailleEnAttente() == 0) {
+                nonVide.await();
+            }
+            int n = Math.min(tailleLot, tailleEnAttente());
+            List<T> lot = new ArrayList<>(n);
+            if (politique == Politique.FUSIONNER) {
+                Iterator<T> it = enAttente.values().iterator();
+                while (lot.size() < n) {
+                    lot.add(it.next());
+                    it.remove();
+                }
+            } else {
+                while (lot.size() < n) {
+                    lot.add(file.pollFirst());
+                }
+            }
+            return List.copyOf(lot);
+        } finally {
+            verrou.unlock();
+        }
+    }
+}
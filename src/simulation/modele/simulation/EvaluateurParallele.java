@@ -0,0 +1,138 @@
+package simulation.modele.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Évaluation partitionnée des grandes flottes (sources, consommateurs)
+ * sur un ForkJoinPool.
+ *
+ * La somme est toujours calculée par le même arbre de découpage (blocs de
+ * TAILLE_BLOC éléments, coupés aux frontières de blocs) : le résultat est
+ * identique en séquentiel et en parallèle, quel que soit le nombre de cœurs.
+ * En dessous du seuil de parallélisme, le même arbre est parcouru sur le thread appelant.
+ */
+public final class EvaluateurParallele {
+
+    public static final int SEUIL_PAR_DEFAUT = 8192;
+    static final int TAILLE_BLOC = 1024;
+
+    private static volatile EvaluateurParallele parDefaut =
+            new EvaluateurParallele(SEUIL_PAR_DEFAUT, ForkJoinPool.commonPool());
+
+    private final int seuilParallelisme;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructeur.
+     * @param seuilParallelisme Taille minimale d'un tableau pour passer en parallèle
+     * @param pool Le pool d'exécution
+     */
+    public EvaluateurParallele(int seuilParallelisme, ForkJoinPool pool) {
+        if (seuilParallelisme < 1) {
+            throw new IllegalArgumentException("Le seuil de parallélisme doit être positif.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Le pool ne peut pas être null");
+        }
+        this.seuilParallelisme = seuilParallelisme;
+        this.pool = pool;
+    }
+
+    /**
+     * Évaluateur utilisé par défaut par Simulation.
+     * @return L'évaluateur par défaut
+     */
+    public static EvaluateurParallele parDefaut() {
+        return parDefaut;
+    }
+
+    /**
+     * Remplace l'évaluateur par défaut (ex. seuil ou pool dédiés).
+     * @param evaluateur Le nouvel évaluateur
+     */
+    public static void definirParDefaut(EvaluateurParallele evaluateur) {
+        if (evaluateur == null) {
+            throw new IllegalArgumentException("L'évaluateur ne peut pas être null");
+        }
+        parDefaut = evaluateur;
+    }
+
+    /**
+     * Somme d'une fonction sur un tableau homogène (un seul type concret :
+     * l'appel reste monomorphe dans la boucle).
+     * @param elements Les éléments
+     * @param fonction Valeur de chaque élément
+     * @return Somme déterministe
+     */
+    public <T> double sommer(T[] elements, ToDoubleFunction<? super T> fonction) {
+        if (elements.length == 0) return 0.0;
+        if (elements.length < seuilParallelisme) {
+            return sommerArbre(elements, fonction, 0, elements.length);
+        }
+        return pool.invoke(new TacheSomme<>(elements, fonction, 0, elements.length));
+    }
+
+    public int getSeuilParallelisme() {
+        return seuilParallelisme;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    private static <T> double sommerArbre(T[] elements, ToDoubleFunction<? super T> fonction, int debut, int fin) {
+        if (fin - debut <= TAILLE_BLOC) {
+            return sommerBloc(elements, fonction, debut, fin);
+        }
+        int milieu = milieu(debut, fin);
+        return sommerArbre(elements, fonction, debut, milieu) + sommerArbre(elements, fonction, milieu, fin);
+    }
+
+    private static <T> double sommerBloc(T[] elements, ToDoubleFunction<? super T> fonction, int debut, int fin) {
+        double somme = 0.0;
+        for (int i = debut; i < fin; i++) {
+            somme += fonction.applyAsDouble(elements[i]);
+        }
+        return somme;
+    }
+
+    /**
+     * Point de coupe aligné sur une frontière de bloc.
+     */
+    private static int milieu(int debut, int fin) {
+        int blocs = (fin - debut + TAILLE_BLOC - 1) / TAILLE_BLOC;
+        return debut + (blocs / 2) * TAILLE_BLOC;
+    }
+
+    private static final class TacheSomme<T> extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] elements;
+        private final ToDoubleFunction<? super T> fonction;
+        private final int debut;
+        private final int fin;
+
+        TacheSomme(T[] elements, ToDoubleFunction<? super T> fonction, int debut, int fin) {
+            this.elements = elements;
+            this.fonction = fonction;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected Double compute() {
+            if (fin - debut <= TAILLE_BLOC) {
+                return sommerBloc(elements, fonction, debut, fin);
+            }
+            int milieu = milieu(debut, fin);
+            TacheSomme<T> gauche = new TacheSomme<>(elements, fonction, debut, milieu);
+            TacheSomme<T> droite = new TacheSomme<>(elements, fonction, milieu, fin);
+            gauche.fork();
+            double sommeDroite = droite.compute();
+            // Toujours gauche + droite : même ordre que le parcours séquentiel
+            return gauche.join() + sommeDroite;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package simulation.modele.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Format binaire à largeur fixe de l'historique, lu par MappedByteBuffer et
+ * écrit par FileChannel.write (aucun mapping en écriture : le fichier peut être
+ * tronqué à tout moment, y compris sous Windows).
+ *
+ * En-tête (16 octets) : magie "HIST" (int), version (int), nombre d'enregistrements (long).
+ * Enregistrement (20 octets) : temps (int), production (double), consommation (double).
+ * Ordre des octets : little-endian.
+ *
+ * Le nombre de l'en-tête n'est mis à jour qu'après l'écriture des données :
+ * un ajout interrompu laisse un fichier cohérent (les octets en trop sont ignorés).
+ */
+public final class FormatBinaireHistorique {
+
+    private static final int MAGIE = 0x48495354; // "HIST"
+    private static final int VERSION = 1;
+    private static final int TAILLE_EN_TETE = 16;
+    private static final int TAILLE_ENREGISTREMENT = 20;
+
+    /** Nombre d'enregistrements par fenêtre de mapping (~20 Mo). */
+    private static final int FENETRE = 1 << 20;
+
+    /** Nombre d'enregistrements par écriture groupée (~1,3 Mo). */
+    private static final int ENREGISTREMENTS_PAR_ECRITURE = 1 << 16;
+
+    private FormatBinaireHistorique() {}
+
+    /**
+     * Parcourt un fichier binaire enregistrement par enregistrement, sans création d'objet.
+     * @param fichier Le fichier binaire
+     * @param visiteur Reçoit (temps, production, consommation) dans l'ordre du fichier
+     * @return Nombre d'enregistrements lus
+     * @throws IOException Si le fichier est illisible ou invalide
+     */
+    public static long lire(Path fichier, SerieTemporelle.VisiteurEnregistrement visiteur) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long nombre = lireNombre(canal);
+            long lus = 0;
+            while (lus < nombre) {
+                int n = (int) Math.min(FENETRE, nombre - lus);
+                MappedByteBuffer tampon = canal.map(FileChannel.MapMode.READ_ONLY,
+                        TAILLE_EN_TETE + lus * TAILLE_ENREGISTREMENT, (long) n * TAILLE_ENREGISTREMENT);
+                tampon.order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0, pos = 0; i < n; i++, pos += TAILLE_ENREGISTREMENT) {
+                    int temps = tampon.getInt(pos);
+                    double production = tampon.getDouble(pos + 4);
+                    double consommation = tampon.getDouble(pos + 12);
+                    visiteur.visiter(temps, production, consommation);
+                }
+                lus += n;
+            }
+            return lus;
+        }
+    }
+
+    /**
+     * Tronque le fichier à un en-tête vide.
+     * @param fichier Le fichier binaire
+     * @throws IOException Si erreur d'écriture
+     */
+    public static void reinitialiser(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            canal.truncate(0);
+            ecrireEnTete(canal, 0, true);
+        }
+    }
+
+    /**
+     * Écrivain en mode ajout : un seul canal ouvert pour toute la durée de vie de
+     * l'historique, un tampon réutilisé, aucune allocation par sauvegarde.
+     * Le nombre de l'en-tête n'est mis à jour qu'après les données.
+     */
+    public static final class Ecrivain implements AutoCloseable {
+        private final FileChannel canal;
+        private final ByteBuffer tampon = ByteBuffer
+                .allocateDirect(ENREGISTREMENTS_PAR_ECRITURE * TAILLE_ENREGISTREMENT)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        private long nombre;
+
+        /**
+         * Ouvre (ou crée) le fichier.
+         * @param fichier Le fichier binaire
+         * @throws IOException Si le fichier est illisible ou invalide
+         */
+        public Ecrivain(Path fichier) throws IOException {
+            this.canal = FileChannel.open(fichier,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                this.nombre = canal.size() == 0 ? ecrireEnTete(canal, 0, false) : lireNombre(canal);
+            } catch (IOException e) {
+                canal.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Ajoute des enregistrements en fin de fichier.
+         * @param aEcrire Les enregistrements à ajouter
+         * @param forcer true pour synchroniser sur disque (fsync) avant et après l'en-tête
+         * @throws IOException Si erreur d'écriture (l'en-tête n'est alors pas modifié)
+         */
+        public void ajouter(SerieTemporelle.Vue aEcrire, boolean forcer) throws IOException {
+            int total = aEcrire.size();
+            long position = TAILLE_EN_TETE + nombre * TAILLE_ENREGISTREMENT;
+            int ecrits = 0;
+            while (ecrits < total) {
+                int n = Math.min(ENREGISTREMENTS_PAR_ECRITURE, total - ecrits);
+                tampon.clear();
+                for (int i = ecrits; i < ecrits + n; i++) {
+                    tampon.putInt(aEcrire.temps(i))
+                          .putDouble(aEcrire.production(i))
+                          .putDouble(aEcrire.consommation(i));
+                }
+                tampon.flip();
+                while (tampon.hasRemaining()) {
+                    position += canal.write(tampon, position);
+                }
+                ecrits += n;
+            }
+            if (forcer) canal.force(false);
+            ecrireEnTete(canal, nombre + total, forcer);
+            nombre += total;
+        }
+
+        /**
+         * Tronque le fichier à un en-tête vide.
+         * @throws IOException Si erreur d'écriture
+         */
+        public void reinitialiser() throws IOException {
+            canal.truncate(0);
+            nombre = ecrireEnTete(canal, 0, true);
+        }
+
+        /**
+         * Synchronise sur disque (fsync).
+         * @throws IOException Si erreur d'écriture
+         */
+        public void forcer() throws IOException {
+            canal.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            canal.close();
+        }
+    }
+
+    private static long lireNombre(FileChannel canal) throws IOException {
+        if (canal.size() < TAILLE_EN_TETE) {
+            throw new IOException("Fichier binaire tronqué (en-tête incomplet)");
+        }
+        ByteBuffer entete = ByteBuffer.allocate(TAILLE_EN_TETE).order(ByteOrder.LITTLE_ENDIAN);
+        while (entete.hasRemaining()) {
+            if (canal.read(entete, entete.position()) < 0) {
+                throw new IOException("Fichier binaire tronqué (en-tête incomplet)");
+            }
+        }
+        if (entete.getInt(0) != MAGIE) {
+            throw new IOException("Fichier binaire invalide (magie incorrecte)");
+        }
+        if (entete.getInt(4) != VERSION) {
+            throw new IOException("Version de fichier binaire non supportée : " + entete.getInt(4));
+        }
+        long nombre = entete.getLong(8);
+        long disponibles = (canal.size() - TAILLE_EN_TETE) / TAILLE_ENREGISTREMENT;
+        return Math.max(0, Math.min(nombre, disponibles));
+    }
+
+    private static long ecrireEnTete(FileChannel canal, long nombre, boolean forcer) throws IOException {
+        ByteBuffer entete = ByteBuffer.allocate(TAILLE_EN_TETE).order(ByteOrder.LITTLE_ENDIAN);
+        entete.putInt(MAGIE).putInt(VERSION).putLong(nombre).flip();
+        while (entete.hasRemaining()) {
+            canal.write(entete, entete.position());
+        }
+        if (forcer) canal.force(false);
+        return nombre;
+    }
+}
@@ -4,8 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Map;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 import simulation.modele.source.SourceEnergie;
 import simulation.modele.source.StockageEnergie;
@@ -17,8 +15,21 @@ public class GestionEnergie {
     private final List<Consommateur> consommateurs = new ArrayList<>();
 
     private AlerteEnergie alerte;
+    private EvaluateurParallele evaluateur = EvaluateurParallele.parDefaut();
+    private ProfilMeteo profilMeteo;   // null = production constante
     private int tempsSimule = 0;   // ✔ temps réel de la simulation
 
+    // Version propre à ce modèle, transmise aux sources et consommateurs ajoutés
+    private final VersionModele version = new VersionModele();
+    // Cache des totaux, invalidé par la version (et par le temps si des profils de charge sont utilisés)
+    private long versionCache = -1;
+    private int tempsCache = -1;
+    private boolean consommationVariable;
+    private double productionCache;
+    private double consommationCache;
+    private long versionRepartition = -1;
+    private RepartitionAppareils repartitionCache;
+
     public GestionEnergie() {}
 
     // -------------------------------
@@ -28,11 +39,17 @@ public class GestionEnergie {
     public void ajouterSource(SourceEnergie s) throws EnergieException {
         if (s == null) throw EnergieException.simulationInvalide("Source nulle");
         sources.add(s);
+        s.rattacherVersion(version);
+        version.incrementer();
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
     }
 
     public void ajouterConsommateur(Consommateur c) throws EnergieException {
         if (c == null) throw EnergieException.simulationInvalide("Consommateur nul");
         consommateurs.add(c);
+        c.rattacherVersion(version);
+        version.incrementer();
+        BusEvenements.signaler(BusEvenements.Evenement.CONSOMMATEURS);
     }
 
     // -------------------------------
@@ -47,24 +64,114 @@ public class GestionEnergie {
         this.alerte = new AlerteEnergie(seuilConsommation, seuilProduction);
     }
 
+    // -------------------------------
+    // ÉVALUATION DES GRANDES FLOTTES
+    // -------------------------------
+
+    /**
+     * Définit l'évaluateur (seuil de parallélisme, pool) des totaux.
+     * @param evaluateur L'évaluateur
+     */
+    public synchronized void definirEvaluateur(EvaluateurParallele evaluateur) {
+        if (evaluateur == null) {
+            throw new IllegalArgumentException("L'évaluateur ne peut pas être null");
+        }
+        this.evaluateur = evaluateur;
+        this.versionCache = -1;
+    }
+
+    // -------------------------------
+    // MÉTÉO
+    // -------------------------------
+
+    /**
+     * Définit le profil météo appliqué à chaque unité de temps
+     * (ensoleillement des panneaux, vent des éoliennes).
+     * @param profil Le profil, ou null pour une production constante
+     */
+    public void definirProfilMeteo(ProfilMeteo profil) {
+        this.profilMeteo = profil;
+    }
+
+    public ProfilMeteo getProfilMeteo() {
+        return profilMeteo;
+    }
+
+    /**
+     * Applique la météo du temps donné aux sources qui en dépendent.
+     * Les valeurs du profil sont ramenées dans les bornes des sources
+     * (irradiance dans [0, 1], vent ≥ 0, NaN = 0) : un échantillon
+     * aberrant d'un fichier n'interrompt pas la simulation.
+     * Une seule version pour tout le pas, et pas d'événement SOURCES :
+     * le changement de production est publié avec SIMULATION en fin de pas.
+     */
+    private void appliquerMeteo(int temps) {
+        double irradiance = borner(profilMeteo.irradiance(temps), 1.0);
+        double vent = borner(profilMeteo.vitesseVent(temps), Double.MAX_VALUE);
+        SourceEnergie.appliquerMeteo(sources, irradiance, vent);
+        version.incrementer();
+    }
+
+    private static double borner(double valeur, double max) {
+        return valeur > 0 ? Math.min(valeur, max) : 0.0; // NaN et négatifs -> 0
+    }
+
     // -------------------------------
     // MESURES DE CONSOMMATION/PRODUCTION
     // -------------------------------
 
     public double productionTotale() {
-        Simulation sim = new Simulation(sources, consommateurs);
-        return sim.getProduc();
+        rafraichirTotaux();
+        return productionCache;
     }
 
     public double consommationTotale() {
-        Simulation sim = new Simulation(sources, consommateurs);
-        return sim.getConsommationTotale();
+        rafraichirTotaux();
+        return consommationCache;
     }
 
     public boolean verifierAlerte() {
         if (alerte == null) return false;
-        Simulation sim = new Simulation(sources, consommateurs);
-        return alerte.verifierSeuils(sim);
+        rafraichirTotaux();
+        return alerte.verifierSeuils(consommationCache, productionCache);
+    }
+
+    /**
+     * Recalcule les totaux uniquement si le modèle a changé depuis le dernier calcul,
+     * ou seulement la consommation si le temps a avancé et qu'un profil de charge est utilisé.
+     * Sinon coût constant.
+     */
+    private synchronized void rafraichirTotaux() {
+        long courante = version.courante();
+        if (courante != versionCache) {
+            Simulation sim = new Simulation(sources, consommateurs, evaluateur);
+            productionCache = sim.getProduc();
+            consommationCache = sim.getConsommationTotale(tempsSimule);
+            consommationVariable = consommateurs.stream().anyMatch(c -> c.getProfil() != null);
+            versionCache = courante;
+            tempsCache = tempsSimule;
+        } else if (consommationVariable && tempsSimule != tempsCache) {
+            consommationCache = new Simulation(List.of(), consommateurs, evaluateur).getConsommationTotale(tempsSimule);
+            tempsCache = tempsSimule;
+        }
+    }
+
+    /**
+     * Consommation cumulée par type d'appareil sur tous les consommateurs.
+     * Une passe sur les tableaux d'appareils, refaite seulement si le modèle a changé.
+     * @return Instantané de la répartition
+     */
+    public synchronized RepartitionAppareils repartitionAppareils() {
+        long courante = version.courante();
+        if (courante != versionRepartition || repartitionCache == null) {
+            double[] parType = new double[TypesAppareils.nombre()];
+            for (int i = 0, n = consommateurs.size(); i < n; i++) {
+                consommateurs.get(i).cumulerAppareils(parType);
+            }
+            repartitionCache = new RepartitionAppareils(parType);
+            versionRepartition = courante;
+        }
+        return repartitionCache;
     }
 
     public Map<String, Double> consommationParConsommateur() {
@@ -81,33 +188,76 @@ public class GestionEnergie {
 
     public void simulerUniteTemps() throws EnergieException {
 
+        RecordSimulation r = avancerUniteTemps();
+        historique.add(r);
+
+        System.out.printf("⏱ Temps %d | Production %.2f kWh | Consommation %.2f kWh%n",
+                r.temps(), r.production(), r.consommation());
+    }
+
+    /**
+     * Avance d'une unité de temps et retourne l'état calculé,
+     * sans journalisation ni conservation dans l'historique interne.
+     * Utilisé par le moteur de simulation sans interface.
+     * @return Record de l'unité de temps simulée
+     * @throws EnergieException Si erreur durant la simulation
+     */
+    public RecordSimulation avancerUniteTemps() throws EnergieException {
+
         tempsSimule++;   // ✔ on avance réellement dans le temps
 
+        if (profilMeteo != null) {
+            appliquerMeteo(tempsSimule);
+        }
+
         double prod = productionTotale();
         double conso = consommationTotale();
 
-        RecordSimulation r = new RecordSimulation(tempsSimule, conso, prod);
-        historique.add(r);
+        // Répartition du stockage : la charge s'ajoute à la consommation, la décharge à la production
+        double stockage = repartirStockage(prod - conso);
+        if (stockage > 0) {
+            conso += stockage;
+        } else {
+            prod -= stockage;
+        }
 
-        System.out.printf("⏱ Temps %d | Production %.2f kWh | Consommation %.2f kWh%n",
-                tempsSimule, prod, conso);
+        BusEvenements.signaler(BusEvenements.Evenement.SIMULATION);
+        return new RecordSimulation(tempsSimule, conso, prod);
+    }
+
+    public int getTempsSimule() {
+        return tempsSimule;
     }
 
     // -------------------------------
     // STOCKAGE D’ÉNERGIE
     // -------------------------------
 
-    public void gererStockage() {
-        sources.stream()
-                .filter(StockageEnergie.class::isInstance)
-                .map(s -> (StockageEnergie) s)
-                .forEach(b -> {
-                    try {
-                        b.charger(10.0);  // exemple simple
-                    } catch (EnergieException ex) {
-                        Logger.getLogger(GestionEnergie.class.getName()).log(Level.SEVERE, null, ex);
-                    }
-                });
+    /**
+     * Applique la répartition du stockage au bilan courant (hors unité de temps).
+     * @return Énergie échangée : positive si chargée, négative si déchargée
+     */
+    public double gererStockage() {
+        return repartirStockage(productionTotale() - consommationTotale());
+    }
+
+    /**
+     * Charge les stockages avec l'excédent ou les décharge dans le déficit,
+     * dans l'ordre des sources, jusqu'à ce que le bilan soit couvert.
+     * Une seule passe sans allocation ni exception (les flottes sont parcourues en tableaux).
+     * @param bilan Production - consommation de l'unité de temps
+     * @return Énergie échangée : positive si chargée, négative si déchargée
+     */
+    private double repartirStockage(double bilan) {
+        if (bilan == 0) return 0.0;
+        double reste = Math.abs(bilan);
+        for (int i = 0, n = sources.size(); i < n && reste > 0; i++) {
+            if (sources.get(i) instanceof StockageEnergie st) {
+                reste -= bilan > 0 ? st.chargerJusqua(reste) : st.dechargerJusqua(reste);
+            }
+        }
+        double echange = Math.abs(bilan) - Math.max(0, reste);
+        return bilan > 0 ? echange : -echange;
     }
 
     // -------------------------------
@@ -143,8 +293,8 @@ public class GestionEnergie {
     }
 
     public String getEtat() {
-        Simulation sim = new Simulation(sources, consommateurs);
-        return sim.getEtatString();
+        rafraichirTotaux();
+        return String.format("Temps : %d | Conso : %.2f | Prod : %.2f", tempsSimule, consommationCache, productionCache);
     }
 }
 
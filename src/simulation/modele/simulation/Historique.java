@@ -1,117 +1,326 @@
 package simulation.modele.simulation;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Classe finale pour gérer l'historique des simulations.
  * Utilise try-with-resources pour la gestion automatique des ressources.
+ * Le fichier CSV est écrit en mode ajout : un canal reste ouvert et seules
+ * les nouvelles lignes sont écrites à chaque sauvegarde.
+ * En mémoire, la rétention est bornée (PolitiqueRetention) : les enregistrements
+ * bruts récents plus des agrégats par minute/heure/jour ; le fichier garde tout.
+ * Durabilité : une ligne écrite est synchronisée sur disque au plus tard
+ * intervalleSynchro après son écriture (fsync groupé, planifié même sans
+ * nouvelle sauvegarde).
  */
-public final class Historique {
+public final class Historique implements AutoCloseable {
 
-    private final List<RecordSimulation> records = new ArrayList<>();
+    private static final String EN_TETE = "Date/Heure,Temps (unités),Production (kWh),Consommation (kWh),Bilan (kWh)";
+
+    private final PolitiqueRetention politique;
+    private final SerieTemporelle records;
+    private final AgregatsTemporels agregats;
+    private final StatistiquesHistorique statistiques = new StatistiquesHistorique();
     private final Object verrou = new Object();
+    private final Object verrouFichier = new Object();
+
+    // Écriture en flux (mode ajout)
+    private FileChannel canal;
+    private BufferedWriter ecrivain;
+    private long nbSauvegardes = 0;         // records déjà présents dans le CSV (compte absolu)
+    private FormatBinaireHistorique.Ecrivain ecrivainBinaire;
+    private long nbSauvegardesBinaire = 0;  // records déjà présents dans le fichier binaire
+    private long generation = 0;            // incrémentée à chaque vidage ou rechargement
+    private long intervalleSynchroMs = 1000; // fsync groupé
+    private long derniereSynchro = 0;
+    private boolean synchroEnAttente = false;   // lignes écrites mais pas encore synchronisées
+    private ScheduledFuture<?> synchroPlanifiee;
+    private boolean sauvegardeDemandee = false; // sauvegarde d'éviction confiée au planificateur (sous verrou)
+    private long prochaineTentative = 0;        // après un échec, pas de nouvelle demande avant (ms)
+    private boolean ferme = false;              // sous verrouFichier
+
+    /** Un seul thread (démon) partagé pour les fsync différés de tous les historiques. */
+    private static final ScheduledExecutorService PLANIFICATEUR = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "historique-synchro");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final int TAILLE_PAQUET_CONVERSION = 1 << 16;
+    private static final long DELAI_REESSAI_MS = 1000;
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
     private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
     private final Path fichierCsv;
-    private final Path fichierTemp;
+    private final Path fichierBinaire;
 
     public Historique() {
-        String nom = "historique_" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".csv";
-        this.fichierCsv = Paths.get(nom);
-        this.fichierTemp = Paths.get(nom + ".tmp");
+        this(Paths.get("historique_" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".csv"));
+    }
+
+    /**
+     * Constructeur avec fichier CSV explicite.
+     * @param fichierCsv Le fichier de l'historique
+     */
+    public Historique(Path fichierCsv) {
+        this(fichierCsv, PolitiqueRetention.parDefaut());
+    }
+
+    /**
+     * Constructeur avec fichier CSV et politique de rétention explicites.
+     * @param fichierCsv Le fichier de l'historique
+     * @param politique Rétention en mémoire (brut + agrégats)
+     */
+    public Historique(Path fichierCsv, PolitiqueRetention politique) {
+        if (politique == null) {
+            throw new IllegalArgumentException("La politique de rétention ne peut pas être null");
+        }
+        this.politique = politique;
+        this.records = new SerieTemporelle(politique.capaciteBrute());
+        this.agregats = new AgregatsTemporels(politique);
+        this.fichierCsv = fichierCsv;
+        String nom = fichierCsv.getFileName().toString();
+        String base = nom.endsWith(".csv") ? nom.substring(0, nom.length() - 4) : nom;
+        this.fichierBinaire = fichierCsv.resolveSibling(base + ".bin");
         initialiserFichier();
     }
 
+    /**
+     * Définit l'intervalle minimal entre deux synchronisations disque (fsync).
+     * Les sauvegardes rapprochées partagent le même fsync (group commit) ; s'il n'y a
+     * plus de sauvegarde, le fsync en attente est exécuté à l'échéance de l'intervalle.
+     * @param intervalleMs Intervalle en millisecondes (0 = fsync à chaque sauvegarde)
+     */
+    public void definirIntervalleSynchro(long intervalleMs) {
+        if (intervalleMs < 0) {
+            throw new IllegalArgumentException("L'intervalle de synchronisation doit être positif.");
+        }
+        this.intervalleSynchroMs = intervalleMs;
+    }
+
+    /**
+     * Ajoute un enregistrement. Aucune écriture sur le thread appelant : quand la série
+     * approche de sa capacité avec des records non sauvegardés dans le bloc qui sera
+     * retiré, la sauvegarde est confiée au planificateur (une seule demande à la fois,
+     * espacées de DELAI_REESSAI_MS après un échec). Si l'ajout retirerait ce bloc avant
+     * qu'elle ait abouti, il attend (contre-pression) ; après un échec, il passe outre.
+     * @param r L'enregistrement (ignoré si null)
+     */
     public void ajouter(RecordSimulation r) {
         if (r == null) return;
         synchronized (verrou) {
-            records.add(r);
-            System.out.println("✅ Record ajouté en mémoire : Temps=" + r.temps() + 
-                             " | Prod=" + String.format("%.2f", r.production()) + 
-                             " | Conso=" + String.format("%.2f", r.consommation()));
+            attendreSauvegardeAvantRetrait();
+            records.ajouter(r);
+            statistiques.accumuler(r.production(), r.consommation());
+            agregats.ajouter(r.temps(), r.production(), r.consommation());
+            // Dernier bloc à moitié rempli : le plus ancien, bientôt retiré, doit partir sur disque
+            if (records.taille() >= records.capacite() - SerieTemporelle.TAILLE_BLOC / 2
+                    && premierBlocNonSauvegarde()) {
+                demanderSauvegarde();
+            }
         }
+        BusEvenements.signaler(BusEvenements.Evenement.HISTORIQUE);
     }
 
     /**
-     * ✅ TRY-WITH-RESOURCES #1
-     * Sauvegarde par batch - UTILISE TRY-WITH-RESOURCES
+     * Appelé sous verrou.
      */
-    public void sauvegarderBatch() {
-        List<RecordSimulation> aEcrire;
-        synchronized (verrou) {
-            if (records.isEmpty()) return;
-            aEcrire = new ArrayList<>(records);
+    private boolean premierBlocNonSauvegarde() {
+        return Math.min(nbSauvegardes, nbSauvegardesBinaire) < records.retires() + SerieTemporelle.TAILLE_BLOC;
+    }
+
+    /**
+     * Confie une sauvegarde au planificateur si aucune n'est en cours. Appelé sous verrou.
+     * @return false si aucune sauvegarde n'est en cours ni demandée (attente après un échec)
+     */
+    private boolean demanderSauvegarde() {
+        if (sauvegardeDemandee) return true;
+        if (System.currentTimeMillis() < prochaineTentative) return false;
+        sauvegardeDemandee = true;
+        PLANIFICATEUR.execute(this::sauvegarderPlanifiee);
+        return true;
+    }
+
+    /**
+     * Contre-pression : l'ajout suivant retirerait des records non sauvegardés. Appelé sous verrou.
+     */
+    private void attendreSauvegardeAvantRetrait() {
+        while (records.taille() == records.capacite() && premierBlocNonSauvegarde() && demanderSauvegarde()) {
+            try {
+                verrou.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
         }
+    }
 
-        try {
-            // Lire le contenu existant
-            List<String> lignesExistantes = new ArrayList<>();
-            if (Files.exists(fichierCsv)) {
-                // ✅ TRY-WITH-RESOURCES pour lecture
-                try (BufferedReader reader = Files.newBufferedReader(fichierCsv)) {
-                    String ligne;
-                    while ((ligne = reader.readLine()) != null) {
-                        lignesExistantes.add(ligne);
-                    }
-                } // ⚡ Auto-close du reader
+    /**
+     * Sauvegarde demandée par ajouter, exécutée sur le thread du planificateur.
+     */
+    private void sauvegarderPlanifiee() {
+        boolean reussie;
+        boolean fermeLu;
+        synchronized (verrouFichier) {
+            fermeLu = ferme;
+            reussie = !fermeLu && sauvegarder();
+        }
+        synchronized (verrou) {
+            sauvegardeDemandee = false;
+            if (fermeLu) {
+                prochaineTentative = Long.MAX_VALUE; // plus de fichier : ne plus attendre
+            } else if (!reussie) {
+                prochaineTentative = System.currentTimeMillis() + DELAI_REESSAI_MS;
             }
+            verrou.notifyAll();
+        }
+    }
 
-            // ✅ TRY-WITH-RESOURCES pour écriture temporaire
-            try (BufferedWriter writer = Files.newBufferedWriter(
-                    fichierTemp, 
-                    StandardOpenOption.CREATE, 
-                    StandardOpenOption.TRUNCATE_EXISTING)) {
+    /**
+     * Sauvegarde par batch en mode ajout.
+     * Seuls les records non encore écrits sont ajoutés en fin de fichier :
+     * le coût d'une sauvegarde ne dépend pas de la taille de l'historique.
+     * Les records sont écrits dans le fichier binaire (format de rechargement)
+     * puis dans le CSV (format d'export lisible), chacun depuis son propre repère :
+     * si l'écriture CSV échoue, la suivante ne réécrit pas les records déjà dans le binaire.
+     */
+    public void sauvegarderBatch() {
+        synchronized (verrouFichier) {
+            sauvegarder();
+        }
+    }
 
-                // En-tête
-                if (lignesExistantes.isEmpty()) {
-                    writer.write("Date/Heure,Temps (unités),Production (kWh),Consommation (kWh),Bilan (kWh)");
-                    writer.newLine();
-                } else {
-                    // Réécrire lignes existantes
-                    for (String ligne : lignesExistantes) {
-                        writer.write(ligne);
-                        writer.newLine();
-                    }
-                }
+    /**
+     * Corps de sauvegarderBatch. Appelé sous verrouFichier.
+     * @return false si l'un des deux fichiers n'a pas pu être écrit
+     */
+    private boolean sauvegarder() {
+        SerieTemporelle.Vue binaire, csv;
+        long premierBinaire, premierCsv;
+        synchronized (verrou) {
+            long retires = records.retires();
+            long fin = retires + records.taille();
+            if (nbSauvegardes >= fin && nbSauvegardesBinaire >= fin) return true;
+            int debutBinaire = debutNonSauvegarde(nbSauvegardesBinaire, retires);
+            int debutCsv = debutNonSauvegarde(nbSauvegardes, retires);
+            premierBinaire = retires + debutBinaire;
+            premierCsv = retires + debutCsv;
+            binaire = records.vue().subList(debutBinaire, records.taille());
+            csv = records.vue().subList(debutCsv, records.taille());
+        }
 
-                // Nouvelles lignes
-                for (RecordSimulation record : aEcrire) {
-                    String ligne = String.format("%s,%d,%.2f,%.2f,%.2f",
-                            LocalDateTime.now().format(DATE_FORMAT),
-                            record.temps(),
-                            record.production(),
-                            record.consommation(),
-                            record.production() - record.consommation()
-                    );
-                    writer.write(ligne);
-                    writer.newLine();
+        boolean synchro = synchronisationDue();
+        boolean reussie = true;
+
+        // Chaque fichier a son propre repère : un échec de l'un ne fait pas réécrire l'autre
+        if (binaire.size() > 0) {
+            try {
+                ouvrirBinaire().ajouter(binaire, synchro);
+                synchroEnAttente = true;
+                planifierSynchro();
+                synchronized (verrou) {
+                    nbSauvegardesBinaire = premierBinaire + binaire.size();
                 }
+            } catch (IOException e) {
+                System.err.println("❌ Erreur sauvegarde binaire : " + e.getMessage());
+                fermerBinaire();
+                reussie = false;
+            }
+        }
+        if (csv.size() == 0) return reussie;
 
-                writer.flush();
-            } // ⚡ Auto-close du writer
+        try {
+            BufferedWriter writer = ouvrirEcrivain();
+            String horodatage = LocalDateTime.now().format(DATE_FORMAT);
 
-            // Remplacement atomique
-            Files.move(fichierTemp, fichierCsv, 
-                      StandardCopyOption.REPLACE_EXISTING, 
-                      StandardCopyOption.ATOMIC_MOVE);
+            for (int i = 0; i < csv.size(); i++) {
+                ecrireLigne(writer, horodatage, csv.temps(i), csv.production(i), csv.consommation(i));
+            }
+            writer.flush();
+            synchroEnAttente = true;
+            synchroniserSiNecessaire(synchro);
+            planifierSynchro();
 
-            // Vider la liste APRÈS succès
             synchronized (verrou) {
-                records.clear();
+                nbSauvegardes = premierCsv + csv.size();
             }
 
-            System.out.println("✅ Sauvegarde réussie : " + aEcrire.size() + " ligne(s)");
+            System.out.println("✅ Sauvegarde réussie : " + csv.size() + " ligne(s)");
+            return reussie;
 
         } catch (IOException e) {
             System.err.println("❌ Erreur sauvegarde : " + e.getMessage());
+            fermerCanal();
+            return false;
+        }
+    }
+
+    private static void ecrireLigne(BufferedWriter writer, String horodatage, int temps,
+                                    double production, double consommation) throws IOException {
+        writer.write(String.format("%s,%d,%.2f,%.2f,%.2f",
+                horodatage,
+                temps,
+                production,
+                consommation,
+                production - consommation
+        ));
+        writer.newLine();
+    }
+
+    /**
+     * Position (dans la série) du premier record non sauvegardé. Appelé sous verrou.
+     */
+    private int debutNonSauvegarde(long sauvegardes, long retires) {
+        if (sauvegardes < retires) {
+            System.err.println("⚠️ " + (retires - sauvegardes) + " enregistrement(s) retiré(s) avant sauvegarde");
+        }
+        return (int) Math.min(records.taille(), Math.max(0, sauvegardes - retires));
+    }
+
+    /**
+     * Force l'écriture sur disque des lignes déjà sauvegardées.
+     */
+    public void synchroniser() {
+        synchronized (verrouFichier) {
+            try {
+                synchroniserSiNecessaire(true);
+            } catch (IOException e) {
+                System.err.println("❌ Erreur synchronisation : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ferme le canal d'écriture après une dernière synchronisation.
+     */
+    @Override
+    public void close() {
+        synchronized (verrouFichier) {
+            ferme = true; // une sauvegarde d'éviction encore en file ne rouvre pas les fichiers
+            if (synchroPlanifiee != null) {
+                synchroPlanifiee.cancel(false);
+                synchroPlanifiee = null;
+            }
+            try {
+                synchroniserSiNecessaire(true);
+            } catch (IOException e) {
+                System.err.println("❌ Erreur synchronisation : " + e.getMessage());
+            }
+            fermerCanal();
+            fermerBinaire();
         }
     }
 
@@ -120,15 +329,133 @@ public final class Historique {
      * Charge l'historique depuis le fichier
      */
     public void chargerDepuisFichier() {
+        synchronized (verrouFichier) {
+            if (!chargerBinaire()) {
+                chargerCsv();
+            }
+        }
+        BusEvenements.signaler(BusEvenements.Evenement.HISTORIQUE);
+    }
+
+    /**
+     * Recharge depuis le fichier binaire par MappedByteBuffer (aucune String créée).
+     * Le repère du CSV est relu dans le CSV lui-même : s'il est en retard sur le
+     * binaire, les lignes manquantes y sont ajoutées ; s'il est en avance, le
+     * chargement passe par le CSV (qui reconstruit le binaire).
+     * @return true si le fichier binaire existe et a été chargé
+     */
+    private boolean chargerBinaire() {
+        if (Files.notExists(fichierBinaire)) return false;
+        synchronized (verrou) {
+            long lignesCsv;
+            long lus;
+            try {
+                lignesCsv = compterLignesCsv();
+                reinitialiserMemoire();
+                lus = FormatBinaireHistorique.lire(fichierBinaire, this::integrer);
+            } catch (IOException e) {
+                System.err.println("⚠️ Fichier binaire illisible, chargement CSV : " + e.getMessage());
+                return false;
+            }
+            if (lignesCsv > lus) {
+                System.err.println("⚠️ Fichier binaire en retard sur le CSV, chargement CSV");
+                return false;
+            }
+            nbSauvegardesBinaire = lus;
+            nbSauvegardes = lignesCsv < lus ? completerCsv(lignesCsv) : lus;
+            System.out.println("✅ " + lus + " enregistrement(s) chargé(s) (binaire)"
+                    + (records.retires() > 0 ? ", " + records.taille() + " conservé(s) en mémoire" : ""));
+            return true;
+        }
+    }
+
+    /**
+     * Nombre de lignes de données du CSV (lignes non vides après l'en-tête), compté
+     * sur les octets sans créer de String.
+     */
+    private long compterLignesCsv() throws IOException {
+        if (Files.notExists(fichierCsv)) return 0;
+        if (ecrivain != null) ecrivain.flush(); // lignes encore dans le tampon d'écriture
+        long lignes = 0;
+        boolean contenu = false;
+        byte[] tampon = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(fichierCsv)) {
+            int n;
+            while ((n = in.read(tampon)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    byte b = tampon[i];
+                    if (b == '\n') {
+                        if (contenu) lignes++;
+                        contenu = false;
+                    } else if (b != ' ' && b != '\t' && b != '\r') {
+                        contenu = true;
+                    }
+                }
+            }
+        }
+        if (contenu) lignes++;
+        return Math.max(0, lignes - 1); // en-tête
+    }
+
+    /**
+     * Ajoute au CSV les enregistrements du binaire qui lui manquent (second parcours du binaire).
+     * Appelé sous verrouFichier et verrou.
+     * @param lignesCsv Enregistrements déjà présents dans le CSV
+     * @return Nouveau repère du CSV
+     */
+    private long completerCsv(long lignesCsv) {
+        long[] ecrits = {0};
+        try {
+            BufferedWriter writer = ouvrirEcrivain();
+            String horodatage = LocalDateTime.now().format(DATE_FORMAT);
+            long[] position = {0};
+            FormatBinaireHistorique.lire(fichierBinaire, (temps, production, consommation) -> {
+                if (position[0]++ < lignesCsv) return;
+                try {
+                    ecrireLigne(writer, horodatage, temps, production, consommation);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                ecrits[0]++;
+            });
+            writer.flush();
+            synchroEnAttente = true;
+            planifierSynchro();
+            System.out.println("✅ CSV complété : " + ecrits[0] + " ligne(s)");
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("❌ Erreur complétion CSV : " + e.getMessage());
+            fermerCanal();
+            try { // seules les lignes arrivées sur disque comptent
+                return compterLignesCsv();
+            } catch (IOException ex) {
+                return lignesCsv;
+            }
+        }
+        return lignesCsv + ecrits[0];
+    }
+
+    private void chargerCsv() {
         synchronized (verrou) {
             if (!Files.exists(fichierCsv)) {
                 System.out.println("Aucun fichier à charger.");
                 return;
             }
+            // Le reste du fichier est relu : vider le tampon d'écriture d'abord
+            if (ecrivain != null) {
+                try {
+                    ecrivain.flush();
+                } catch (IOException e) {
+                    fermerCanal();
+                }
+            }
 
             // ✅ TRY-WITH-RESOURCES pour lecture
             try (BufferedReader reader = Files.newBufferedReader(fichierCsv)) {
-                records.clear();
+                reinitialiserMemoire();
+                // Le fichier binaire est reconstruit par paquets : la série peut être bornée
+                reinitialiserBinaire();
+                FormatBinaireHistorique.Ecrivain binaire = ouvrirBinaire();
+                SerieTemporelle paquet = new SerieTemporelle();
                 
                 String ligne;
                 boolean premiereLigne = true;
@@ -148,14 +475,23 @@ public final class Historique {
                             int temps = Integer.parseInt(parts[1].trim());
                             double prod = Double.parseDouble(parts[2].trim());
                             double conso = Double.parseDouble(parts[3].trim());
-                            records.add(new RecordSimulation(temps, prod, conso));
+                            integrer(temps, prod, conso);
+                            paquet.ajouter(temps, prod, conso);
+                            if (paquet.taille() == TAILLE_PAQUET_CONVERSION) {
+                                binaire.ajouter(paquet.vue(), false);
+                                paquet.vider();
+                            }
                         } catch (NumberFormatException e) {
                             System.err.println("⚠️ Ligne ignorée : " + ligne);
                         }
                     }
                 }
 
-                System.out.println("✅ " + records.size() + " enregistrement(s) chargé(s)");
+                // Fichier binaire complet pour les prochains rechargements
+                binaire.ajouter(paquet.vue(), true);
+                nbSauvegardes = records.retires() + records.taille();
+                nbSauvegardesBinaire = nbSauvegardes;
+                System.out.println("✅ " + nbSauvegardes + " enregistrement(s) chargé(s)");
 
             } catch (IOException e) {
                 System.err.println("❌ Erreur chargement : " + e.getMessage());
@@ -164,29 +500,36 @@ public final class Historique {
     }
 
     /**
-     * ✅ TRY-WITH-RESOURCES #3
      * Vide l'historique et le fichier
      */
     public void vider() {
-        synchronized (verrou) {
-            records.clear();
-        }
-        
-        // ✅ TRY-WITH-RESOURCES pour écriture
-        try (BufferedWriter writer = Files.newBufferedWriter(
-                fichierCsv,
-                StandardOpenOption.CREATE, 
-                StandardOpenOption.TRUNCATE_EXISTING)) {
-            
-            writer.write("Date/Heure,Temps (unités),Production (kWh),Consommation (kWh),Bilan (kWh)");
-            writer.newLine();
-            writer.flush();
-            
-            System.out.println("✅ Historique vidé.");
-            
-        } catch (IOException e) {
-            System.err.println("❌ Erreur vidage : " + e.getMessage());
-        } // ⚡ Auto-close du writer
+        synchronized (verrouFichier) {
+            synchronized (verrou) {
+                reinitialiserMemoire();
+                nbSauvegardes = 0;
+                nbSauvegardesBinaire = 0;
+            }
+
+            try {
+                reinitialiserBinaire();
+
+                BufferedWriter writer = ouvrirEcrivain();
+                writer.flush();
+                canal.truncate(0);
+                canal.position(0);
+                writer.write(EN_TETE);
+                writer.newLine();
+                writer.flush();
+                synchroniserSiNecessaire(true);
+
+                System.out.println("✅ Historique vidé.");
+
+            } catch (IOException e) {
+                System.err.println("❌ Erreur vidage : " + e.getMessage());
+                fermerCanal();
+            }
+        }
+        BusEvenements.signaler(BusEvenements.Evenement.HISTORIQUE);
     }
 
     /**
@@ -209,17 +552,18 @@ public final class Historique {
                 writer.newLine();
                 writer.newLine();
                 
-                writer.write(String.format("Nombre total de simulations : %d", records.size()));
+                SerieTemporelle.Vue vue = records.vue();
+                writer.write(String.format("Nombre total de simulations : %d", vue.size()));
                 writer.newLine();
                 writer.newLine();
                 
-                for (RecordSimulation record : records) {
+                for (int i = 0; i < vue.size(); i++) {
                     writer.write(String.format(
                         "Temps: %d | Prod: %.2f kWh | Conso: %.2f kWh | Bilan: %.2f kWh",
-                        record.temps(),
-                        record.production(),
-                        record.consommation(),
-                        record.production() - record.consommation()
+                        vue.temps(i),
+                        vue.production(i),
+                        vue.consommation(i),
+                        vue.production(i) - vue.consommation(i)
                     ));
                     writer.newLine();
                 }
@@ -234,21 +578,102 @@ public final class Historique {
         }
     }
 
+    /**
+     * Liste en lecture seule de l'historique, sans copie.
+     * Les records sont créés à la demande depuis les colonnes primitives.
+     * @return Vue figée au moment de l'appel
+     */
     public List<RecordSimulation> getListe() {
+        return getSerie();
+    }
+
+    /**
+     * Vue colonnaire en lecture seule (accès primitif, sans copie).
+     * @return Vue figée au moment de l'appel
+     */
+    public SerieTemporelle.Vue getSerie() {
         synchronized (verrou) {
-            return Collections.unmodifiableList(new ArrayList<>(records));
+            return records.vue();
+        }
+    }
+
+    /**
+     * Vue, position absolue et statistiques lues sous le même verrou.
+     * Permet à un observateur de ne traiter que les records ajoutés depuis son dernier instantané.
+     * @return Instantané cohérent
+     */
+    public Instantane instantane() {
+        synchronized (verrou) {
+            return new Instantane(records.vue(), records.retires(), generation, statistiques.copie());
+        }
+    }
+
+    /**
+     * État de l'historique à un instant donné.
+     * @param serie Records présents en mémoire (vue sans copie)
+     * @param premier Numéro absolu du premier record de la vue
+     * @param generation Change quand l'historique est vidé ou rechargé
+     * @param statistiques Agrégats globaux
+     */
+    public record Instantane(SerieTemporelle.Vue serie, long premier, long generation,
+                             StatistiquesHistorique statistiques) {}
+
+    /**
+     * Statistiques globales tenues à jour à chaque ajout (coût constant).
+     * @return Copie cohérente des agrégats
+     */
+    public StatistiquesHistorique getStatistiques() {
+        synchronized (verrou) {
+            return statistiques.copie();
+        }
+    }
+
+    /**
+     * Agrégats (min/max/moyenne) d'un niveau : "minute", "heure" ou "jour".
+     * @param niveau Nom du niveau
+     * @return Périodes conservées, de la plus ancienne à la plus récente
+     */
+    public List<AgregatsTemporels.Agregat> getAgregats(String niveau) {
+        synchronized (verrou) {
+            return agregats.niveau(niveau);
+        }
+    }
+
+    /**
+     * Agrégats couvrant un intervalle de temps, au niveau le plus fin disponible.
+     * Répond aussi pour les périodes dont les enregistrements bruts ont été retirés.
+     * @param depuis Premier temps (inclus)
+     * @param jusqua Dernier temps (exclus)
+     * @return Périodes agrégées
+     */
+    public List<AgregatsTemporels.Agregat> interrogerAgregats(int depuis, int jusqua) {
+        synchronized (verrou) {
+            return agregats.interroger(depuis, jusqua);
+        }
+    }
+
+    public PolitiqueRetention getPolitiqueRetention() {
+        return politique;
+    }
+
+    /**
+     * Nombre d'enregistrements retirés de la mémoire (toujours présents dans le fichier).
+     */
+    public long getNombreRetires() {
+        synchronized (verrou) {
+            return records.retires();
         }
     }
 
     public int taille() {
         synchronized (verrou) {
-            return records.size();
+            return records.taille();
         }
     }
 
     public boolean estVide() {
         synchronized (verrou) {
-            return records.isEmpty();
+            return records.estVide();
         }
     }
 
@@ -256,6 +681,10 @@ public final class Historique {
         return fichierCsv.toString();
     }
 
+    public String getNomFichierBinaire() {
+        return fichierBinaire.toString();
+    }
+
     /**
      * ✅ TRY-WITH-RESOURCES #5
      * Initialise le fichier avec try-with-resources
@@ -268,7 +697,7 @@ public final class Historique {
                         fichierCsv,
                         StandardOpenOption.CREATE)) {
                     
-                    writer.write("Date/Heure,Temps (unités),Production (kWh),Consommation (kWh),Bilan (kWh)");
+                    writer.write(EN_TETE);
                     writer.newLine();
                     writer.flush();
                     
@@ -276,10 +705,161 @@ public final class Historique {
                 } // ⚡ Auto-close du writer
             } else {
                 System.out.println("✅ Fichier existant : " + fichierCsv.getFileName());
+                reparerDerniereLigne();
                 chargerDepuisFichier();
             }
         } catch (IOException e) {
             System.err.println("❌ Impossible de créer le fichier : " + e.getMessage());
         }
     }
+
+    /**
+     * Supprime une dernière ligne incomplète (écriture interrompue par un arrêt brutal).
+     * Le fichier est tronqué juste après le dernier saut de ligne.
+     */
+    private void reparerDerniereLigne() throws IOException {
+        try (FileChannel c = FileChannel.open(fichierCsv, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long taille = c.size();
+            if (taille == 0) return;
+
+            ByteBuffer bloc = ByteBuffer.allocate(4096);
+            long fin = taille;
+            while (fin > 0) {
+                int lus = (int) Math.min(bloc.capacity(), fin);
+                bloc.clear().limit(lus);
+                c.read(bloc, fin - lus);
+                for (int i = lus - 1; i >= 0; i--) {
+                    if (bloc.get(i) == '\n') {
+                        long finValide = fin - lus + i + 1;
+                        if (finValide < taille) {
+                            c.truncate(finValide);
+                            System.out.println("⚠️ Ligne incomplète supprimée : " + (taille - finValide) + " octet(s)");
+                        }
+                        return;
+                    }
+                }
+                fin -= lus;
+            }
+            // Aucune ligne complète : on repart d'un fichier vide avec en-tête
+            c.truncate(0);
+            c.write(ByteBuffer.wrap((EN_TETE + System.lineSeparator()).getBytes(StandardCharsets.UTF_8)), 0);
+        }
+    }
+
+    /**
+     * Intègre un enregistrement chargé (série, statistiques, agrégats). Appelé sous verrou.
+     */
+    private void integrer(int temps, double production, double consommation) {
+        records.ajouter(temps, production, consommation);
+        statistiques.accumuler(production, consommation);
+        agregats.ajouter(temps, production, consommation);
+    }
+
+    private void reinitialiserMemoire() {
+        generation++;
+        records.vider();
+        statistiques.reinitialiser();
+        agregats.vider();
+    }
+
+    /**
+     * Ouvre (une seule fois) le canal d'écriture en fin de fichier.
+     */
+    private BufferedWriter ouvrirEcrivain() throws IOException {
+        if (ecrivain == null) {
+            canal = FileChannel.open(fichierCsv, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            canal.position(canal.size());
+            ecrivain = new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8));
+            if (canal.size() == 0) {
+                ecrivain.write(EN_TETE);
+                ecrivain.newLine();
+            }
+        }
+        return ecrivain;
+    }
+
+    /**
+     * Planifie un fsync à l'échéance de l'intervalle si des lignes restent non synchronisées.
+     * Appelé sous verrouFichier.
+     */
+    private void planifierSynchro() {
+        if (!synchroEnAttente || synchroPlanifiee != null || (canal == null && ecrivainBinaire == null)) return;
+        long delai = Math.max(0, derniereSynchro + intervalleSynchroMs - System.currentTimeMillis());
+        synchroPlanifiee = PLANIFICATEUR.schedule(this::synchroniserPlanifiee, delai, TimeUnit.MILLISECONDS);
+    }
+
+    private void synchroniserPlanifiee() {
+        synchronized (verrouFichier) {
+            synchroPlanifiee = null;
+            if (!synchroEnAttente) return;
+            try {
+                synchroniserSiNecessaire(true);
+            } catch (IOException e) {
+                System.err.println("❌ Erreur synchronisation : " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ouvre (une seule fois) l'écrivain du fichier binaire.
+     */
+    private FormatBinaireHistorique.Ecrivain ouvrirBinaire() throws IOException {
+        if (ecrivainBinaire == null) {
+            ecrivainBinaire = new FormatBinaireHistorique.Ecrivain(fichierBinaire);
+        }
+        return ecrivainBinaire;
+    }
+
+    /**
+     * Tronque le fichier binaire, même s'il est invalide.
+     */
+    private void reinitialiserBinaire() throws IOException {
+        if (ecrivainBinaire != null) {
+            ecrivainBinaire.reinitialiser();
+        } else {
+            FormatBinaireHistorique.reinitialiser(fichierBinaire);
+        }
+    }
+
+    private void fermerBinaire() {
+        try {
+            if (ecrivainBinaire != null) ecrivainBinaire.close();
+        } catch (IOException e) {
+            System.err.println("❌ Erreur fermeture : " + e.getMessage());
+        } finally {
+            ecrivainBinaire = null;
+        }
+    }
+
+    private boolean synchronisationDue() {
+        return System.currentTimeMillis() - derniereSynchro >= intervalleSynchroMs;
+    }
+
+    /**
+     * fsync des deux fichiers (CSV et binaire) si l'intervalle de synchronisation est écoulé (ou si forcé).
+     */
+    private void synchroniserSiNecessaire(boolean forcer) throws IOException {
+        long maintenant = System.currentTimeMillis();
+        if (forcer || maintenant - derniereSynchro >= intervalleSynchroMs) {
+            if (canal != null) {
+                ecrivain.flush();
+                canal.force(false);
+            }
+            if (ecrivainBinaire != null) ecrivainBinaire.forcer();
+            derniereSynchro = maintenant;
+            synchroEnAttente = false;
+        }
+    }
+
+    private void fermerCanal() {
+        try {
+            if (ecrivain != null) ecrivain.close(); // ferme aussi le canal
+        } catch (IOException e) {
+            System.err.println("❌ Erreur fermeture : " + e.getMessage());
+        } finally {
+            ecrivain = null;
+            canal = null;
+            synchroEnAttente = false;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,421 @@
+package simulation.modele.simulation;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Index inversé en mémoire pour la recherche globale.
+ *
+ * Chaque document (source, consommateur, appareil, alerte, période d'historique)
+ * a un libellé, des mots indexés et des champs numériques. Les mots sont rangés
+ * dans un TreeMap (recherche par préfixe), chaque champ numérique dans un TreeMap
+ * de valeurs (recherche par intervalle). Les suppressions sont logiques ; les
+ * listes de documents sont reconstruites quand les supprimés deviennent majoritaires,
+ * et les identifiants libérés sont alors réutilisés.
+ *
+ * Les valeurs qui changent à chaque pas (production, niveau de stockage) ne passent
+ * pas par les TreeMap : elles sont rangées dans une colonne double[] par champ,
+ * modifiée sur place, et parcourue seulement quand une requête filtre sur ce champ.
+ *
+ * Syntaxe des requêtes (termes combinés en ET) :
+ *   mot              préfixe d'un mot (casse et accents ignorés)
+ *   champ:min..max   intervalle inclusif (une borne peut manquer : champ:10..)
+ *   champ>x champ>=x champ<x champ<=x champ=x
+ */
+public final class IndexRecherche {
+
+    /** Nature d'un document. */
+    public enum Categorie { SOURCE, CONSOMMATEUR, APPAREIL, ALERTE, HISTORIQUE }
+
+    /**
+     * Résultat classé.
+     * @param id Identifiant du document
+     * @param categorie Nature du document
+     * @param libelle Texte affiché
+     * @param score Pertinence (plus grand = meilleur)
+     */
+    public record Resultat(int id, Categorie categorie, String libelle, double score) {}
+
+    private record Document(Categorie categorie, String libelle, String[] mots, Map<String, Double> valeurs) {}
+
+    private final List<Document> documents = new ArrayList<>();
+    private final TreeMap<String, ListeEntiers> mots = new TreeMap<>();
+    private final Map<String, TreeMap<Double, ListeEntiers>> champs = new HashMap<>();
+    private final Map<String, double[]> colonnes = new HashMap<>(); // champs volatils, NaN = absent
+    private final ListeEntiers libres = new ListeEntiers(); // identifiants sans aucune entrée d'index
+    private int vivants = 0;
+    // Nombre de mots par document, 0 si supprimé (lu sans charger le Document)
+    private int[] nbMots = new int[16];
+
+    private int[] vus = new int[0];
+    private double[] poidsTerme = new double[0];
+    private double[] scores = new double[0];
+    private final ListeEntiers candidats = new ListeEntiers();
+    private final Map<String, String> nomsChamps = new HashMap<>();
+
+    /**
+     * Indexe un document.
+     * @param categorie Nature du document
+     * @param libelle Texte affiché dans les résultats
+     * @param texte Texte à indexer (découpé en mots)
+     * @param valeurs Champs numériques (peut être vide)
+     * @return Identifiant du document
+     */
+    public synchronized int ajouter(Categorie categorie, String libelle, String texte, Map<String, Double> valeurs) {
+        if (categorie == null || libelle == null) {
+            throw new IllegalArgumentException("Catégorie et libellé obligatoires");
+        }
+        String[] decoupe = decouper(categorie.name() + " " + (texte == null ? "" : texte));
+        Document doc = new Document(categorie, libelle, decoupe, valeurs == null ? Map.of() : Map.copyOf(valeurs));
+        int id;
+        if (libres.taille > 0) {
+            id = libres.valeurs[--libres.taille];
+            documents.set(id, doc);
+            for (double[] colonne : colonnes.values()) {
+                if (id < colonne.length) colonne[id] = Double.NaN; // valeurs de l'ancien document
+            }
+        } else {
+            id = documents.size();
+            documents.add(doc);
+            if (id == nbMots.length) nbMots = Arrays.copyOf(nbMots, Math.max(16, id * 2));
+        }
+        nbMots[id] = Math.max(1, decoupe.length);
+        vivants++;
+        indexer(id, doc);
+        return id;
+    }
+
+    /**
+     * Définit ou modifie sur place un champ volatil d'un document (sans réindexation).
+     * Un même nom ne doit pas servir à la fois de champ volatil et de champ passé à ajouter.
+     * @param id Identifiant du document
+     * @param champ Nom du champ
+     * @param valeur Nouvelle valeur
+     */
+    public synchronized void definirValeur(int id, String champ, double valeur) {
+        if (id < 0 || id >= documents.size() || documents.get(id) == null) {
+            throw new IllegalArgumentException("Document inexistant : " + id);
+        }
+        String nom = nomChamp(champ);
+        double[] colonne = colonnes.get(nom);
+        if (colonne == null || id >= colonne.length) {
+            int ancienne = colonne == null ? 0 : colonne.length;
+            colonne = colonne == null ? new double[Math.max(16, documents.size())]
+                    : Arrays.copyOf(colonne, Math.max(id + 1, ancienne * 2));
+            Arrays.fill(colonne, ancienne, colonne.length, Double.NaN);
+            colonnes.put(nom, colonne);
+        }
+        colonne[id] = valeur;
+    }
+
+    /**
+     * Supprime un document (sans effet s'il est déjà supprimé).
+     * @param id Identifiant du document
+     */
+    public synchronized void supprimer(int id) {
+        if (id < 0 || id >= documents.size() || documents.get(id) == null) return;
+        documents.set(id, null);
+        nbMots[id] = 0;
+        vivants--;
+        if (vivants < (documents.size() - vivants)) {
+            reconstruire();
+        }
+    }
+
+    /**
+     * Supprime tous les documents d'une catégorie.
+     * @param categorie La catégorie
+     */
+    public synchronized void viderCategorie(Categorie categorie) {
+        for (int id = 0; id < documents.size(); id++) {
+            Document doc = documents.get(id);
+            if (doc != null && doc.categorie() == categorie) {
+                documents.set(id, null);
+                nbMots[id] = 0;
+                vivants--;
+            }
+        }
+        reconstruire();
+    }
+
+    public synchronized int taille() {
+        return vivants;
+    }
+
+    /**
+     * Recherche classée.
+     * @param requete La requête (voir la syntaxe de la classe)
+     * @param max Nombre maximal de résultats
+     * @return Résultats du plus pertinent au moins pertinent
+     */
+    public synchronized List<Resultat> rechercher(String requete, int max) {
+        if (requete == null || requete.isBlank() || max <= 0) return List.of();
+
+        List<String> termes = new ArrayList<>();
+        BitSet filtre = null;
+        for (String morceau : requete.trim().split("\\s+")) {
+            BitSet numerique = filtreNumerique(morceau);
+            if (numerique != null) {
+                if (filtre == null) filtre = numerique; else filtre.and(numerique);
+            } else {
+                termes.addAll(Arrays.asList(decouper(morceau)));
+            }
+        }
+        if (termes.isEmpty() && filtre == null) return List.of();
+
+        // Termes du plus sélectif au moins sélectif (taille estimée des listes de documents)
+        int nbTermes = termes.size();
+        long[] estimations = new long[nbTermes];
+        Integer[] ordre = new Integer[nbTermes];
+        for (int t = 0; t < nbTermes; t++) {
+            ordre[t] = t;
+            for (ListeEntiers ids : prefixes(termes.get(t)).values()) estimations[t] += ids.taille;
+        }
+        Arrays.sort(ordre, (a, b) -> Long.compare(estimations[a], estimations[b]));
+
+        // Candidats : documents satisfaisant les termes déjà traités (aucun parcours de tout l'index)
+        preparerTampons();
+        candidats.taille = 0;
+        boolean amorce = false;
+        // Candidats amorcés par le filtre : les listes de mots ne touchent qu'eux
+        // (seuls les candidats sont remis à zéro à la fin)
+        BitSet restreint = null;
+        if (filtre != null && (nbTermes == 0 || filtre.cardinality() < estimations[ordre[0]])) {
+            for (int d = filtre.nextSetBit(0); d >= 0; d = filtre.nextSetBit(d + 1)) {
+                candidats.ajouter(d);
+            }
+            amorce = true;
+            restreint = filtre;
+        }
+        for (int t = 0; t < nbTermes; t++) {
+            String terme = termes.get(ordre[t]);
+            if (amorce && (long) candidats.taille * 4 < estimations[ordre[t]]) {
+                // Peu de candidats : vérification directe de leurs mots
+                for (int k = 0; k < candidats.taille; k++) {
+                    int d = candidats.valeurs[k];
+                    Document doc = documents.get(d);
+                    if (doc == null || vus[d] != t) continue;
+                    double meilleur = 0;
+                    for (String mot : doc.mots()) meilleur = Math.max(meilleur, poids(mot, terme));
+                    if (meilleur > 0) {
+                        vus[d] = t + 1;
+                        scores[d] += meilleur;
+                    }
+                }
+                continue;
+            }
+            for (Map.Entry<String, ListeEntiers> e : prefixes(terme).entrySet()) {
+                double poids = poids(e.getKey(), terme);
+                ListeEntiers ids = e.getValue();
+                for (int k = 0; k < ids.taille; k++) {
+                    int d = ids.valeurs[k];
+                    if (restreint != null && !restreint.get(d)) continue;
+                    // vus[d] = nombre de termes déjà satisfaits par d (ET logique)
+                    if (vus[d] == t) {
+                        if (!amorce) candidats.ajouter(d);
+                        vus[d] = t + 1;
+                        poidsTerme[d] = poids;
+                        scores[d] += poids;
+                    } else if (vus[d] == t + 1 && poids > poidsTerme[d]) {
+                        scores[d] += poids - poidsTerme[d];
+                        poidsTerme[d] = poids;
+                    }
+                }
+            }
+            amorce = true;
+        }
+
+        // Top-k : tas minimal sur le score, à égalité le plus récent d'abord
+        PriorityQueue<Resultat> tas = new PriorityQueue<>((a, b) ->
+                a.score() != b.score() ? Double.compare(a.score(), b.score()) : Integer.compare(a.id(), b.id()));
+        for (int k = 0; k < candidats.taille; k++) {
+            int d = candidats.valeurs[k];
+            boolean retenu = nbMots[d] > 0 && vus[d] == nbTermes && (filtre == null || filtre.get(d));
+            double score = nbTermes == 0 ? 1.0 : scores[d];
+            vus[d] = 0;
+            scores[d] = 0;
+            if (!retenu) continue;
+            // Légère préférence pour les documents à peu de mots (correspondance plus spécifique)
+            score += 0.1 / nbMots[d];
+            if (tas.size() == max && score <= tas.peek().score()) continue;
+            if (tas.size() == max) tas.poll();
+            Document doc = documents.get(d);
+            tas.add(new Resultat(d, doc.categorie(), doc.libelle(), score));
+        }
+        List<Resultat> resultats = new ArrayList<>(tas);
+        resultats.sort((a, b) -> a.score() != b.score() ? Double.compare(b.score(), a.score()) : Integer.compare(b.id(), a.id()));
+        return resultats;
+    }
+
+    private NavigableMap<String, ListeEntiers> prefixes(String terme) {
+        return mots.subMap(terme, true, terme + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Poids d'un mot pour un terme : 1 si exact, proportion couverte si préfixe, 0 sinon.
+     */
+    private static double poids(String mot, String terme) {
+        if (!mot.startsWith(terme)) return 0;
+        return mot.length() == terme.length() ? 1.0 : (double) terme.length() / mot.length();
+    }
+
+    /**
+     * Tampons de score réutilisés d'une recherche à l'autre (remis à zéro
+     * uniquement pour les candidats touchés).
+     */
+    private void preparerTampons() {
+        if (vus.length < documents.size()) {
+            int taille = Math.max(documents.size(), vus.length * 2);
+            vus = Arrays.copyOf(vus, taille);
+            poidsTerme = Arrays.copyOf(poidsTerme, taille);
+            scores = Arrays.copyOf(scores, taille);
+        }
+    }
+
+    /**
+     * Découpe un texte en mots normalisés (minuscules, sans accents).
+     */
+    static String[] decouper(String texte) {
+        String normalise = texte;
+        for (int i = 0; i < texte.length(); i++) {
+            if (texte.charAt(i) >= 128) {
+                normalise = Normalizer.normalize(texte, Normalizer.Form.NFD);
+                break;
+            }
+        }
+        List<String> resultat = new ArrayList<>();
+        StringBuilder mot = new StringBuilder();
+        for (int i = 0; i <= normalise.length(); i++) {
+            char c = i < normalise.length() ? normalise.charAt(i) : ' ';
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                continue; // accent détaché par la normalisation
+            }
+            if (Character.isLetterOrDigit(c)) {
+                mot.append(Character.toLowerCase(c));
+            } else if (mot.length() > 0) {
+                String m = mot.toString();
+                if (!resultat.contains(m)) resultat.add(m);
+                mot.setLength(0);
+            }
+        }
+        return resultat.toArray(new String[0]);
+    }
+
+    /**
+     * Interprète un morceau de requête numérique ; null si ce n'en est pas un.
+     */
+    private BitSet filtreNumerique(String morceau) {
+        int i = 0;
+        while (i < morceau.length() && Character.isLetter(morceau.charAt(i))) i++;
+        if (i == 0 || i == morceau.length()) return null;
+        String champ = nomChamp(morceau.substring(0, i));
+        String reste = morceau.substring(i);
+        double min = Double.NEGATIVE_INFINITY, max = Double.POSITIVE_INFINITY;
+        boolean minInclus = true, maxInclus = true;
+        try {
+            if (reste.startsWith(":")) {
+                String intervalle = reste.substring(1);
+                int sep = intervalle.indexOf("..");
+                if (sep < 0) {
+                    min = max = Double.parseDouble(intervalle);
+                } else {
+                    if (sep > 0) min = Double.parseDouble(intervalle.substring(0, sep));
+                    if (sep + 2 < intervalle.length()) max = Double.parseDouble(intervalle.substring(sep + 2));
+                }
+            } else if (reste.startsWith(">=")) {
+                min = Double.parseDouble(reste.substring(2));
+            } else if (reste.startsWith("<=")) {
+                max = Double.parseDouble(reste.substring(2));
+            } else if (reste.startsWith(">")) {
+                min = Double.parseDouble(reste.substring(1));
+                minInclus = false;
+            } else if (reste.startsWith("<")) {
+                max = Double.parseDouble(reste.substring(1));
+                maxInclus = false;
+            } else if (reste.startsWith("=")) {
+                min = max = Double.parseDouble(reste.substring(1));
+            } else {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        BitSet resultat = new BitSet(documents.size());
+        if (min > max) return resultat;
+        TreeMap<Double, ListeEntiers> valeurs = champs.get(champ);
+        if (valeurs != null) {
+            for (ListeEntiers ids : valeurs.subMap(min, minInclus, max, maxInclus).values()) {
+                for (int k = 0; k < ids.taille; k++) {
+                    int d = ids.valeurs[k];
+                    if (nbMots[d] > 0) resultat.set(d);
+                }
+            }
+        }
+        double[] colonne = colonnes.get(champ);
+        if (colonne != null) {
+            // Parcours linéaire de la colonne (NaN n'est dans aucun intervalle)
+            int n = Math.min(colonne.length, documents.size());
+            for (int d = 0; d < n; d++) {
+                double v = colonne[d];
+                if (nbMots[d] > 0 && (minInclus ? v >= min : v > min) && (maxInclus ? v <= max : v < max)) {
+                    resultat.set(d);
+                }
+            }
+        }
+        return resultat;
+    }
+
+    private String nomChamp(String nom) {
+        return nomsChamps.computeIfAbsent(nom, n -> {
+            String[] m = decouper(n);
+            return m.length == 0 ? n : m[0];
+        });
+    }
+
+    private void indexer(int id, Document doc) {
+        for (String mot : doc.mots()) {
+            mots.computeIfAbsent(mot, m -> new ListeEntiers()).ajouter(id);
+        }
+        for (Map.Entry<String, Double> e : doc.valeurs().entrySet()) {
+            champs.computeIfAbsent(nomChamp(e.getKey()), c -> new TreeMap<>())
+                    .computeIfAbsent(e.getValue(), v -> new ListeEntiers()).ajouter(id);
+        }
+    }
+
+    /**
+     * Reconstruit les listes sans les documents supprimés (identifiants des vivants conservés).
+     */
+    private void reconstruire() {
+        mots.clear();
+        champs.clear();
+        libres.taille = 0;
+        for (int id = documents.size() - 1; id >= 0; id--) {
+            Document doc = documents.get(id);
+            if (doc != null) indexer(id, doc); else libres.ajouter(id);
+        }
+    }
+
+    /**
+     * Liste d'entiers sans boxing.
+     */
+    private static final class ListeEntiers {
+        int[] valeurs = new int[2];
+        int taille;
+
+        void ajouter(int v) {
+            if (taille == valeurs.length) valeurs = Arrays.copyOf(valeurs, taille * 2);
+            valeurs[taille++] = v;
+        }
+    }
+}
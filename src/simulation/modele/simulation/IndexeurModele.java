@@ -0,0 +1,306 @@
+package simulation.modele.simulation;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import simulation.modele.source.Batterie;
+import simulation.modele.source.Eolienne;
+import simulation.modele.source.FlotteBatteries;
+import simulation.modele.source.FlotteEolienne;
+import simulation.modele.source.FlotteSolaire;
+import simulation.modele.source.PanneauSolaire;
+import simulation.modele.source.SourceEnergie;
+import simulation.modele.source.StockageEnergie;
+import simulation.modele.simulation.BusEvenements.Evenement;
+import simulation.modele.simulation.IndexRecherche.Categorie;
+
+/**
+ * Tient un IndexRecherche à jour à partir du modèle, sur les événements du bus.
+ *
+ * Seuls les éléments nouveaux ou modifiés sont réindexés : les sources et
+ * consommateurs sont suivis par identité (avec une empreinte de leurs
+ * valeurs indexées ; production et niveau de stockage, qui changent à chaque pas,
+ * sont des champs volatils modifiés sur place), les alertes par position dans le registre (nouvelles et
+ * modifiées sur place, via son journal), l'historique par
+ * périodes agrégées (niveau "heure") ; la période en cours est remplacée à
+ * chaque mise à jour, les périodes sorties de la rétention sont retirées.
+ */
+public final class IndexeurModele implements Consumer<Set<Evenement>> {
+
+    private static final String NIVEAU_HISTORIQUE = "heure";
+
+    private final IndexRecherche index = new IndexRecherche();
+    private final GestionEnergie gestionEnergie;
+    private final Historique historique;
+    private RegistreAlertes registreAlertes;
+
+    // Objet suivi -> [empreinte, identifiants de ses documents...]
+    private final Map<Object, long[]> sourcesIndexees = new IdentityHashMap<>();
+    private final Map<Object, long[]> consommateursIndexes = new IdentityHashMap<>();
+
+    private long generationAlertes = -1;
+    private int alertesIndexees = 0;
+    private int modificationsLues = 0;
+    private int[] idsAlertes = new int[16]; // position dans le registre -> document
+
+    private long generationHistorique = -1;
+    private final ArrayDeque<int[]> periodesIndexees = new ArrayDeque<>(); // [debut, id]
+    private int idPeriodeEnCours = -1;
+
+    /**
+     * Constructeur : indexe immédiatement le contenu existant.
+     * @param gestionEnergie Sources et consommateurs
+     * @param historique Historique des simulations (peut être null)
+     */
+    public IndexeurModele(GestionEnergie gestionEnergie, Historique historique) {
+        if (gestionEnergie == null) {
+            throw new IllegalArgumentException("GestionEnergie ne peut pas être null");
+        }
+        this.gestionEnergie = gestionEnergie;
+        this.historique = historique;
+        synchroniserSources();
+        synchroniserConsommateurs();
+        synchroniserHistorique();
+    }
+
+    /**
+     * Ajoute les alertes d'un registre à l'index.
+     * @param registre Le registre suivi
+     */
+    public synchronized void suivreAlertes(RegistreAlertes registre) {
+        this.registreAlertes = registre;
+        this.generationAlertes = -1;
+        synchroniserAlertes();
+    }
+
+    public IndexRecherche getIndex() {
+        return index;
+    }
+
+    /**
+     * Réception des événements du bus : seules les catégories touchées sont revues.
+     */
+    @Override
+    public synchronized void accept(Set<Evenement> evenements) {
+        if (evenements.contains(Evenement.SOURCES)) {
+            synchroniserSources();
+        } else if (evenements.contains(Evenement.SIMULATION)) {
+            // Un pas de simulation change production (météo) et niveaux (stockage) : valeurs seules
+            sourcesIndexees.forEach((s, suivi) -> definirValeursVolatiles((SourceEnergie) s, (int) suivi[1]));
+        }
+        if (evenements.contains(Evenement.CONSOMMATEURS)) synchroniserConsommateurs();
+        if (evenements.contains(Evenement.HISTORIQUE)) synchroniserHistorique();
+        if (evenements.contains(Evenement.ALERTES)) synchroniserAlertes();
+    }
+
+    // -------------------------------
+    // SOURCES ET CONSOMMATEURS
+    // -------------------------------
+
+    private void synchroniserSources() {
+        List<SourceEnergie> sources = gestionEnergie.getSources();
+        Map<Object, long[]> presents = new IdentityHashMap<>(sources.size() * 2);
+        for (int i = 0; i < sources.size(); i++) {
+            SourceEnergie s = sources.get(i);
+            long empreinte = empreinte(s, i);
+            long[] suivi = sourcesIndexees.remove(s);
+            if (suivi == null || suivi[0] != empreinte) {
+                if (suivi != null) supprimerDocuments(suivi);
+                suivi = new long[] {empreinte, indexerSource(s, i + 1)};
+            }
+            definirValeursVolatiles(s, (int) suivi[1]);
+            presents.put(s, suivi);
+        }
+        sourcesIndexees.values().forEach(this::supprimerDocuments); // sources retirées
+        sourcesIndexees.clear();
+        sourcesIndexees.putAll(presents);
+    }
+
+    /**
+     * Empreinte des valeurs stables d'une source (capacité, taille, position).
+     */
+    private static long empreinte(SourceEnergie s, int position) {
+        long h = Double.doubleToLongBits(s.getCapacite());
+        if (s instanceof FlotteBatteries f) {
+            h = h * 31 + f.taille();
+        } else if (s instanceof FlotteSolaire f) {
+            h = h * 31 + f.taille();
+        } else if (s instanceof FlotteEolienne f) {
+            h = h * 31 + f.taille();
+        }
+        return h * 31 + position;
+    }
+
+    private int indexerSource(SourceEnergie s, int numero) {
+        Map<String, Double> valeurs = new HashMap<>();
+        valeurs.put("capacite", s.getCapacite());
+        String mots;
+        if (s instanceof PanneauSolaire) {
+            mots = "panneau solaire soleil";
+        } else if (s instanceof Eolienne) {
+            mots = "eolienne vent";
+        } else if (s instanceof Batterie) {
+            mots = "batterie stockage";
+        } else if (s instanceof FlotteSolaire f) {
+            mots = "flotte panneau solaire soleil";
+            valeurs.put("taille", (double) f.taille());
+        } else if (s instanceof FlotteEolienne f) {
+            mots = "flotte eolienne vent";
+            valeurs.put("taille", (double) f.taille());
+        } else if (s instanceof FlotteBatteries f) {
+            mots = "flotte batterie stockage";
+            valeurs.put("taille", (double) f.taille());
+        } else {
+            mots = "";
+        }
+        String type = s.getClass().getSimpleName();
+        String libelle = String.format("%s n°%d - Capacité : %.2f kW", type, numero, s.getCapacite());
+        return index.ajouter(Categorie.SOURCE, libelle, type + " " + mots + " " + numero, valeurs);
+    }
+
+    /**
+     * Production et niveau : modifiés sur place dans l'index (ni suppression ni libellé recalculé).
+     */
+    private void definirValeursVolatiles(SourceEnergie s, int id) {
+        index.definirValeur(id, "production", s.getProduction());
+        if (s instanceof StockageEnergie stockage) {
+            index.definirValeur(id, "niveau", stockage.getNiveau());
+        }
+    }
+
+    private void synchroniserConsommateurs() {
+        List<Consommateur> consommateurs = gestionEnergie.getConsommateurs();
+        Map<Object, long[]> presents = new IdentityHashMap<>(consommateurs.size() * 2);
+        for (Consommateur c : consommateurs) {
+            Map<String, Double> appareils = c.getConsommations();
+            long empreinte = Double.doubleToLongBits(c.getConsommation()) * 31 + appareils.hashCode();
+            long[] suivi = consommateursIndexes.remove(c);
+            if (suivi == null || suivi[0] != empreinte) {
+                if (suivi != null) supprimerDocuments(suivi);
+                suivi = indexerConsommateur(c, appareils, empreinte);
+            }
+            presents.put(c, suivi);
+        }
+        consommateursIndexes.values().forEach(this::supprimerDocuments);
+        consommateursIndexes.clear();
+        consommateursIndexes.putAll(presents);
+    }
+
+    private long[] indexerConsommateur(Consommateur c, Map<String, Double> appareils, long empreinte) {
+        long[] suivi = new long[2 + appareils.size()];
+        suivi[0] = empreinte;
+        suivi[1] = index.ajouter(Categorie.CONSOMMATEUR,
+                String.format("%s - Consommation : %.2f kWh", c.getNom(), c.getConsommation()),
+                c.getNom() + " consommateur",
+                Map.of("consommation", c.getConsommation()));
+        int k = 2;
+        for (Map.Entry<String, Double> appareil : appareils.entrySet()) {
+            suivi[k++] = index.ajouter(Categorie.APPAREIL,
+                    String.format("%s (%s) - %.2f kWh", appareil.getKey(), c.getNom(), appareil.getValue()),
+                    appareil.getKey() + " appareil " + c.getNom(),
+                    Map.of("consommation", appareil.getValue()));
+        }
+        return suivi;
+    }
+
+    private void supprimerDocuments(long[] suivi) {
+        for (int k = 1; k < suivi.length; k++) {
+            index.supprimer((int) suivi[k]);
+        }
+    }
+
+    // -------------------------------
+    // HISTORIQUE
+    // -------------------------------
+
+    private void synchroniserHistorique() {
+        if (historique == null) return;
+        long generation = historique.instantane().generation();
+        if (generation != generationHistorique) {
+            index.viderCategorie(Categorie.HISTORIQUE);
+            periodesIndexees.clear();
+            idPeriodeEnCours = -1;
+            generationHistorique = generation;
+        }
+        List<AgregatsTemporels.Agregat> periodes = historique.getAgregats(NIVEAU_HISTORIQUE);
+        if (periodes.isEmpty()) return;
+
+        // Périodes sorties de la rétention
+        int premierDebut = periodes.get(0).debut();
+        while (!periodesIndexees.isEmpty() && periodesIndexees.peekFirst()[0] < premierDebut) {
+            index.supprimer(periodesIndexees.pollFirst()[1]);
+        }
+
+        // La période en cours change à chaque ajout : elle est remplacée
+        if (idPeriodeEnCours >= 0) {
+            index.supprimer(idPeriodeEnCours);
+            idPeriodeEnCours = -1;
+        }
+        int dernierIndexe = periodesIndexees.isEmpty() ? Integer.MIN_VALUE : periodesIndexees.peekLast()[0];
+        for (int i = 0; i < periodes.size() - 1; i++) {
+            AgregatsTemporels.Agregat p = periodes.get(i);
+            if (p.debut() > dernierIndexe) {
+                periodesIndexees.addLast(new int[] {p.debut(), indexerPeriode(p)});
+            }
+        }
+        idPeriodeEnCours = indexerPeriode(periodes.get(periodes.size() - 1));
+    }
+
+    private int indexerPeriode(AgregatsTemporels.Agregat p) {
+        double bilan = p.productionMoyenne() - p.consommationMoyenne();
+        String libelle = String.format("Période %d-%d : production %.2f kWh, consommation %.2f kWh (%d simulation(s))",
+                p.debut(), p.debut() + p.duree() - 1, p.productionMoyenne(), p.consommationMoyenne(), p.nombre());
+        return index.ajouter(Categorie.HISTORIQUE, libelle,
+                "historique simulation periode " + NIVEAU_HISTORIQUE + (bilan >= 0 ? " excedent" : " deficit"),
+                Map.of("temps", (double) p.debut(),
+                       "production", p.productionMoyenne(),
+                       "consommation", p.consommationMoyenne(),
+                       "bilan", bilan));
+    }
+
+    // -------------------------------
+    // ALERTES
+    // -------------------------------
+
+    private void synchroniserAlertes() {
+        if (registreAlertes == null) return;
+        // Génération, journal et nouvelles alertes lus sous le verrou du registre : positions cohérentes
+        synchronized (registreAlertes) {
+            long generation = registreAlertes.generation();
+            if (generation != generationAlertes) {
+                // Positions renumérotées (compaction, suppression) : réindexation complète
+                index.viderCategorie(Categorie.ALERTE);
+                alertesIndexees = 0;
+                modificationsLues = registreAlertes.modifications();
+                generationAlertes = generation;
+            }
+            // Alertes déjà indexées remplacées ou changées de statut
+            int[] modifiees = registreAlertes.modifieesDepuis(modificationsLues);
+            modificationsLues += modifiees.length;
+            for (int position : modifiees) {
+                if (position < alertesIndexees) {
+                    index.supprimer(idsAlertes[position]);
+                    idsAlertes[position] = indexerAlerte(registreAlertes.get(position));
+                }
+            }
+            for (AlerteRecord a : registreAlertes.depuis(alertesIndexees)) {
+                if (alertesIndexees == idsAlertes.length) {
+                    idsAlertes = Arrays.copyOf(idsAlertes, alertesIndexees * 2);
+                }
+                idsAlertes[alertesIndexees++] = indexerAlerte(a);
+            }
+        }
+    }
+
+    private int indexerAlerte(AlerteRecord a) {
+        return index.ajouter(Categorie.ALERTE,
+                String.format("[%s] %s - %s", a.severite(), a.type(), a.message()),
+                a.type() + " " + a.severite() + " " + a.statut() + " " + a.source() + " " + a.message() + " alerte",
+                Map.of("valeur", a.valeurMesuree(), "seuil", a.valeurSeuil()));
+    }
+}
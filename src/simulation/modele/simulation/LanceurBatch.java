@@ -0,0 +1,113 @@
+package simulation.modele.simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import simulation.modele.source.FlotteBatteries;
+import simulation.modele.source.Eolienne;
+import simulation.modele.source.PanneauSolaire;
+
+/**
+ * Point d'entrée en ligne de commande pour une simulation sans interface.
+ * Ne dépend que du modèle : s'exécute sans JavaFX, par exemple
+ *
+ *   ant compile-batch
+ *   java -cp build/batch/classes simulation.modele.simulation.LanceurBatch 8760 --sortie annee.csv
+ *
+ * Options :
+ *   --sortie fichier.csv   fichier d'historique (défaut : historique_batch.csv)
+ *   --panneaux N           nombre de panneaux solaires (défaut : 10)
+ *   --eoliennes N          nombre d'éoliennes (défaut : 5)
+ *   --batteries N          nombre de batteries, en une flotte (défaut : 2)
+ *   --consommateurs N      nombre de consommateurs (défaut : 8)
+ *   --lot N                records entre deux sauvegardes (défaut : 10000)
+ *   --meteo G|fichier.bin  profil météo : graine du générateur ou fichier binaire
+ *                          (défaut : production constante)
+ */
+public final class LanceurBatch {
+
+    private LanceurBatch() {}
+
+    public static void main(String[] args) {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("Usage : LanceurBatch <unités de temps> [--sortie fichier.csv] [--panneaux N] "
+                    + "[--eoliennes N] [--batteries N] [--consommateurs N] [--lot N] [--meteo graine|fichier.bin]");
+            System.exit(2);
+        }
+
+        try {
+            int unites = Integer.parseInt(args[0]);
+            Path sortie = Paths.get("historique_batch.csv");
+            int panneaux = 10, eoliennes = 5, batteries = 2, consommateurs = 8, lot = 10_000;
+            String meteo = null;
+
+            for (int i = 1; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Valeur manquante pour " + option);
+                }
+                String valeur = args[++i];
+                switch (option) {
+                    case "--sortie" -> sortie = Paths.get(valeur);
+                    case "--panneaux" -> panneaux = Integer.parseInt(valeur);
+                    case "--eoliennes" -> eoliennes = Integer.parseInt(valeur);
+                    case "--batteries" -> batteries = Integer.parseInt(valeur);
+                    case "--consommateurs" -> consommateurs = Integer.parseInt(valeur);
+                    case "--lot" -> lot = Math.max(1, Integer.parseInt(valeur));
+                    case "--meteo" -> meteo = valeur;
+                    default -> throw new IllegalArgumentException("Option inconnue : " + option);
+                }
+            }
+
+            GestionEnergie gestion = new GestionEnergie();
+            for (int i = 0; i < panneaux; i++) gestion.ajouterSource(new PanneauSolaire(10.0, 0.2, 5.0));
+            for (int i = 0; i < eoliennes; i++) gestion.ajouterSource(new Eolienne(8.0, 20.0));
+            if (batteries > 0) {
+                // Une seule flotte : la répartition du stockage est une boucle sur tableaux
+                FlotteBatteries flotte = new FlotteBatteries(batteries);
+                for (int i = 0; i < batteries; i++) flotte.ajouter(100.0, 50.0, 0.9);
+                gestion.ajouterSource(flotte);
+            }
+            for (int i = 0; i < consommateurs; i++) gestion.ajouterConsommateur(new Consommateur("Consommateur " + (i + 1), 15.0));
+
+            boolean meteoGeneree = meteo != null && meteo.matches("-?\\d+");
+            if (meteoGeneree) {
+                gestion.definirProfilMeteo(new ProfilMeteoGenere(Long.parseLong(meteo)));
+            }
+
+            // ✅ TRY-WITH-RESOURCES : le profil météo et le canal de l'historique sont fermés à la fin
+            // Une unité de temps = une heure : agrégats par heure et par jour
+            try (ProfilMeteoFichier profilFichier = meteo != null && !meteoGeneree
+                         ? new ProfilMeteoFichier(Paths.get(meteo)) : null;
+                 Historique historique = new Historique(sortie, PolitiqueRetention.parDefaut().avecSecondesParUnite(3600))) {
+                if (profilFichier != null) {
+                    gestion.definirProfilMeteo(profilFichier);
+                }
+
+                MoteurSimulation moteur = new MoteurSimulation(gestion);
+                long debut = System.nanoTime();
+                int effectuees = 0;
+                while (effectuees < unites) {
+                    int n = Math.min(lot, unites - effectuees);
+                    effectuees += moteur.executer(n, historique::ajouter);
+                    historique.sauvegarderBatch();
+                }
+
+                double secondes = (System.nanoTime() - debut) / 1e9;
+                StatistiquesHistorique stats = historique.getStatistiques();
+                System.out.printf("✅ %d unité(s) simulée(s) en %.3f s (%.0f unités/s)%n",
+                        effectuees, secondes, effectuees / Math.max(secondes, 1e-9));
+                System.out.printf("Production moyenne : %.2f kWh | Consommation moyenne : %.2f kWh | Déficits : %d%n",
+                        stats.getProductionMoyenne(), stats.getConsommationMoyenne(), stats.getDeficits());
+                System.out.println("Historique : " + historique.getNomFichier());
+            }
+
+        } catch (IOException e) {
+            System.err.println("❌ Profil météo illisible : " + e.getMessage());
+            System.exit(1);
+        } catch (EnergieException | IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
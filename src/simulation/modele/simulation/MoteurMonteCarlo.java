@@ -0,0 +1,350 @@
+package simulation.modele.simulation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import simulation.modele.source.Batterie;
+import simulation.modele.source.Eolienne;
+import simulation.modele.source.FlotteBatteries;
+import simulation.modele.source.FlotteEolienne;
+import simulation.modele.source.FlotteSolaire;
+import simulation.modele.source.PanneauSolaire;
+import simulation.modele.source.SourceEnergie;
+import simulation.modele.source.StockageEnergie;
+
+/**
+ * Moteur Monte Carlo : milliers de trajectoires stochastiques sur un instantané
+ * du modèle (météo, bruit de charge, pannes), exécutées en parallèle.
+ *
+ * Le modèle est résumé une seule fois à la construction : production crête solaire,
+ * puissance nominale éolienne, stockage agrégé et courbe de charge de base. Les
+ * trajectoires ne touchent donc jamais aux objets partagés et ne créent rien par pas.
+ *
+ * Reproductibilité : la graine donne un SplittableRandom racine, découpé en un flux
+ * par trajectoire dans l'ordre des indices avant l'exécution parallèle. Les résultats
+ * ne dépendent ni du nombre de cœurs ni de l'ordonnancement.
+ */
+public final class MoteurMonteCarlo {
+
+    public static final int HEURES_PAR_AN = 8760;
+    private static final double Z_95 = 1.959964;
+    private static final int TRAJECTOIRES_PAR_TACHE = 16;
+
+    /**
+     * Paramètres stochastiques des trajectoires.
+     * @param ventMoyen Vent moyen du profil météo généré (m/s)
+     * @param bruitCharge Écart type relatif du bruit de charge horaire (ex. 0.1 = 10 %)
+     * @param probabilitePanne Probabilité horaire qu'une panne commence
+     * @param dureePanneMoyenne Durée moyenne d'une panne (heures, loi exponentielle)
+     * @param fractionPanne Part de la production perdue pendant une panne
+     * @param facteurProduction Multiplicateur de production du scénario (1 = actuel)
+     * @param facteurConsommation Multiplicateur de consommation du scénario (1 = actuel)
+     */
+    public record Parametres(double ventMoyen, double bruitCharge, double probabilitePanne,
+                             double dureePanneMoyenne, double fractionPanne,
+                             double facteurProduction, double facteurConsommation) {
+        public Parametres {
+            if (ventMoyen < 0 || bruitCharge < 0 || probabilitePanne < 0 || probabilitePanne > 1
+                    || dureePanneMoyenne < 1 || fractionPanne < 0 || fractionPanne > 1
+                    || facteurProduction < 0 || facteurConsommation < 0) {
+                throw new IllegalArgumentException("Paramètres Monte Carlo invalides");
+            }
+        }
+
+        /**
+         * Vent moyen 8 m/s, bruit de charge 10 %, une panne tous les ~40 jours
+         * (1 jour en moyenne, 30 % de la production).
+         */
+        public static Parametres parDefaut() {
+            return new Parametres(8.0, 0.10, 0.001, 24.0, 0.30, 1.0, 1.0);
+        }
+
+        /**
+         * Même paramètres avec un scénario de production et de consommation.
+         */
+        public Parametres avecScenario(double facteurProduction, double facteurConsommation) {
+            return new Parametres(ventMoyen, bruitCharge, probabilitePanne, dureePanneMoyenne,
+                    fractionPanne, facteurProduction, facteurConsommation);
+        }
+    }
+
+    /**
+     * Estimation avec intervalle de confiance à 95 %.
+     */
+    public record Intervalle(double estimation, double bas, double haut) {
+        @Override
+        public String toString() {
+            return String.format("%.2f [%.2f ; %.2f]", estimation, bas, haut);
+        }
+    }
+
+    /**
+     * Résultat d'une campagne.
+     * @param trajectoires Nombre de trajectoires
+     * @param heures Horizon de chaque trajectoire
+     * @param graine Graine de la campagne
+     * @param deficitP5 5e centile du déficit non couvert (kWh sur l'horizon)
+     * @param deficitP50 Médiane du déficit non couvert
+     * @param deficitP95 95e centile du déficit non couvert
+     * @param deficitMoyen Moyenne du déficit non couvert
+     * @param probabiliteBatterieVide Part des trajectoires où le stockage s'est vidé face à un déficit
+     *                                 (null sans stockage : la question ne se pose pas)
+     * @param heuresDeficitMoyennes Nombre moyen d'heures avec déficit non couvert
+     * @param dureeSecondes Temps de calcul
+     */
+    public record Resultat(int trajectoires, int heures, long graine,
+                           Intervalle deficitP5, Intervalle deficitP50, Intervalle deficitP95,
+                           Intervalle deficitMoyen, Intervalle probabiliteBatterieVide,
+                           double heuresDeficitMoyennes, double dureeSecondes) {}
+
+    // Instantané du modèle
+    private final double creteSolaire;
+    private final double nominaleEolienne;
+    private final double capaciteStockage;
+    private final double niveauInitial;
+    private final double efficaciteStockage;
+    private final double[] chargeBase; // une valeur par heure, ou une seule si constante
+    private final int horizon;
+    private final int tempsDebut;
+    private final ForkJoinPool pool;
+
+    /**
+     * Résume le modèle sur le pool commun.
+     * @param gestionEnergie Le modèle (lu une seule fois)
+     * @param heures Horizon maximal des campagnes (pour la courbe de charge)
+     */
+    public MoteurMonteCarlo(GestionEnergie gestionEnergie, int heures) {
+        this(gestionEnergie, heures, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Résume le modèle.
+     * @param gestionEnergie Le modèle (lu une seule fois)
+     * @param heures Horizon maximal des campagnes (pour la courbe de charge)
+     * @param pool Pool d'exécution des trajectoires
+     */
+    public MoteurMonteCarlo(GestionEnergie gestionEnergie, int heures, ForkJoinPool pool) {
+        if (gestionEnergie == null || pool == null) {
+            throw new IllegalArgumentException("GestionEnergie et pool obligatoires");
+        }
+        if (heures <= 0) {
+            throw new IllegalArgumentException("L'horizon doit être positif : " + heures);
+        }
+        this.pool = pool;
+        this.horizon = heures;
+        this.tempsDebut = gestionEnergie.getTempsSimule() + 1;
+
+        double crete = 0, eolien = 0, capacite = 0, niveau = 0, pertes = 0;
+        for (SourceEnergie s : gestionEnergie.getSources()) {
+            if (s instanceof PanneauSolaire p) {
+                crete += p.getProductionCrete();
+            } else if (s instanceof FlotteSolaire f) {
+                crete += f.getProductionCrete();
+            } else if (s instanceof Eolienne e) {
+                eolien += e.getCapacite();
+            } else if (s instanceof FlotteEolienne f) {
+                eolien += f.getCapacite();
+            }
+            if (s instanceof StockageEnergie st) {
+                // Stockage agrégé : efficacité moyenne pondérée par la capacité
+                double efficacite = st instanceof Batterie b ? b.getEfficacite()
+                        : ((FlotteBatteries) st).getEfficaciteMoyenne();
+                capacite += st.getCapacite();
+                niveau += st.getNiveau();
+                pertes += efficacite * st.getCapacite();
+            }
+        }
+        this.creteSolaire = crete;
+        this.nominaleEolienne = eolien;
+        this.capaciteStockage = capacite;
+        this.niveauInitial = niveau;
+        this.efficaciteStockage = capacite > 0 ? pertes / capacite : 1.0;
+
+        // Courbe de charge : calculée une fois si des profils de charge sont utilisés
+        List<Consommateur> consommateurs = gestionEnergie.getConsommateurs();
+        if (consommateurs.stream().anyMatch(c -> c.getProfil() != null)) {
+            Simulation sim = new Simulation(List.of(), consommateurs);
+            this.chargeBase = new double[heures];
+            for (int h = 0; h < heures; h++) {
+                chargeBase[h] = sim.getConsommationTotale(tempsDebut + h);
+            }
+        } else {
+            this.chargeBase = new double[] {gestionEnergie.consommationTotale()};
+        }
+    }
+
+    /**
+     * Lance une campagne.
+     * @param trajectoires Nombre de trajectoires
+     * @param heures Horizon de chaque trajectoire (au plus celui donné à la construction)
+     * @param graine Graine (même graine = mêmes résultats)
+     * @param parametres Paramètres stochastiques
+     * @return Centiles, moyennes et intervalles de confiance
+     */
+    public Resultat executer(int trajectoires, int heures, long graine, Parametres parametres) {
+        if (trajectoires <= 0 || heures <= 0) {
+            throw new IllegalArgumentException("Nombre de trajectoires et horizon doivent être positifs");
+        }
+        if (heures > horizon) {
+            // La courbe de charge ne couvre que l'horizon résumé : pas de répétition silencieuse
+            throw new IllegalArgumentException("Horizon " + heures + " h au-delà de celui du moteur : " + horizon + " h");
+        }
+        if (parametres == null) {
+            throw new IllegalArgumentException("Les paramètres ne peuvent pas être null");
+        }
+        long debut = System.nanoTime();
+
+        // Un flux par trajectoire, découpé séquentiellement : indépendant de l'ordonnancement
+        SplittableRandom racine = new SplittableRandom(graine);
+        SplittableRandom[] flux = new SplittableRandom[trajectoires];
+        for (int i = 0; i < trajectoires; i++) {
+            flux[i] = racine.split();
+        }
+
+        double[] deficits = new double[trajectoires];
+        int[] heuresDeficit = new int[trajectoires];
+        boolean[] videes = new boolean[trajectoires];
+        pool.invoke(new TacheTrajectoires(flux, heures, parametres, deficits, heuresDeficit, videes, 0, trajectoires));
+
+        // Agrégation séquentielle dans l'ordre des indices (sommes reproductibles)
+        double somme = 0, sommeCarres = 0, sommeHeures = 0;
+        int nbVidees = 0;
+        for (int i = 0; i < trajectoires; i++) {
+            somme += deficits[i];
+            sommeCarres += deficits[i] * deficits[i];
+            sommeHeures += heuresDeficit[i];
+            if (videes[i]) nbVidees++;
+        }
+        double moyenne = somme / trajectoires;
+        double variance = trajectoires > 1
+                ? Math.max(0, (sommeCarres - trajectoires * moyenne * moyenne) / (trajectoires - 1)) : 0;
+        double marge = Z_95 * Math.sqrt(variance / trajectoires);
+
+        double[] tries = deficits.clone();
+        Arrays.sort(tries);
+        return new Resultat(trajectoires, heures, graine,
+                centile(tries, 0.05), centile(tries, 0.50), centile(tries, 0.95),
+                new Intervalle(moyenne, moyenne - marge, moyenne + marge),
+                capaciteStockage > 0 ? wilson(nbVidees, trajectoires) : null,
+                sommeHeures / trajectoires,
+                (System.nanoTime() - debut) / 1e9);
+    }
+
+    /**
+     * Une trajectoire : météo générée depuis le flux, bruit de charge gaussien,
+     * pannes à durée exponentielle, stockage agrégé.
+     */
+    private void trajectoire(SplittableRandom rng, int heures, Parametres p,
+                             double[] deficits, int[] heuresDeficit, boolean[] videes, int i) {
+        ProfilMeteoGenere meteo = new ProfilMeteoGenere(rng.nextLong(), p.ventMoyen());
+        double niveau = niveauInitial;
+        double deficit = 0;
+        int nbHeures = 0;
+        boolean videe = false;
+        int restePanne = 0;
+        double eolien = nominaleEolienne * 1e-3; // (v / 10)^3 = v^3 / 1000
+
+        for (int h = 0; h < heures; h++) {
+            int temps = tempsDebut + h;
+            double v = meteo.vitesseVent(temps);
+            double production = creteSolaire * meteo.irradiance(temps) + eolien * v * v * v;
+
+            if (restePanne == 0 && rng.nextDouble() < p.probabilitePanne()) {
+                restePanne = 1 + (int) (-p.dureePanneMoyenne() * Math.log(1 - rng.nextDouble()));
+            }
+            if (restePanne > 0) {
+                production *= 1 - p.fractionPanne();
+                restePanne--;
+            }
+            production *= p.facteurProduction();
+
+            double base = chargeBase.length == 1 ? chargeBase[0] : chargeBase[h];
+            double charge = Math.max(0, base * p.facteurConsommation() * (1 + p.bruitCharge() * rng.nextGaussian()));
+
+            double bilan = production - charge;
+            if (bilan >= 0) {
+                if (efficaciteStockage > 0) {
+                    niveau = Math.min(capaciteStockage, niveau + bilan * efficaciteStockage);
+                }
+            } else {
+                double besoin = -bilan;
+                double fourni = Math.min(besoin, niveau);
+                niveau -= fourni;
+                if (besoin > fourni) {
+                    deficit += besoin - fourni;
+                    nbHeures++;
+                    videe = true; // stockage épuisé face à un déficit
+                }
+            }
+        }
+        deficits[i] = deficit;
+        heuresDeficit[i] = nbHeures;
+        videes[i] = videe;
+    }
+
+    /**
+     * Centile empirique et intervalle de confiance par les rangs (loi binomiale, approximation normale).
+     */
+    private static Intervalle centile(double[] tries, double q) {
+        int n = tries.length;
+        double demiLargeur = Z_95 * Math.sqrt(n * q * (1 - q));
+        int rang = (int) Math.min(n - 1, Math.max(0, Math.ceil(q * n) - 1));
+        int bas = (int) Math.max(0, Math.floor(q * n - demiLargeur) - 1);
+        int haut = (int) Math.min(n - 1, Math.ceil(q * n + demiLargeur) - 1);
+        return new Intervalle(tries[rang], tries[Math.min(bas, rang)], tries[Math.max(haut, rang)]);
+    }
+
+    /**
+     * Proportion avec intervalle de Wilson (fiable même près de 0 ou 1).
+     */
+    private static Intervalle wilson(int succes, int n) {
+        double p = (double) succes / n;
+        double z2 = Z_95 * Z_95;
+        double centre = (p + z2 / (2 * n)) / (1 + z2 / n);
+        double marge = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / (1 + z2 / n);
+        return new Intervalle(p, Math.max(0, centre - marge), Math.min(1, centre + marge));
+    }
+
+    /**
+     * Découpe récursive de la plage de trajectoires.
+     */
+    private final class TacheTrajectoires extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SplittableRandom[] flux;
+        private final int heures;
+        private final Parametres parametres;
+        private final double[] deficits;
+        private final int[] heuresDeficit;
+        private final boolean[] videes;
+        private final int debut;
+        private final int fin;
+
+        TacheTrajectoires(SplittableRandom[] flux, int heures, Parametres parametres, double[] deficits,
+                          int[] heuresDeficit, boolean[] videes, int debut, int fin) {
+            this.flux = flux;
+            this.heures = heures;
+            this.parametres = parametres;
+            this.deficits = deficits;
+            this.heuresDeficit = heuresDeficit;
+            this.videes = videes;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - debut <= TRAJECTOIRES_PAR_TACHE) {
+                for (int i = debut; i < fin; i++) {
+                    trajectoire(flux[i], heures, parametres, deficits, heuresDeficit, videes, i);
+                }
+                return;
+            }
+            int milieu = (debut + fin) >>> 1;
+            invokeAll(new TacheTrajectoires(flux, heures, parametres, deficits, heuresDeficit, videes, debut, milieu),
+                      new TacheTrajectoires(flux, heures, parametres, deficits, heuresDeficit, videes, milieu, fin));
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package simulation.modele.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+
+/**
+ * Moteur de règles de seuils.
+ *
+ * Les règles sont déclarées en texte (fichier ou règles par défaut), une par ligne :
+ *
+ *   # type  grandeur  opérateur  seuil  sévérité  [critique V] [marge V] [libelle "texte"]
+ *   CONSOMMATION_EXCESSIVE consommation > 100 HAUTE critique 150 marge 5 libelle "Consommation excessive"
+ *
+ * Grandeurs : production, consommation, bilan (réseau) et batterie (% de charge, par batterie).
+ * Opérateurs : >, >=, <, <=.
+ * critique : au-delà de cette valeur (même sens que l'opérateur) la sévérité devient CRITIQUE.
+ * marge : hystérésis absolue, la règle n'est rétablie qu'une fois la mesure revenue de cette marge.
+ *
+ * Les règles sont compilées une seule fois en tableaux primitifs parallèles ; l'évaluation
+ * d'un tick n'est qu'une boucle de comparaisons. Un fichier de règles est rechargé à chaud
+ * quand sa date de modification change (vérifiée au plus une fois par seconde).
+ *
+ * L'état "dépassé" survit au rechargement : une règle est reconnue par son type et
+ * sa grandeur (dans l'ordre d'apparition si plusieurs règles partagent les deux).
+ * Une règle dépassée qui disparaît est signalée rétablie à la prochaine évaluation
+ * de son emplacement, pour que son alerte ouverte soit résolue.
+ */
+public final class MoteurRegles {
+
+    /** Grandeurs disponibles dans l'instantané d'un tick (indice = ordinal). */
+    public enum Grandeur {
+        PRODUCTION("kWh"), CONSOMMATION("kWh"), BILAN("kWh"), BATTERIE("%");
+
+        private final String unite;
+
+        Grandeur(String unite) {
+            this.unite = unite;
+        }
+
+        public String getUnite() {
+            return unite;
+        }
+
+        /** true si la grandeur est évaluée batterie par batterie. */
+        public boolean parBatterie() {
+            return this == BATTERIE;
+        }
+    }
+
+    /**
+     * Reçoit les règles dépassées (à chaque tick) et rétablies (une fois).
+     */
+    @FunctionalInterface
+    public interface Sortie {
+        void signaler(ReglesCompilees regles, int regle, double valeur, boolean depasse);
+    }
+
+    private static final Grandeur[] GRANDEURS = Grandeur.values();
+    private static final byte SUP = 0, SUP_EGAL = 1, INF = 2, INF_EGAL = 3;
+    /** Bilan (kWh) en dessous duquel un déficit est CRITIQUE ; sert aussi d'échelle à sa marge. */
+    private static final double DEFICIT_CRITIQUE = -50;
+    private static final long INTERVALLE_VERIFICATION_NS = 1_000_000_000L;
+
+    private volatile ReglesCompilees regles;
+    private final Path fichier;
+    private FileTime dateFichier;
+    private long derniereVerification;
+
+    // État "dépassé" par règle et par emplacement (0 = réseau, k = batterie k)
+    private final List<BitSet> depassees = new ArrayList<>();
+    // Règles dépassées retirées par un rechargement : rétablissement à signaler
+    private final List<Retablissement> aRetablir = new ArrayList<>();
+
+    private record Retablissement(ReglesCompilees regles, int regle, int emplacement) {}
+
+    private MoteurRegles(ReglesCompilees regles, Path fichier, FileTime dateFichier) {
+        this.regles = regles;
+        this.fichier = fichier;
+        this.dateFichier = dateFichier;
+        this.derniereVerification = System.nanoTime();
+    }
+
+    /**
+     * Moteur à partir d'un texte de règles (non rechargeable).
+     * @param texte Règles, une par ligne
+     * @return Le moteur
+     * @throws EnergieException Si une règle est invalide
+     */
+    public static MoteurRegles depuisTexte(String texte) throws EnergieException {
+        return new MoteurRegles(compiler(texte), null, null);
+    }
+
+    /**
+     * Moteur à partir d'un fichier de règles, rechargé à chaud s'il est modifié.
+     * @param fichier Le fichier de règles
+     * @return Le moteur
+     * @throws EnergieException Si le fichier est illisible ou une règle invalide
+     */
+    public static MoteurRegles depuisFichier(Path fichier) throws EnergieException {
+        try {
+            FileTime date = Files.getLastModifiedTime(fichier);
+            return new MoteurRegles(compiler(Files.readString(fichier)), fichier, date);
+        } catch (IOException e) {
+            throw EnergieException.simulationInvalide("Fichier de règles illisible : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Règles équivalentes aux seuils historiques de ControleurAlertes.
+     * @param seuilConsommation Seuil de consommation (CRITIQUE à ×1.5)
+     * @param seuilProduction Seuil de production (CRITIQUE à ×0.5)
+     * @param seuilBatterie Seuil de batterie en % (CRITIQUE à ×0.5)
+     * @param hysteresis Marge relative de rétablissement (pour le déficit, relative au seuil critique)
+     * @return Le moteur
+     */
+    public static MoteurRegles parDefaut(double seuilConsommation, double seuilProduction,
+                                         double seuilBatterie, double hysteresis) {
+        String texte = String.format(Locale.ROOT, String.join("\n",
+                "CONSOMMATION_EXCESSIVE consommation > %s HAUTE critique %s marge %s libelle \"Consommation excessive\"",
+                "PRODUCTION_FAIBLE production < %s MOYENNE critique %s marge %s libelle \"Production insuffisante\"",
+                "DEFICIT_ENERGETIQUE bilan < 0 HAUTE critique %s marge %s libelle \"Déficit énergétique\"",
+                "BATTERIE_FAIBLE batterie < %s HAUTE critique %s marge %s libelle \"Batterie faible\""),
+                seuilConsommation, seuilConsommation * 1.5, seuilConsommation * hysteresis,
+                seuilProduction, seuilProduction * 0.5, seuilProduction * hysteresis,
+                DEFICIT_CRITIQUE, -DEFICIT_CRITIQUE * hysteresis,
+                seuilBatterie, seuilBatterie * 0.5, seuilBatterie * hysteresis);
+        try {
+            return depuisTexte(texte);
+        } catch (EnergieException e) {
+            throw new IllegalArgumentException("Seuils invalides : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recharge le fichier de règles s'il a été modifié (au plus une vérification par seconde).
+     * En cas d'erreur, les règles précédentes restent actives.
+     * @return true si de nouvelles règles ont été chargées
+     */
+    public synchronized boolean rechargerSiModifie() {
+        if (fichier == null) return false;
+        long maintenant = System.nanoTime();
+        if (maintenant - derniereVerification < INTERVALLE_VERIFICATION_NS) return false;
+        derniereVerification = maintenant;
+        try {
+            FileTime date = Files.getLastModifiedTime(fichier);
+            if (date.equals(dateFichier)) return false;
+            ReglesCompilees nouvelles = compiler(Files.readString(fichier));
+            dateFichier = date;
+            transfererEtat(regles, depassees, nouvelles);
+            regles = nouvelles;
+            System.out.println("✅ " + nouvelles.taille() + " règle(s) rechargée(s) depuis " + fichier.getFileName());
+            return true;
+        } catch (IOException | EnergieException e) {
+            System.err.println("❌ Règles non rechargées : " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Évalue les règles du réseau (production, consommation, bilan).
+     * @param valeurs Instantané indexé par Grandeur.ordinal()
+     * @param sortie Reçoit les dépassements et rétablissements
+     */
+    public void evaluerReseau(double[] valeurs, Sortie sortie) {
+        ReglesCompilees r = regles;
+        evaluer(r, 0, r.nbReseau, 0, valeurs, sortie);
+    }
+
+    /**
+     * Évalue les règles de batterie pour une batterie.
+     * @param numero Numéro de la batterie (à partir de 1)
+     * @param valeurs Instantané (valeurs[BATTERIE] = charge en %)
+     * @param sortie Reçoit les dépassements et rétablissements
+     */
+    public void evaluerBatterie(int numero, double[] valeurs, Sortie sortie) {
+        ReglesCompilees r = regles;
+        evaluer(r, r.nbReseau, r.taille(), numero, valeurs, sortie);
+    }
+
+    public ReglesCompilees getRegles() {
+        return regles;
+    }
+
+    /**
+     * Reprend l'état "dépassé" d'un moteur remplacé (ex. seuils reconfigurés,
+     * fichier de règles chargé) : les alertes ouvertes restent résolubles.
+     * @param precedent Le moteur remplacé (peut être null)
+     * @return Ce moteur
+     */
+    public MoteurRegles reprendreEtat(MoteurRegles precedent) {
+        if (precedent == null || precedent == this) return this;
+        ReglesCompilees anciennes;
+        List<BitSet> etats = new ArrayList<>();
+        List<Retablissement> enAttente;
+        synchronized (precedent) {
+            anciennes = precedent.regles;
+            precedent.depassees.forEach(b -> etats.add((BitSet) b.clone()));
+            enAttente = new ArrayList<>(precedent.aRetablir);
+        }
+        synchronized (this) {
+            aRetablir.addAll(enAttente);
+            transfererEtat(anciennes, etats, regles);
+        }
+        return this;
+    }
+
+    /**
+     * Remplace l'état des anciennes règles par celui des nouvelles : bits reportés
+     * sur la règle de même (type, grandeur), rétablissements en attente pour les autres.
+     * Appelé sous le verrou du moteur.
+     */
+    private void transfererEtat(ReglesCompilees anciennes, List<BitSet> anciensEtats, ReglesCompilees nouvelles) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < nouvelles.taille(); i++) {
+            indices.putIfAbsent(nouvelles.cle(i, occurrence(nouvelles, i)), i);
+        }
+        int[] correspondance = new int[anciennes.taille()];
+        for (int i = 0; i < anciennes.taille(); i++) {
+            correspondance[i] = indices.getOrDefault(anciennes.cle(i, occurrence(anciennes, i)), -1);
+        }
+        List<BitSet> etats = new ArrayList<>(anciensEtats.size());
+        for (int emplacement = 0; emplacement < anciensEtats.size(); emplacement++) {
+            BitSet ancien = anciensEtats.get(emplacement);
+            BitSet nouveau = new BitSet();
+            for (int i = ancien.nextSetBit(0); i >= 0; i = ancien.nextSetBit(i + 1)) {
+                if (correspondance[i] >= 0) {
+                    nouveau.set(correspondance[i]);
+                } else {
+                    aRetablir.add(new Retablissement(anciennes, i, emplacement));
+                }
+            }
+            etats.add(nouveau);
+        }
+        depassees.clear();
+        depassees.addAll(etats);
+    }
+
+    /** Rang de la règle i parmi les règles précédentes de même (type, grandeur). */
+    private static int occurrence(ReglesCompilees r, int i) {
+        int n = 0;
+        for (int k = 0; k < i; k++) {
+            if (r.grandeur[k] == r.grandeur[i] && r.type[k].equals(r.type[i])) n++;
+        }
+        return n;
+    }
+
+    private synchronized BitSet etat(int emplacement) {
+        while (depassees.size() <= emplacement) depassees.add(new BitSet());
+        return depassees.get(emplacement);
+    }
+
+    /**
+     * Retire les rétablissements en attente d'un emplacement (null si aucun).
+     */
+    private synchronized List<Retablissement> retablissements(int emplacement) {
+        if (aRetablir.isEmpty()) return null;
+        List<Retablissement> pris = null;
+        for (int k = aRetablir.size() - 1; k >= 0; k--) {
+            if (aRetablir.get(k).emplacement() == emplacement) {
+                if (pris == null) pris = new ArrayList<>();
+                pris.add(aRetablir.remove(k));
+            }
+        }
+        return pris;
+    }
+
+    private void evaluer(ReglesCompilees r, int debut, int fin, int emplacement, double[] valeurs, Sortie sortie) {
+        List<Retablissement> retablis = retablissements(emplacement);
+        if (retablis != null) {
+            for (Retablissement a : retablis) {
+                sortie.signaler(a.regles(), a.regle(), valeurs[a.regles().grandeur[a.regle()]], false);
+            }
+        }
+        if (debut == fin) return;
+        BitSet etat = etat(emplacement);
+        final int[] grandeur = r.grandeur;
+        final byte[] operateur = r.operateur;
+        final double[] seuil = r.seuil;
+        final double[] marge = r.marge;
+        for (int i = debut; i < fin; i++) {
+            double v = valeurs[grandeur[i]];
+            double s = seuil[i];
+            boolean depasse;
+            boolean retabli;
+            switch (operateur[i]) {
+                case SUP -> { depasse = v > s; retabli = v <= s - marge[i]; }
+                case SUP_EGAL -> { depasse = v >= s; retabli = v < s - marge[i]; }
+                case INF -> { depasse = v < s; retabli = v >= s + marge[i]; }
+                default -> { depasse = v <= s; retabli = v > s + marge[i]; }
+            }
+            if (depasse) {
+                etat.set(i);
+                sortie.signaler(r, i, v, true);
+            } else if (retabli && etat.get(i)) {
+                etat.clear(i);
+                sortie.signaler(r, i, v, false);
+            }
+        }
+    }
+
+    // -------------------------------
+    // COMPILATION
+    // -------------------------------
+
+    private record LigneRegle(String[] jetons, int numero) {}
+
+    private static ReglesCompilees compiler(String texte) throws EnergieException {
+        List<LigneRegle> reseau = new ArrayList<>();
+        List<LigneRegle> batteries = new ArrayList<>();
+        String[] lignes = texte.split("\\R");
+        for (int n = 0; n < lignes.length; n++) {
+            String ligne = lignes[n].strip();
+            if (ligne.isEmpty() || ligne.startsWith("#")) continue;
+            String[] jetons = decouper(ligne, n + 1);
+            if (jetons.length < 5) {
+                throw EnergieException.simulationInvalide("Règle incomplète ligne " + (n + 1) + " : " + ligne);
+            }
+            (grandeur(jetons[1], n + 1).parBatterie() ? batteries : reseau).add(new LigneRegle(jetons, n + 1));
+        }
+        ReglesCompilees r = new ReglesCompilees(reseau.size() + batteries.size(), reseau.size());
+        int i = 0;
+        for (List<LigneRegle> groupe : List.of(reseau, batteries)) {
+            for (LigneRegle ligne : groupe) {
+                r.remplir(i++, ligne.jetons(), ligne.numero());
+            }
+        }
+        return r;
+    }
+
+    /** Découpe une ligne en jetons ; les guillemets regroupent un libellé. */
+    private static String[] decouper(String ligne, int numero) throws EnergieException {
+        List<String> jetons = new ArrayList<>();
+        int i = 0;
+        while (i < ligne.length()) {
+            char c = ligne.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int fin = ligne.indexOf('"', i + 1);
+                if (fin < 0) throw EnergieException.simulationInvalide("Guillemet non fermé ligne " + numero);
+                jetons.add(ligne.substring(i + 1, fin));
+                i = fin + 1;
+            } else {
+                int fin = i;
+                while (fin < ligne.length() && !Character.isWhitespace(ligne.charAt(fin))) fin++;
+                jetons.add(ligne.substring(i, fin));
+                i = fin;
+            }
+        }
+        return jetons.toArray(new String[0]);
+    }
+
+    private static Grandeur grandeur(String nom, int numero) throws EnergieException {
+        try {
+            return Grandeur.valueOf(nom.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw EnergieException.simulationInvalide("Grandeur inconnue ligne " + numero + " : " + nom);
+        }
+    }
+
+    /**
+     * Règles compilées : tableaux parallèles, règles réseau d'abord puis règles batterie.
+     * Immuable une fois construite.
+     */
+    public static final class ReglesCompilees {
+        private final int[] grandeur;
+        private final byte[] operateur;
+        private final double[] seuil;
+        private final double[] seuilCritique; // NaN si absent
+        private final double[] marge;
+        private final String[] type;
+        private final String[] severite;
+        private final String[] libelle;
+        private final int nbReseau;
+
+        private ReglesCompilees(int n, int nbReseau) {
+            this.grandeur = new int[n];
+            this.operateur = new byte[n];
+            this.seuil = new double[n];
+            this.seuilCritique = new double[n];
+            this.marge = new double[n];
+            this.type = new String[n];
+            this.severite = new String[n];
+            this.libelle = new String[n];
+            this.nbReseau = nbReseau;
+        }
+
+        private void remplir(int i, String[] jetons, int numero) throws EnergieException {
+            String regle = String.join(" ", jetons) + " (ligne " + numero + ")";
+            type[i] = jetons[0];
+            grandeur[i] = MoteurRegles.grandeur(jetons[1], numero).ordinal();
+            operateur[i] = switch (jetons[2]) {
+                case ">" -> SUP;
+                case ">=" -> SUP_EGAL;
+                case "<" -> INF;
+                case "<=" -> INF_EGAL;
+                default -> throw EnergieException.simulationInvalide("Opérateur inconnu : " + regle);
+            };
+            seuil[i] = nombre(jetons[3], regle);
+            severite[i] = jetons[4];
+            if (!RegistreAlertes.SEVERITES.contains(severite[i])) {
+                throw EnergieException.simulationInvalide("Sévérité inconnue : " + regle);
+            }
+            seuilCritique[i] = Double.NaN;
+            libelle[i] = type[i];
+            for (int k = 5; k < jetons.length; k += 2) {
+                if (k + 1 >= jetons.length) {
+                    throw EnergieException.simulationInvalide("Option sans valeur : " + regle);
+                }
+                switch (jetons[k]) {
+                    case "critique" -> seuilCritique[i] = nombre(jetons[k + 1], regle);
+                    case "marge" -> marge[i] = Math.abs(nombre(jetons[k + 1], regle));
+                    case "libelle" -> libelle[i] = jetons[k + 1];
+                    default -> throw EnergieException.simulationInvalide("Option inconnue '" + jetons[k] + "' : " + regle);
+                }
+            }
+        }
+
+        private static double nombre(String jeton, String regle) throws EnergieException {
+            try {
+                return Double.parseDouble(jeton);
+            } catch (NumberFormatException e) {
+                throw EnergieException.simulationInvalide("Nombre invalide '" + jeton + "' : " + regle);
+            }
+        }
+
+        public int taille() {
+            return grandeur.length;
+        }
+
+        /** Identité d'une règle d'un rechargement à l'autre. */
+        private String cle(int i, int occurrence) {
+            return type[i] + '\u0000' + grandeur[i] + '\u0000' + occurrence;
+        }
+
+        public String type(int i) {
+            return type[i];
+        }
+
+        public double seuil(int i) {
+            return seuil[i];
+        }
+
+        public Grandeur grandeur(int i) {
+            return GRANDEURS[grandeur[i]];
+        }
+
+        /**
+         * Sévérité pour une valeur : CRITIQUE au-delà du seuil critique, sinon la sévérité de la règle.
+         */
+        public String severite(int i, double valeur) {
+            double c = seuilCritique[i];
+            if (!Double.isNaN(c)) {
+                boolean critique = operateur[i] <= SUP_EGAL ? valeur > c : valeur < c;
+                if (critique) return "CRITIQUE";
+            }
+            return severite[i];
+        }
+
+        /**
+         * Message d'alerte pour une valeur.
+         */
+        public String message(int i, double valeur) {
+            String unite = grandeur(i).getUnite();
+            return String.format("%s : %.2f %s (seuil : %.2f %s)", libelle[i], valeur, unite, seuil[i], unite);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package simulation.modele.simulation;
+
+import java.util.function.Consumer;
+
+/**
+ * Moteur de simulation sans interface graphique.
+ * Avance un GestionEnergie aussi vite que le processeur le permet
+ * et transmet chaque RecordSimulation à un puits (interface fonctionnelle Consumer).
+ * Aucune dépendance à JavaFX.
+ */
+public final class MoteurSimulation {
+
+    private final GestionEnergie gestionEnergie;
+    private volatile boolean arretDemande = false;
+
+    /**
+     * Constructeur du moteur.
+     * @param gestionEnergie Le modèle à simuler
+     */
+    public MoteurSimulation(GestionEnergie gestionEnergie) {
+        if (gestionEnergie == null) {
+            throw new IllegalArgumentException("GestionEnergie ne peut pas être null");
+        }
+        this.gestionEnergie = gestionEnergie;
+    }
+
+    /**
+     * Exécute N unités de temps d'affilée.
+     * @param nombreUnites Nombre d'unités de temps à simuler
+     * @param puits Destination des records (ex. historique::ajouter)
+     * @return Nombre d'unités effectivement simulées (moins si arrêt demandé)
+     * @throws EnergieException Si erreur durant la simulation
+     */
+    public int executer(int nombreUnites, Consumer<RecordSimulation> puits) throws EnergieException {
+        if (nombreUnites < 0) {
+            throw EnergieException.simulationInvalide("Nombre d'unités négatif : " + nombreUnites);
+        }
+        if (puits == null) {
+            throw EnergieException.simulationInvalide("Puits nul");
+        }
+        arretDemande = false;
+        int n = 0;
+        while (n < nombreUnites && !arretDemande) {
+            puits.accept(gestionEnergie.avancerUniteTemps());
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Demande l'arrêt de l'exécution en cours (depuis un autre thread).
+     */
+    public void arreter() {
+        arretDemande = true;
+    }
+
+    public GestionEnergie getGestionEnergie() {
+        return gestionEnergie;
+    }
+}
@@ -0,0 +1,76 @@
+package simulation.modele.simulation;
+
+/**
+ * Politique de rétention de l'historique.
+ *
+ * Les enregistrements bruts récents sont gardés dans une série bornée
+ * (capaciteBrute) ; tous les enregistrements alimentent en plus des agrégats
+ * min/max/moyenne par minute, heure et jour, chacun limité à un nombre de périodes.
+ * La mémoire occupée est donc constante quelle que soit la durée de la simulation.
+ *
+ * @param capaciteBrute Nombre d'enregistrements bruts conservés en mémoire
+ * @param secondesParUnite Durée réelle d'une unité de temps simulée (1 = interface, 3600 = batch horaire)
+ * @param capaciteMinutes Nombre de minutes agrégées conservées
+ * @param capaciteHeures Nombre d'heures agrégées conservées
+ * @param capaciteJours Nombre de jours agrégés conservés
+ */
+public record PolitiqueRetention(
+    int capaciteBrute,
+    int secondesParUnite,
+    int capaciteMinutes,
+    int capaciteHeures,
+    int capaciteJours
+) {
+
+    /** Noms des niveaux d'agrégation, du plus fin au plus grossier. */
+    public static final String[] NIVEAUX = {"minute", "heure", "jour"};
+    private static final int[] SECONDES_NIVEAU = {60, 3600, 86400};
+
+    public PolitiqueRetention {
+        if (capaciteBrute <= 0 || secondesParUnite <= 0
+                || capaciteMinutes < 0 || capaciteHeures < 0 || capaciteJours < 0) {
+            throw new IllegalArgumentException("Paramètres de rétention invalides");
+        }
+    }
+
+    /**
+     * ~1 million d'enregistrements bruts, 1 semaine de minutes, 1 an d'heures, 10 ans de jours.
+     * @return Politique par défaut (une unité = une seconde)
+     */
+    public static PolitiqueRetention parDefaut() {
+        return new PolitiqueRetention(1 << 20, 1, 7 * 24 * 60, 365 * 24, 3650);
+    }
+
+    /**
+     * Même politique avec une autre durée d'unité.
+     * @param secondes Durée d'une unité de temps simulée en secondes
+     * @return Nouvelle politique
+     */
+    public PolitiqueRetention avecSecondesParUnite(int secondes) {
+        return new PolitiqueRetention(capaciteBrute, secondes, capaciteMinutes, capaciteHeures, capaciteJours);
+    }
+
+    /**
+     * Durée d'une période du niveau en unités de temps simulées,
+     * ou 0 si le niveau est plus fin qu'une unité (inutile).
+     * @param niveau Indice dans NIVEAUX
+     * @return Durée en unités
+     */
+    public int dureeNiveau(int niveau) {
+        int secondes = SECONDES_NIVEAU[niveau];
+        return secondes < secondesParUnite ? 0 : secondes / secondesParUnite;
+    }
+
+    /**
+     * Nombre de périodes conservées pour un niveau.
+     * @param niveau Indice dans NIVEAUX
+     * @return Capacité
+     */
+    public int capaciteNiveau(int niveau) {
+        return switch (niveau) {
+            case 0 -> capaciteMinutes;
+            case 1 -> capaciteHeures;
+            default -> capaciteJours;
+        };
+    }
+}
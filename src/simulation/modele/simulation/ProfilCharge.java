@@ -0,0 +1,16 @@
+package simulation.modele.simulation;
+
+/**
+ * Courbe de charge indexée par le temps simulé (une unité = une heure).
+ * Un même profil est partagé par autant de consommateurs que voulu :
+ * chacun n'en garde qu'une référence et son propre déphasage.
+ */
+public interface ProfilCharge {
+
+    /**
+     * Facteur de charge à l'instant donné (1 = consommation nominale).
+     * @param temps Temps simulé
+     * @return Facteur (≥ 0)
+     */
+    double facteur(int temps);
+}
@@ -0,0 +1,62 @@
+package simulation.modele.simulation;
+
+/**
+ * Profil de charge en mémoire : une valeur par pas, répétée en boucle.
+ * Un pas couvre une ou plusieurs unités de temps (1 pour une courbe horaire,
+ * 24 pour une courbe journalière).
+ */
+public final class ProfilChargeTableau implements ProfilCharge {
+
+    private static final int HEURES_PAR_JOUR = 24;
+
+    private final double[] valeurs;
+    private final int unitesParPas;
+
+    /**
+     * Constructeur.
+     * @param valeurs Facteurs de charge par pas (copiés)
+     * @param unitesParPas Unités de temps couvertes par un pas
+     */
+    public ProfilChargeTableau(double[] valeurs, int unitesParPas) {
+        if (valeurs == null || valeurs.length == 0 || unitesParPas <= 0) {
+            throw new IllegalArgumentException("Profil de charge vide ou pas invalide");
+        }
+        for (double v : valeurs) {
+            if (!(v >= 0)) {
+                throw new IllegalArgumentException("Facteur de charge invalide : " + v);
+            }
+        }
+        this.valeurs = valeurs.clone();
+        this.unitesParPas = unitesParPas;
+    }
+
+    /**
+     * Courbe horaire (ex. 24 valeurs pour une journée type).
+     */
+    public static ProfilChargeTableau horaire(double... valeursParHeure) {
+        return new ProfilChargeTableau(valeursParHeure, 1);
+    }
+
+    /**
+     * Courbe journalière (ex. 7 valeurs pour une semaine, 365 pour une année).
+     */
+    public static ProfilChargeTableau journalier(double... valeursParJour) {
+        return new ProfilChargeTableau(valeursParJour, HEURES_PAR_JOUR);
+    }
+
+    @Override
+    public double facteur(int temps) {
+        return valeurs[Math.floorMod(Math.floorDiv(temps, unitesParPas), valeurs.length)];
+    }
+
+    /**
+     * Nombre de pas de la courbe.
+     */
+    public int taille() {
+        return valeurs.length;
+    }
+
+    public int getUnitesParPas() {
+        return unitesParPas;
+    }
+}
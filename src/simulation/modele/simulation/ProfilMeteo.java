@@ -0,0 +1,22 @@
+package simulation.modele.simulation;
+
+/**
+ * Profil météo indexé par le temps simulé (une unité = une heure).
+ * Fournit l'ensoleillement des panneaux et la vitesse du vent des éoliennes.
+ */
+public interface ProfilMeteo {
+
+    /**
+     * Ensoleillement relatif à l'instant donné.
+     * @param temps Temps simulé
+     * @return Facteur entre 0 (nuit) et 1 (plein soleil)
+     */
+    double irradiance(int temps);
+
+    /**
+     * Vitesse du vent à l'instant donné.
+     * @param temps Temps simulé
+     * @return Vitesse en m/s (≥ 0)
+     */
+    double vitesseVent(int temps);
+}
@@ -0,0 +1,170 @@
+package simulation.modele.simulation;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Profil météo lu dans un fichier binaire par MappedByteBuffer.
+ *
+ * En-tête (16 octets) : magie "METO" (int), version (int), nombre de pas (long).
+ * Pas (8 octets) : irradiance (float), vitesse du vent (float).
+ * Ordre des octets : little-endian.
+ *
+ * Le fichier est mappé par blocs à la demande ; seuls les derniers blocs
+ * utilisés restent mappés (LRU), un profil de plusieurs années n'est donc
+ * jamais chargé en entier. Le bloc courant est lu sans verrou ; le LRU n'est
+ * consulté qu'au changement de bloc. Au-delà du dernier pas, le profil reboucle.
+ */
+public final class ProfilMeteoFichier implements ProfilMeteo, AutoCloseable {
+
+    public static final int MAGIE = 0x4D45544F; // "METO"
+    public static final int VERSION = 1;
+    public static final int TAILLE_EN_TETE = 16;
+    public static final int TAILLE_PAS = 8;
+
+    /** Pas par bloc mappé (512 Ko). */
+    private static final int TAILLE_BLOC = 1 << 16;
+    private static final int BLOCS_EN_CACHE = 4;
+
+    private final FileChannel canal;
+    private final long nombre;
+    private final Map<Long, MappedByteBuffer> blocs =
+            new LinkedHashMap<>(BLOCS_EN_CACHE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, MappedByteBuffer> plusAncien) {
+                    return size() > BLOCS_EN_CACHE;
+                }
+            };
+    // Dernier bloc lu : une simulation avance pas à pas, presque toujours dans le même bloc
+    private volatile BlocCourant courant;
+
+    private record BlocCourant(long indice, MappedByteBuffer tampon) {}
+
+    /**
+     * Ouvre un profil (seul l'en-tête est lu).
+     * @param fichier Le fichier binaire
+     * @throws IOException Si le fichier est illisible ou invalide
+     */
+    public ProfilMeteoFichier(Path fichier) throws IOException {
+        this.canal = FileChannel.open(fichier, StandardOpenOption.READ);
+        try {
+            if (canal.size() < TAILLE_EN_TETE) {
+                throw new IOException("Profil météo tronqué (en-tête incomplet)");
+            }
+            MappedByteBuffer entete = canal.map(FileChannel.MapMode.READ_ONLY, 0, TAILLE_EN_TETE);
+            entete.order(ByteOrder.LITTLE_ENDIAN);
+            if (entete.getInt(0) != MAGIE) {
+                throw new IOException("Profil météo invalide (magie incorrecte)");
+            }
+            if (entete.getInt(4) != VERSION) {
+                throw new IOException("Version de profil météo non supportée : " + entete.getInt(4));
+            }
+            long disponibles = (canal.size() - TAILLE_EN_TETE) / TAILLE_PAS;
+            this.nombre = Math.min(entete.getLong(8), disponibles);
+            if (nombre <= 0) {
+                throw new IOException("Profil météo vide");
+            }
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public double irradiance(int temps) {
+        long pas = Math.floorMod((long) temps, nombre);
+        return bloc(pas / TAILLE_BLOC).getFloat((int) (pas % TAILLE_BLOC) * TAILLE_PAS);
+    }
+
+    @Override
+    public double vitesseVent(int temps) {
+        long pas = Math.floorMod((long) temps, nombre);
+        return bloc(pas / TAILLE_BLOC).getFloat((int) (pas % TAILLE_BLOC) * TAILLE_PAS + 4);
+    }
+
+    /**
+     * Nombre de pas du profil.
+     */
+    public long taille() {
+        return nombre;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        courant = null;
+        blocs.clear();
+        canal.close();
+    }
+
+    /**
+     * Écrit un profil dans un fichier (ex. pour figer un profil généré).
+     * @param fichier Le fichier binaire (remplacé)
+     * @param source Profil à échantillonner aux temps 0..nombre-1
+     * @param nombre Nombre de pas
+     * @throws IOException Si erreur d'écriture
+     */
+    public static void ecrire(Path fichier, ProfilMeteo source, int nombre) throws IOException {
+        if (source == null || nombre <= 0) {
+            throw new IllegalArgumentException("Profil source nul ou nombre de pas invalide");
+        }
+        try (FileChannel sortie = FileChannel.open(fichier, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long debut = 0; debut < nombre; debut += TAILLE_BLOC) {
+                int n = (int) Math.min(TAILLE_BLOC, nombre - debut);
+                MappedByteBuffer tampon = sortie.map(FileChannel.MapMode.READ_WRITE,
+                        TAILLE_EN_TETE + debut * TAILLE_PAS, (long) n * TAILLE_PAS);
+                tampon.order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < n; i++) {
+                    int temps = (int) (debut + i);
+                    tampon.putFloat(i * TAILLE_PAS, (float) source.irradiance(temps));
+                    tampon.putFloat(i * TAILLE_PAS + 4, (float) source.vitesseVent(temps));
+                }
+                tampon.force();
+            }
+            MappedByteBuffer entete = sortie.map(FileChannel.MapMode.READ_WRITE, 0, TAILLE_EN_TETE);
+            entete.order(ByteOrder.LITTLE_ENDIAN);
+            entete.putInt(0, MAGIE);
+            entete.putInt(4, VERSION);
+            entete.putLong(8, nombre);
+            entete.force();
+        }
+    }
+
+    /**
+     * Bloc courant sans verrou, sinon bloc du LRU.
+     */
+    private MappedByteBuffer bloc(long indice) {
+        BlocCourant c = courant;
+        if (c != null && c.indice() == indice) {
+            return c.tampon();
+        }
+        return blocDuCache(indice);
+    }
+
+    /**
+     * Bloc mappé à la demande (LRU), qui devient le bloc courant.
+     */
+    private synchronized MappedByteBuffer blocDuCache(long indice) {
+        MappedByteBuffer tampon = blocs.get(indice);
+        if (tampon == null) {
+            long debut = indice * TAILLE_BLOC;
+            int n = (int) Math.min(TAILLE_BLOC, nombre - debut);
+            try {
+                tampon = canal.map(FileChannel.MapMode.READ_ONLY,
+                        TAILLE_EN_TETE + debut * TAILLE_PAS, (long) n * TAILLE_PAS);
+            } catch (IOException e) {
+                throw new IllegalStateException("Lecture du profil météo impossible : " + e.getMessage(), e);
+            }
+            tampon.order(ByteOrder.LITTLE_ENDIAN);
+            blocs.put(indice, tampon);
+        }
+        courant = new BlocCourant(indice, tampon);
+        return tampon;
+    }
+}
@@ -0,0 +1,76 @@
+package simulation.modele.simulation;
+
+/**
+ * Profil météo synthétique déterministe à partir d'une graine.
+ * Chaque valeur est calculée directement à partir de (graine, temps) :
+ * aucun état, aucune mémoire, accès aléatoire en O(1) et résultats
+ * reproductibles d'une exécution à l'autre.
+ *
+ * Ensoleillement : courbe jour/nuit × saison × couverture nuageuse journalière.
+ * Vent : moyenne saisonnière + bruit interpolé entre des points toutes les 6 heures.
+ */
+public final class ProfilMeteoGenere implements ProfilMeteo {
+
+    private static final int HEURES_PAR_JOUR = 24;
+    private static final int HEURES_PAR_AN = 8760;
+    private static final int PAS_VENT = 6;
+
+    private final long graine;
+    private final double ventMoyen;
+
+    /**
+     * Constructeur avec un vent moyen de 8 m/s.
+     * @param graine Graine du générateur
+     */
+    public ProfilMeteoGenere(long graine) {
+        this(graine, 8.0);
+    }
+
+    /**
+     * Constructeur.
+     * @param graine Graine du générateur
+     * @param ventMoyen Vitesse moyenne du vent (m/s)
+     */
+    public ProfilMeteoGenere(long graine, double ventMoyen) {
+        if (ventMoyen < 0) {
+            throw new IllegalArgumentException("Le vent moyen ne peut pas être négatif");
+        }
+        this.graine = graine;
+        this.ventMoyen = ventMoyen;
+    }
+
+    @Override
+    public double irradiance(int temps) {
+        int heure = Math.floorMod(temps, HEURES_PAR_JOUR);
+        double jour = Math.sin(Math.PI * (heure - 6) / 12.0); // lever 6h, coucher 18h
+        if (jour <= 0) return 0.0;
+        double saison = 0.75 + 0.25 * Math.cos(2 * Math.PI * (Math.floorMod(temps, HEURES_PAR_AN) - 4380) / HEURES_PAR_AN);
+        double nuages = 0.3 + 0.7 * uniforme(1, Math.floorDiv(temps, HEURES_PAR_JOUR));
+        return Math.min(1.0, jour * saison * nuages);
+    }
+
+    @Override
+    public double vitesseVent(int temps) {
+        int point = Math.floorDiv(temps, PAS_VENT);
+        double fraction = (temps - (long) point * PAS_VENT) / (double) PAS_VENT;
+        double bruit = uniforme(2, point) * (1 - fraction) + uniforme(2, point + 1) * fraction;
+        // Plus de vent en hiver
+        double saison = 1.0 + 0.2 * Math.cos(2 * Math.PI * Math.floorMod(temps, HEURES_PAR_AN) / HEURES_PAR_AN);
+        return Math.max(0.0, ventMoyen * saison * (0.25 + 1.5 * bruit));
+    }
+
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * Valeur pseudo-aléatoire dans [0, 1) pour (graine, canal, indice).
+     */
+    private double uniforme(int canal, long indice) {
+        long z = graine + 0x9E3779B97F4A7C15L * (indice * 4 + canal);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,462 @@
+package simulation.modele.simulation;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stockage indexé des alertes.
+ *
+ * Les alertes sont rangées par position d'insertion ; un BitSet par sévérité,
+ * par statut et par type donne directement les positions correspondantes.
+ * Les compteurs (sévérité × statut, type) sont tenus à jour à chaque ajout et
+ * changement de statut : les comptages sont en O(1) et les filtres ne parcourent
+ * que les alertes retenues, jamais tout l'historique.
+ *
+ * Rétention : au-delà de la capacité (+25 %), les alertes les plus anciennes sont
+ * retirées en une fois (coût amorti) et résumées par heure (nombre par sévérité).
+ * Chaque compaction incrémente la génération : les positions mémorisées ailleurs
+ * (CoalesceurAlertes) doivent alors être recalculées.
+ *
+ * Les modifications sur place (remplacement, changement de statut) sont notées
+ * dans un journal de positions lu incrémentalement (modifieesDepuis) ; une position
+ * n'y figure qu'une fois entre deux lectures. Le journal repart à zéro à chaque génération ;
+ * s'il dépasse deux fois le nombre d'alertes, une nouvelle génération est ouverte.
+ */
+public final class RegistreAlertes {
+
+    /** Sévérités connues, de la plus grave à la moins grave. */
+    public static final List<String> SEVERITES = List.of("CRITIQUE", "HAUTE", "MOYENNE", "BASSE");
+    /** Statuts connus. */
+    public static final List<String> STATUTS = List.of("ACTIVE", "ACQUITTEE", "RESOLUE");
+
+    private static final int ACTIVE = 0;
+
+    private final List<AlerteRecord> alertes = new ArrayList<>();
+    private final BitSet[] parSeverite = nouveauxIndex(SEVERITES.size());
+    private final BitSet[] parStatut = nouveauxIndex(STATUTS.size());
+    private final Map<String, BitSet> parType = new HashMap<>();
+    private final int[][] compteurs = new int[SEVERITES.size()][STATUTS.size()];
+    private final Map<String, int[]> compteursType = new HashMap<>();
+
+    private int capacite = Integer.MAX_VALUE;
+    private int capaciteResumes = 24 * 365;
+    private long generation = 0;
+    // Résumés horaires : [heure epoch, nb par sévérité..., occurrences]
+    private final ArrayDeque<long[]> resumes = new ArrayDeque<>();
+    // Journal des positions modifiées sur place (génération courante)
+    private int[] journal = new int[16];
+    private int tailleJournal = 0;
+    private final BitSet journaliseesDepuisLecture = new BitSet();
+
+    /**
+     * Résumé des alertes retirées pour une heure.
+     * @param heure Début de l'heure
+     * @param parSeverite Nombre d'alertes par sévérité (ordre de SEVERITES)
+     * @param occurrences Total des occurrences regroupées
+     */
+    public record ResumeHoraire(LocalDateTime heure, List<Integer> parSeverite, long occurrences) {
+        public int total() {
+            return parSeverite.stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    /**
+     * Limite le nombre d'alertes conservées en détail.
+     * @param capacite Nombre maximal d'alertes (au moins 1)
+     * @param heuresResumees Nombre d'heures de résumés conservées
+     */
+    public synchronized void definirCapacite(int capacite, int heuresResumees) {
+        if (capacite < 1 || heuresResumees < 0) {
+            throw new IllegalArgumentException("Capacité de rétention invalide");
+        }
+        this.capacite = capacite;
+        this.capaciteResumes = heuresResumees;
+        compacterSiNecessaire(capacite);
+        while (resumes.size() > capaciteResumes) resumes.removeFirst();
+    }
+
+    /**
+     * Numéro de génération des positions (change à chaque compaction ou vidage,
+     * et quand le journal des modifications est saturé).
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Taille du journal des modifications sur place (repère pour modifieesDepuis).
+     */
+    public synchronized int modifications() {
+        return tailleJournal;
+    }
+
+    /**
+     * Positions modifiées sur place depuis un repère du journal (lecture incrémentale ;
+     * valable tant que generation() ne change pas).
+     * @param repere Nombre d'entrées déjà lues
+     * @return Positions modifiées depuis (repere + longueur = nouveau repère)
+     */
+    public synchronized int[] modifieesDepuis(int repere) {
+        if (repere < 0) {
+            throw new IllegalArgumentException("Repère négatif : " + repere);
+        }
+        journaliseesDepuisLecture.clear();
+        if (repere >= tailleJournal) return new int[0];
+        return Arrays.copyOfRange(journal, repere, tailleJournal);
+    }
+
+    /**
+     * Résumés horaires des alertes retirées, du plus ancien au plus récent.
+     */
+    public synchronized List<ResumeHoraire> resumesHoraires() {
+        List<ResumeHoraire> resultat = new ArrayList<>(resumes.size());
+        for (long[] r : resumes) {
+            List<Integer> parSeverite = new ArrayList<>(SEVERITES.size());
+            for (int s = 0; s < SEVERITES.size(); s++) parSeverite.add((int) r[1 + s]);
+            resultat.add(new ResumeHoraire(LocalDateTime.ofEpochSecond(r[0] * 3600, 0, ZoneOffset.UTC),
+                    List.copyOf(parSeverite), r[1 + SEVERITES.size()]));
+        }
+        return resultat;
+    }
+
+    /**
+     * Ajoute une alerte en fin de registre.
+     * @param alerte L'alerte
+     * @return Position de l'alerte
+     */
+    public synchronized int ajouter(AlerteRecord alerte) {
+        if (alerte == null) {
+            throw new IllegalArgumentException("L'alerte ne peut pas être null");
+        }
+        // Marge de 25 % : une compaction en O(n) toutes les n/4 insertions
+        if (capacite != Integer.MAX_VALUE && alertes.size() >= capacite + Math.max(1, capacite / 4)) {
+            compacterSiNecessaire(capacite - 1);
+        }
+        int position = alertes.size();
+        alertes.add(alerte);
+        indexer(position, alerte);
+        return position;
+    }
+
+    /**
+     * Alerte à une position donnée.
+     */
+    public synchronized AlerteRecord get(int position) {
+        return alertes.get(position);
+    }
+
+    /**
+     * Dernière alerte ajoutée (null si registre vide).
+     */
+    public synchronized AlerteRecord derniere() {
+        return alertes.isEmpty() ? null : alertes.get(alertes.size() - 1);
+    }
+
+    /**
+     * Change le statut d'une alerte et met à jour index et compteurs.
+     * @param position Position de l'alerte
+     * @param statut Nouveau statut
+     * @return true si le statut a changé
+     */
+    public synchronized boolean changerStatut(int position, String statut) {
+        if (position < 0 || position >= alertes.size()) return false;
+        int nouveau = STATUTS.indexOf(statut);
+        if (nouveau < 0) {
+            throw new IllegalArgumentException("Statut invalide : " + statut);
+        }
+        return changerStatut(position, alertes.get(position), nouveau);
+    }
+
+    /**
+     * Remplace une alerte (même type) par une nouvelle version,
+     * ex. après regroupement d'une occurrence. Index et compteurs suivent
+     * le changement éventuel de sévérité ou de statut.
+     * @param position Position de l'alerte
+     * @param alerte Nouvelle version
+     */
+    public synchronized void remplacer(int position, AlerteRecord alerte) {
+        AlerteRecord ancienne = alertes.get(position);
+        if (!ancienne.type().equals(alerte.type())) {
+            throw new IllegalArgumentException("Le type d'une alerte ne peut pas changer");
+        }
+        int s0 = SEVERITES.indexOf(ancienne.severite()), s1 = SEVERITES.indexOf(alerte.severite());
+        int t0 = STATUTS.indexOf(ancienne.statut()), t1 = STATUTS.indexOf(alerte.statut());
+        parSeverite[s0].clear(position);
+        parSeverite[s1].set(position);
+        parStatut[t0].clear(position);
+        parStatut[t1].set(position);
+        compteurs[s0][t0]--;
+        compteurs[s1][t1]++;
+        alertes.set(position, alerte);
+        journaliser(position);
+    }
+
+    /**
+     * Change le statut de toutes les alertes d'un statut donné
+     * (ex. acquitter toutes les alertes actives). Ne parcourt que celles-ci.
+     * @return Nombre d'alertes modifiées
+     */
+    public synchronized int changerStatutTous(String ancien, String nouveau) {
+        int a = STATUTS.indexOf(ancien);
+        int n = STATUTS.indexOf(nouveau);
+        if (n < 0) {
+            throw new IllegalArgumentException("Statut invalide : " + nouveau);
+        }
+        if (a < 0 || a == n) return 0;
+        // Copie : l'index parcouru est modifié pendant la boucle
+        BitSet cibles = (BitSet) parStatut[a].clone();
+        int modifiees = 0;
+        for (int i = cibles.nextSetBit(0); i >= 0; i = cibles.nextSetBit(i + 1)) {
+            if (changerStatut(i, alertes.get(i), n)) modifiees++;
+        }
+        return modifiees;
+    }
+
+    /**
+     * Supprime toutes les alertes d'un statut. Les positions sont compactées :
+     * opération en O(n), à réserver au nettoyage.
+     * @return Nombre d'alertes supprimées
+     */
+    public synchronized int supprimerStatut(String statut) {
+        int s = STATUTS.indexOf(statut);
+        if (s < 0 || parStatut[s].isEmpty()) return 0;
+        int avant = alertes.size();
+        alertes.removeIf(alerte -> statut.equals(alerte.statut()));
+        reindexer();
+        generation++;
+        return avant - alertes.size();
+    }
+
+    /**
+     * Vide le registre.
+     */
+    public synchronized void vider() {
+        alertes.clear();
+        resumes.clear();
+        reindexer();
+        generation++;
+    }
+
+    // -------------------------------
+    // FILTRES (résultat en ordre d'insertion)
+    // -------------------------------
+
+    public synchronized List<AlerteRecord> toutes() {
+        return List.copyOf(alertes);
+    }
+
+    /**
+     * Alertes ajoutées à partir d'une position (lecture incrémentale ; les
+     * positions restent valables tant que generation() ne change pas).
+     * @param position Première position lue
+     */
+    public synchronized List<AlerteRecord> depuis(int position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position négative : " + position);
+        }
+        if (position >= alertes.size()) return List.of();
+        return List.copyOf(alertes.subList(position, alertes.size()));
+    }
+
+    public synchronized List<AlerteRecord> parSeverite(String severite) {
+        int s = SEVERITES.indexOf(severite);
+        return s < 0 ? List.of() : extraire(parSeverite[s]);
+    }
+
+    public synchronized List<AlerteRecord> parStatut(String statut) {
+        int s = STATUTS.indexOf(statut);
+        return s < 0 ? List.of() : extraire(parStatut[s]);
+    }
+
+    public synchronized List<AlerteRecord> parType(String type) {
+        BitSet index = parType.get(type);
+        return index == null ? List.of() : extraire(index);
+    }
+
+    /**
+     * Alertes d'une sévérité ET d'un statut donnés (intersection des index).
+     */
+    public synchronized List<AlerteRecord> parSeveriteEtStatut(String severite, String statut) {
+        int s = SEVERITES.indexOf(severite);
+        int t = STATUTS.indexOf(statut);
+        if (s < 0 || t < 0 || compteurs[s][t] == 0) return List.of();
+        BitSet intersection = (BitSet) parSeverite[s].clone();
+        intersection.and(parStatut[t]);
+        return extraire(intersection);
+    }
+
+    // -------------------------------
+    // COMPTEURS (O(1))
+    // -------------------------------
+
+    public synchronized int taille() {
+        return alertes.size();
+    }
+
+    public synchronized boolean estVide() {
+        return alertes.isEmpty();
+    }
+
+    public synchronized int compterStatut(String statut) {
+        int t = STATUTS.indexOf(statut);
+        if (t < 0) return 0;
+        int total = 0;
+        for (int[] ligne : compteurs) total += ligne[t];
+        return total;
+    }
+
+    public synchronized int compterSeverite(String severite) {
+        int s = SEVERITES.indexOf(severite);
+        if (s < 0) return 0;
+        int total = 0;
+        for (int c : compteurs[s]) total += c;
+        return total;
+    }
+
+    public synchronized int compterType(String type) {
+        int[] c = compteursType.get(type);
+        return c == null ? 0 : c[0];
+    }
+
+    /**
+     * Nombre d'alertes par sévérité (sévérités présentes uniquement).
+     */
+    public synchronized Map<String, Long> compterParSeverite() {
+        Map<String, Long> resultat = new LinkedHashMap<>();
+        for (int s = 0; s < SEVERITES.size(); s++) {
+            long total = 0;
+            for (int c : compteurs[s]) total += c;
+            if (total > 0) resultat.put(SEVERITES.get(s), total);
+        }
+        return resultat;
+    }
+
+    /**
+     * Score de sévérité moyen des alertes actives (0 si aucune), calculé
+     * à partir des compteurs sévérité × statut.
+     */
+    public synchronized double scoreMoyenActives() {
+        int actives = 0;
+        double somme = 0.0;
+        for (int s = 0; s < SEVERITES.size(); s++) {
+            int n = compteurs[s][ACTIVE];
+            actives += n;
+            somme += n * score(s);
+        }
+        return actives == 0 ? 0.0 : somme / actives;
+    }
+
+    // -------------------------------
+    // INTERNE
+    // -------------------------------
+
+    private boolean changerStatut(int position, AlerteRecord alerte, int nouveau) {
+        int ancien = STATUTS.indexOf(alerte.statut());
+        if (ancien == nouveau) return false;
+        int s = SEVERITES.indexOf(alerte.severite());
+        parStatut[ancien].clear(position);
+        parStatut[nouveau].set(position);
+        compteurs[s][ancien]--;
+        compteurs[s][nouveau]++;
+        alertes.set(position, alerte.avecStatut(STATUTS.get(nouveau)));
+        journaliser(position);
+        return true;
+    }
+
+    private void journaliser(int position) {
+        if (journaliseesDepuisLecture.get(position)) return;
+        if (tailleJournal >= Math.max(1024, 2 * alertes.size())) {
+            // Journal saturé : nouvelle génération, les lecteurs relisent tout (coût amorti)
+            tailleJournal = 0;
+            journaliseesDepuisLecture.clear();
+            generation++;
+            return;
+        }
+        journaliseesDepuisLecture.set(position);
+        if (tailleJournal == journal.length) {
+            journal = Arrays.copyOf(journal, tailleJournal * 2);
+        }
+        journal[tailleJournal++] = position;
+    }
+
+    private void indexer(int position, AlerteRecord alerte) {
+        int s = SEVERITES.indexOf(alerte.severite());
+        int t = STATUTS.indexOf(alerte.statut());
+        parSeverite[s].set(position);
+        parStatut[t].set(position);
+        compteurs[s][t]++;
+        parType.computeIfAbsent(alerte.type(), k -> new BitSet()).set(position);
+        compteursType.computeIfAbsent(alerte.type(), k -> new int[1])[0]++;
+    }
+
+    /**
+     * Retire les alertes les plus anciennes au-delà de {@code garder}, en les résumant par heure.
+     */
+    private void compacterSiNecessaire(int garder) {
+        int aRetirer = alertes.size() - garder;
+        if (aRetirer <= 0) return;
+        for (int i = 0; i < aRetirer; i++) {
+            resumer(alertes.get(i));
+        }
+        alertes.subList(0, aRetirer).clear();
+        reindexer();
+        generation++;
+    }
+
+    private void resumer(AlerteRecord alerte) {
+        long heure = alerte.timestamp().truncatedTo(ChronoUnit.HOURS).toEpochSecond(ZoneOffset.UTC) / 3600;
+        long[] resume = resumes.peekLast();
+        if (resume == null || resume[0] != heure) {
+            resume = new long[SEVERITES.size() + 2];
+            resume[0] = heure;
+            resumes.addLast(resume);
+            while (resumes.size() > capaciteResumes) resumes.removeFirst();
+            if (capaciteResumes == 0) return;
+        }
+        resume[1 + SEVERITES.indexOf(alerte.severite())]++;
+        resume[1 + SEVERITES.size()] += alerte.occurrences();
+    }
+
+    private void reindexer() {
+        // Positions renumérotées : le journal n'a plus de sens
+        tailleJournal = 0;
+        journaliseesDepuisLecture.clear();
+        for (BitSet b : parSeverite) b.clear();
+        for (BitSet b : parStatut) b.clear();
+        for (int[] ligne : compteurs) Arrays.fill(ligne, 0);
+        parType.clear();
+        compteursType.clear();
+        for (int i = 0; i < alertes.size(); i++) {
+            indexer(i, alertes.get(i));
+        }
+    }
+
+    private List<AlerteRecord> extraire(BitSet index) {
+        List<AlerteRecord> resultat = new ArrayList<>(index.cardinality());
+        for (int i = index.nextSetBit(0); i >= 0; i = index.nextSetBit(i + 1)) {
+            resultat.add(alertes.get(i));
+        }
+        return Collections.unmodifiableList(resultat);
+    }
+
+    /** Même barème que AlerteRecord.scoreSeverite(). */
+    private static double score(int severite) {
+        return (SEVERITES.size() - severite) / (double) SEVERITES.size();
+    }
+
+    private static BitSet[] nouveauxIndex(int n) {
+        BitSet[] index = new BitSet[n];
+        for (int i = 0; i < n; i++) index[i] = new BitSet();
+        return index;
+    }
+}
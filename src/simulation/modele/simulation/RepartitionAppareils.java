@@ -0,0 +1,67 @@
+package simulation.modele.simulation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Consommation cumulée par type d'appareil, indexée par identifiant de TypesAppareils.
+ * Instantané immuable : construit en une passe sur les tableaux des consommateurs.
+ */
+public final class RepartitionAppareils {
+
+    private final double[] parType;
+    private final double total;
+
+    RepartitionAppareils(double[] parType) {
+        this.parType = parType;
+        double somme = 0.0;
+        for (double v : parType) somme += v;
+        this.total = somme;
+    }
+
+    /**
+     * Consommation d'un type d'appareil.
+     * @param type Identifiant (TypesAppareils)
+     * @return Consommation cumulée (0 si type absent)
+     */
+    public double get(int type) {
+        return type >= 0 && type < parType.length ? parType[type] : 0.0;
+    }
+
+    /**
+     * Consommation d'un appareil par son nom.
+     * @param appareil Nom de l'appareil
+     * @return Consommation cumulée (0 si inconnu)
+     */
+    public double get(String appareil) {
+        return get(TypesAppareils.chercher(appareil));
+    }
+
+    /**
+     * Somme de tous les appareils.
+     */
+    public double total() {
+        return total;
+    }
+
+    /**
+     * Nombre de types couverts par l'instantané.
+     */
+    public int nombreTypes() {
+        return parType.length;
+    }
+
+    /**
+     * Répartition par nom, de la plus forte à la plus faible (types non nuls seulement).
+     */
+    public Map<String, Double> enMap() {
+        Map<String, Double> resultat = new LinkedHashMap<>();
+        IntStream.range(0, parType.length)
+                .filter(t -> parType[t] > 0)
+                .boxed()
+                .sorted((a, b) -> Double.compare(parType[b], parType[a]))
+                .forEach(t -> resultat.put(TypesAppareils.nom(t), parType[t]));
+        return resultat;
+    }
+}
@@ -0,0 +1,315 @@
+package simulation.modele.simulation;
+
+import java.util.AbstractList;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stockage colonnaire de l'historique : temps, production et consommation
+ * sont rangés dans des tableaux primitifs découpés en blocs.
+ * Aucun objet n'est créé par enregistrement ; les blocs pleins ne sont
+ * jamais recopiés lors de l'agrandissement.
+ *
+ * Avec une capacité, la série se comporte comme un tampon circulaire par blocs :
+ * quand tous les blocs sont pleins, le plus ancien est retiré avant d'en ouvrir
+ * un nouveau (la mémoire reste bornée). Les blocs retirés ne sont pas réutilisés,
+ * les vues déjà obtenues restent donc valides.
+ *
+ * Classe non synchronisée : Historique la protège par son verrou.
+ */
+public final class SerieTemporelle {
+
+    static final int TAILLE_BLOC = 4096;
+
+    private int[][] blocsTemps = new int[0][];
+    private double[][] blocsProduction = new double[0][];
+    private double[][] blocsConsommation = new double[0][];
+    private int taille = 0;
+    private final int capaciteBlocs;
+    private long retires = 0;
+
+    /**
+     * Série sans limite de taille.
+     */
+    public SerieTemporelle() {
+        this.capaciteBlocs = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Série bornée : au plus {@code capacite} enregistrements (arrondi au bloc supérieur).
+     * @param capacite Nombre d'enregistrements conservés
+     */
+    public SerieTemporelle(int capacite) {
+        if (capacite <= 0) {
+            throw new IllegalArgumentException("La capacité doit être positive.");
+        }
+        this.capaciteBlocs = (int) (((long) capacite + TAILLE_BLOC - 1) / TAILLE_BLOC);
+    }
+
+    /**
+     * Ajoute un enregistrement en fin de série.
+     * @param temps Temps simulé
+     * @param production Production (kWh)
+     * @param consommation Consommation (kWh)
+     */
+    public void ajouter(int temps, double production, double consommation) {
+        int bloc = taille / TAILLE_BLOC;
+        int pos = taille % TAILLE_BLOC;
+        if (bloc == blocsTemps.length) {
+            if (bloc == capaciteBlocs) {
+                retirerPlusAncienBloc();
+                bloc--;
+            }
+            agrandir();
+        }
+        blocsTemps[bloc][pos] = temps;
+        blocsProduction[bloc][pos] = production;
+        blocsConsommation[bloc][pos] = consommation;
+        taille++;
+    }
+
+    /**
+     * Ajoute un record de simulation.
+     * @param r Le record
+     */
+    public void ajouter(RecordSimulation r) {
+        ajouter(r.temps(), r.production(), r.consommation());
+    }
+
+    /**
+     * Vide la série. Les vues déjà obtenues restent valides :
+     * de nouveaux tableaux sont alloués au lieu d'écraser les anciens.
+     */
+    public void vider() {
+        blocsTemps = new int[0][];
+        blocsProduction = new double[0][];
+        blocsConsommation = new double[0][];
+        taille = 0;
+        retires = 0;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    /**
+     * Nombre maximal d'enregistrements conservés (Integer.MAX_VALUE si illimité).
+     */
+    public int capacite() {
+        return capaciteBlocs == Integer.MAX_VALUE ? Integer.MAX_VALUE : capaciteBlocs * TAILLE_BLOC;
+    }
+
+    /**
+     * Nombre d'enregistrements retirés depuis la création (ou le dernier vidage).
+     * L'enregistrement d'index i de la série est le (retires + i)-ième ajouté.
+     */
+    public long retires() {
+        return retires;
+    }
+
+    /**
+     * Retourne une vue en lecture seule des enregistrements présents.
+     * Aucune copie des données : la vue partage les blocs de la série.
+     * Les ajouts ultérieurs n'y sont pas visibles.
+     * @return Vue figée
+     */
+    public Vue vue() {
+        return new Vue(blocsTemps, blocsProduction, blocsConsommation, 0, taille);
+    }
+
+    private void retirerPlusAncienBloc() {
+        int n = blocsTemps.length - 1;
+        int[][] t = new int[n][];
+        double[][] p = new double[n][];
+        double[][] c = new double[n][];
+        System.arraycopy(blocsTemps, 1, t, 0, n);
+        System.arraycopy(blocsProduction, 1, p, 0, n);
+        System.arraycopy(blocsConsommation, 1, c, 0, n);
+        blocsTemps = t;
+        blocsProduction = p;
+        blocsConsommation = c;
+        taille -= TAILLE_BLOC;
+        retires += TAILLE_BLOC;
+    }
+
+    private void agrandir() {
+        int n = blocsTemps.length;
+        int[][] t = new int[n + 1][];
+        double[][] p = new double[n + 1][];
+        double[][] c = new double[n + 1][];
+        System.arraycopy(blocsTemps, 0, t, 0, n);
+        System.arraycopy(blocsProduction, 0, p, 0, n);
+        System.arraycopy(blocsConsommation, 0, c, 0, n);
+        t[n] = new int[TAILLE_BLOC];
+        p[n] = new double[TAILLE_BLOC];
+        c[n] = new double[TAILLE_BLOC];
+        blocsTemps = t;
+        blocsProduction = p;
+        blocsConsommation = c;
+    }
+
+    /**
+     * Vue immuable sur une série : accès par index aux colonnes primitives,
+     * itérateurs primitifs, et vue List pour la compatibilité avec l'existant
+     * (les RecordSimulation sont créés à la demande).
+     */
+    public static final class Vue extends AbstractList<RecordSimulation> implements RandomAccess {
+
+        private final int[][] temps;
+        private final double[][] production;
+        private final double[][] consommation;
+        private final int debut;
+        private final int taille;
+
+        private Vue(int[][] temps, double[][] production, double[][] consommation, int debut, int taille) {
+            this.temps = temps;
+            this.production = production;
+            this.consommation = consommation;
+            this.debut = debut;
+            this.taille = taille;
+        }
+
+        @Override
+        public int size() {
+            return taille;
+        }
+
+        @Override
+        public RecordSimulation get(int index) {
+            verifierIndex(index);
+            return new RecordSimulation(temps(index), consommation(index), production(index));
+        }
+
+        public int temps(int index) {
+            int i = debut + index;
+            return temps[i / TAILLE_BLOC][i % TAILLE_BLOC];
+        }
+
+        public double production(int index) {
+            int i = debut + index;
+            return production[i / TAILLE_BLOC][i % TAILLE_BLOC];
+        }
+
+        public double consommation(int index) {
+            int i = debut + index;
+            return consommation[i / TAILLE_BLOC][i % TAILLE_BLOC];
+        }
+
+        /**
+         * Sous-vue sans copie.
+         * @param depuis Index de départ (inclus)
+         * @param jusqua Index de fin (exclus)
+         * @return Vue restreinte
+         */
+        @Override
+        public Vue subList(int depuis, int jusqua) {
+            if (depuis < 0 || jusqua > taille || depuis > jusqua) {
+                throw new IndexOutOfBoundsException("Intervalle invalide : " + depuis + ".." + jusqua);
+            }
+            return new Vue(temps, production, consommation, debut + depuis, jusqua - depuis);
+        }
+
+        public PrimitiveIterator.OfInt iterateurTemps() {
+            return new PrimitiveIterator.OfInt() {
+                private int i = 0;
+                @Override public boolean hasNext() { return i < taille; }
+                @Override public int nextInt() {
+                    if (i >= taille) throw new NoSuchElementException();
+                    return temps(i++);
+                }
+            };
+        }
+
+        public PrimitiveIterator.OfDouble iterateurProduction() {
+            return iterateurColonne(production);
+        }
+
+        public PrimitiveIterator.OfDouble iterateurConsommation() {
+            return iterateurColonne(consommation);
+        }
+
+        /**
+         * Flux de la colonne temps.
+         * @return IntStream séquentiel
+         */
+        public IntStream fluxTemps() {
+            return StreamSupport.intStream(
+                    Spliterators.spliterator(iterateurTemps(), taille, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+        }
+
+        /**
+         * Flux de la colonne production.
+         * @return DoubleStream séquentiel
+         */
+        public DoubleStream fluxProduction() {
+            return StreamSupport.doubleStream(
+                    Spliterators.spliterator(iterateurProduction(), taille, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+        }
+
+        /**
+         * Flux de la colonne consommation.
+         * @return DoubleStream séquentiel
+         */
+        public DoubleStream fluxConsommation() {
+            return StreamSupport.doubleStream(
+                    Spliterators.spliterator(iterateurConsommation(), taille, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+        }
+
+        /**
+         * Parcourt les trois colonnes bloc par bloc, sans création d'objet.
+         * @param visiteur Reçoit (temps, production, consommation) pour chaque enregistrement
+         */
+        public void parcourir(VisiteurEnregistrement visiteur) {
+            int fin = debut + taille;
+            int i = debut;
+            while (i < fin) {
+                int bloc = i / TAILLE_BLOC;
+                int pos = i % TAILLE_BLOC;
+                int n = Math.min(TAILLE_BLOC - pos, fin - i);
+                int[] t = temps[bloc];
+                double[] p = production[bloc];
+                double[] c = consommation[bloc];
+                for (int k = pos; k < pos + n; k++) {
+                    visiteur.visiter(t[k], p[k], c[k]);
+                }
+                i += n;
+            }
+        }
+
+        private PrimitiveIterator.OfDouble iterateurColonne(double[][] colonne) {
+            return new PrimitiveIterator.OfDouble() {
+                private int i = 0;
+                @Override public boolean hasNext() { return i < taille; }
+                @Override public double nextDouble() {
+                    if (i >= taille) throw new NoSuchElementException();
+                    int abs = debut + i++;
+                    return colonne[abs / TAILLE_BLOC][abs % TAILLE_BLOC];
+                }
+            };
+        }
+
+        private void verifierIndex(int index) {
+            if (index < 0 || index >= taille) {
+                throw new IndexOutOfBoundsException("Index " + index + " hors de [0, " + taille + ")");
+            }
+        }
+    }
+
+    /**
+     * Interface fonctionnelle pour parcourir les colonnes sans boxing.
+     */
+    @FunctionalInterface
+    public interface VisiteurEnregistrement {
+        void visiter(int temps, double production, double consommation);
+    }
+}
@@ -1,21 +1,53 @@
 package simulation.modele.simulation;
 
+import simulation.modele.source.Eolienne;
+import simulation.modele.source.PanneauSolaire;
 import simulation.modele.source.SourceEnergie;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Classe Simulation pour gérer le temps et calculs globaux.
- 
+ * Les sources sont regroupées par type concret à la construction :
+ * chaque type est évalué en une passe sur son propre tableau.
  */
 public class Simulation {
-    private final List<SourceEnergie> listeSources;
-    private final List<Consommateur> listeConsommateurs;
+    private final PanneauSolaire[] panneaux;
+    private final Eolienne[] eoliennes;
+    private final SourceEnergie[] autresSources;
+    private final Consommateur[] consommateurs;
+    private final EvaluateurParallele evaluateur;
     private int tempsSimule;
 
     
     public Simulation(List<SourceEnergie> sources, List<Consommateur> consommateurs) {
-        this.listeSources = List.copyOf(sources != null ? sources : List.of());
-        this.listeConsommateurs = List.copyOf(consommateurs != null ? consommateurs : List.of());
+        this(sources, consommateurs, EvaluateurParallele.parDefaut());
+    }
+
+    /**
+     * Constructeur avec évaluateur explicite (seuil et pool de parallélisme).
+     * @param sources Les sources d'énergie
+     * @param consommateurs Les consommateurs
+     * @param evaluateur L'évaluateur des sommes
+     */
+    public Simulation(List<SourceEnergie> sources, List<Consommateur> consommateurs, EvaluateurParallele evaluateur) {
+        List<PanneauSolaire> listePanneaux = new ArrayList<>();
+        List<Eolienne> listeEoliennes = new ArrayList<>();
+        List<SourceEnergie> listeAutres = new ArrayList<>();
+        for (SourceEnergie s : sources != null ? sources : List.<SourceEnergie>of()) {
+            if (s instanceof PanneauSolaire p) {
+                listePanneaux.add(p);
+            } else if (s instanceof Eolienne e) {
+                listeEoliennes.add(e);
+            } else if (s != null) {
+                listeAutres.add(s);
+            }
+        }
+        this.panneaux = listePanneaux.toArray(new PanneauSolaire[0]);
+        this.eoliennes = listeEoliennes.toArray(new Eolienne[0]);
+        this.autresSources = listeAutres.toArray(new SourceEnergie[0]);
+        this.consommateurs = (consommateurs != null ? consommateurs : List.<Consommateur>of()).toArray(new Consommateur[0]);
+        this.evaluateur = evaluateur != null ? evaluateur : EvaluateurParallele.parDefaut();
         this.tempsSimule = 0;
     }
 
@@ -28,23 +60,30 @@ public class Simulation {
     }
 
     /**
-     * Consommation totale via stream.
+     * Consommation totale (parallèle au-delà du seuil de l'évaluateur).
      * @return Somme.
      */
     public double getConsommationTotale() {
-        return listeConsommateurs.stream()
-                .mapToDouble(Consommateur::getConsommation)
-                .sum();
+        return evaluateur.sommer(consommateurs, Consommateur::getConsommation);
+    }
+
+    /**
+     * Consommation totale à un instant donné (profils de charge appliqués).
+     * @param temps Temps simulé
+     * @return Somme.
+     */
+    public double getConsommationTotale(int temps) {
+        return evaluateur.sommer(consommateurs, c -> c.consommationA(temps));
     }
 
     /**
-     * Production totale via stream.
-     * 
+     * Production totale : une passe par type de source, dans un ordre fixe.
+     * @return Somme.
      */
     public double getProduc() {
-        return listeSources.stream()
-                .mapToDouble(SourceEnergie::getProduction)
-                .sum();
+        return evaluateur.sommer(panneaux, PanneauSolaire::getProduction)
+                + evaluateur.sommer(eoliennes, Eolienne::getProduction)
+                + evaluateur.sommer(autresSources, SourceEnergie::getProduction);
     }
 
     /**
@@ -0,0 +1,125 @@
+package simulation.modele.simulation;
+
+/**
+ * Agrégats de l'historique mis à jour en O(1) à chaque ajout :
+ * nombre, somme, min/max, variance (algorithme de Welford)
+ * et compteurs de déficits/excédents.
+ *
+ * Classe non synchronisée : Historique la protège par son verrou
+ * et ne publie que des copies.
+ */
+public final class StatistiquesHistorique {
+
+    private long nombre;
+    private long deficits;
+
+    private double sommeProduction;
+    private double minProduction = Double.POSITIVE_INFINITY;
+    private double maxProduction = Double.NEGATIVE_INFINITY;
+    private double moyenneProduction;
+    private double m2Production;
+
+    private double sommeConsommation;
+    private double minConsommation = Double.POSITIVE_INFINITY;
+    private double maxConsommation = Double.NEGATIVE_INFINITY;
+    private double moyenneConsommation;
+    private double m2Consommation;
+
+    public StatistiquesHistorique() {}
+
+    private StatistiquesHistorique(StatistiquesHistorique autre) {
+        this.nombre = autre.nombre;
+        this.deficits = autre.deficits;
+        this.sommeProduction = autre.sommeProduction;
+        this.minProduction = autre.minProduction;
+        this.maxProduction = autre.maxProduction;
+        this.moyenneProduction = autre.moyenneProduction;
+        this.m2Production = autre.m2Production;
+        this.sommeConsommation = autre.sommeConsommation;
+        this.minConsommation = autre.minConsommation;
+        this.maxConsommation = autre.maxConsommation;
+        this.moyenneConsommation = autre.moyenneConsommation;
+        this.m2Consommation = autre.m2Consommation;
+    }
+
+    /**
+     * Intègre un enregistrement.
+     * @param production Production (kWh)
+     * @param consommation Consommation (kWh)
+     */
+    public void accumuler(double production, double consommation) {
+        nombre++;
+        if (production < consommation) deficits++;
+
+        sommeProduction += production;
+        minProduction = Math.min(minProduction, production);
+        maxProduction = Math.max(maxProduction, production);
+        double delta = production - moyenneProduction;
+        moyenneProduction += delta / nombre;
+        m2Production += delta * (production - moyenneProduction);
+
+        sommeConsommation += consommation;
+        minConsommation = Math.min(minConsommation, consommation);
+        maxConsommation = Math.max(maxConsommation, consommation);
+        delta = consommation - moyenneConsommation;
+        moyenneConsommation += delta / nombre;
+        m2Consommation += delta * (consommation - moyenneConsommation);
+    }
+
+    /**
+     * Remet tous les agrégats à zéro.
+     */
+    public void reinitialiser() {
+        nombre = 0;
+        deficits = 0;
+        sommeProduction = 0;
+        minProduction = Double.POSITIVE_INFINITY;
+        maxProduction = Double.NEGATIVE_INFINITY;
+        moyenneProduction = 0;
+        m2Production = 0;
+        sommeConsommation = 0;
+        minConsommation = Double.POSITIVE_INFINITY;
+        maxConsommation = Double.NEGATIVE_INFINITY;
+        moyenneConsommation = 0;
+        m2Consommation = 0;
+    }
+
+    /**
+     * Copie indépendante (instantané cohérent).
+     * @return Nouvelle instance
+     */
+    public StatistiquesHistorique copie() {
+        return new StatistiquesHistorique(this);
+    }
+
+    // Getters (0.0 si historique vide, comme les streams .orElse(0.0))
+    public long getNombre() { return nombre; }
+    public long getDeficits() { return deficits; }
+    public long getExcedents() { return nombre - deficits; }
+
+    public double getSommeProduction() { return sommeProduction; }
+    public double getProductionMoyenne() { return nombre == 0 ? 0.0 : sommeProduction / nombre; }
+    public double getProductionMin() { return nombre == 0 ? 0.0 : minProduction; }
+    public double getProductionMax() { return nombre == 0 ? 0.0 : maxProduction; }
+    public double getVarianceProduction() { return nombre < 2 ? 0.0 : m2Production / (nombre - 1); }
+    public double getEcartTypeProduction() { return Math.sqrt(getVarianceProduction()); }
+
+    public double getSommeConsommation() { return sommeConsommation; }
+    public double getConsommationMoyenne() { return nombre == 0 ? 0.0 : sommeConsommation / nombre; }
+    public double getConsommationMin() { return nombre == 0 ? 0.0 : minConsommation; }
+    public double getConsommationMax() { return nombre == 0 ? 0.0 : maxConsommation; }
+    public double getVarianceConsommation() { return nombre < 2 ? 0.0 : m2Consommation / (nombre - 1); }
+    public double getEcartTypeConsommation() { return Math.sqrt(getVarianceConsommation()); }
+
+    public double getBilanMoyen() {
+        return nombre == 0 ? 0.0 : (sommeProduction - sommeConsommation) / nombre;
+    }
+
+    public double getTauxDeficit() {
+        return nombre == 0 ? 0.0 : deficits * 100.0 / nombre;
+    }
+
+    public double getTauxExcedent() {
+        return nombre == 0 ? 0.0 : getExcedents() * 100.0 / nombre;
+    }
+}
@@ -0,0 +1,90 @@
+package simulation.modele.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tampon circulaire sans verrou, un seul producteur / un seul consommateur,
+ * en colonnes primitives (temps, production, consommation).
+ *
+ * Le producteur (thread de simulation) n'attend jamais : si le consommateur
+ * (thread JavaFX) a pris trop de retard, offrir() retourne false et
+ * l'enregistrement n'est pas transmis (il reste dans l'historique).
+ * Les index sont publiés par lazySet (écriture ordonnée) : les données
+ * écrites avant la publication sont visibles du consommateur.
+ */
+public final class TamponSPSC {
+
+    private final int capacite;
+    private final int masque;
+    private final int[] temps;
+    private final double[] production;
+    private final double[] consommation;
+
+    private final AtomicLong lecture = new AtomicLong();   // écrit par le consommateur
+    private final AtomicLong ecriture = new AtomicLong();  // écrit par le producteur
+    private long lectureConnue;                            // cache du producteur
+
+    /**
+     * Constructeur.
+     * @param capacite Capacité minimale (arrondie à la puissance de 2 supérieure)
+     */
+    public TamponSPSC(int capacite) {
+        if (capacite < 1 || capacite > (1 << 30)) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacite);
+        }
+        int puissance = Integer.highestOneBit(capacite);
+        this.capacite = puissance == capacite ? capacite : puissance << 1;
+        this.masque = this.capacite - 1;
+        this.temps = new int[this.capacite];
+        this.production = new double[this.capacite];
+        this.consommation = new double[this.capacite];
+    }
+
+    /**
+     * Dépose un enregistrement (thread producteur uniquement).
+     * @return false si le tampon est plein
+     */
+    public boolean offrir(int t, double prod, double conso) {
+        long e = ecriture.get();
+        if (e - lectureConnue >= capacite) {
+            lectureConnue = lecture.get();
+            if (e - lectureConnue >= capacite) {
+                return false;
+            }
+        }
+        int i = (int) e & masque;
+        temps[i] = t;
+        production[i] = prod;
+        consommation[i] = conso;
+        ecriture.lazySet(e + 1);
+        return true;
+    }
+
+    /**
+     * Retire tous les enregistrements disponibles (thread consommateur uniquement).
+     * @param visiteur Reçoit (temps, production, consommation) dans l'ordre de dépôt
+     * @return Nombre d'enregistrements retirés
+     */
+    public int vider(SerieTemporelle.VisiteurEnregistrement visiteur) {
+        long l = lecture.get();
+        long e = ecriture.get();
+        for (long k = l; k < e; k++) {
+            int i = (int) k & masque;
+            visiteur.visiter(temps[i], production[i], consommation[i]);
+        }
+        lecture.lazySet(e);
+        return (int) (e - l);
+    }
+
+    /**
+     * Nombre approximatif d'enregistrements en attente.
+     * @return Taille courante
+     */
+    public int taille() {
+        return (int) (ecriture.get() - lecture.get());
+    }
+
+    public int capacite() {
+        return capacite;
+    }
+}
@@ -0,0 +1,71 @@
+package simulation.modele.simulation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registre global des types d'appareils : chaque nom est interné une fois
+ * et remplacé par un identifiant entier dense (0, 1, 2, ...).
+ * Les consommateurs ne stockent que ces identifiants ; les répartitions
+ * par type sont alors de simples tableaux indexés par identifiant.
+ */
+public final class TypesAppareils {
+
+    private static final Map<String, Integer> IDENTIFIANTS = new HashMap<>();
+    private static volatile String[] noms = new String[16];
+    private static volatile int nombre = 0;
+
+    private TypesAppareils() {}
+
+    /**
+     * Identifiant d'un type d'appareil, créé au premier usage.
+     * @param nom Nom de l'appareil (non vide)
+     * @return Identifiant dense
+     */
+    public static synchronized int identifiant(String nom) {
+        if (nom == null || nom.isEmpty()) {
+            throw new IllegalArgumentException("Nom d'appareil obligatoire.");
+        }
+        Integer id = IDENTIFIANTS.get(nom);
+        if (id != null) return id;
+        int nouveau = nombre;
+        String[] tableau = noms;
+        if (nouveau == tableau.length) {
+            tableau = Arrays.copyOf(tableau, nouveau * 2);
+        }
+        tableau[nouveau] = nom;
+        noms = tableau;
+        IDENTIFIANTS.put(nom, nouveau);
+        nombre = nouveau + 1;
+        return nouveau;
+    }
+
+    /**
+     * Identifiant d'un type déjà connu, sans le créer.
+     * @param nom Nom de l'appareil
+     * @return Identifiant, ou -1 si inconnu
+     */
+    public static synchronized int chercher(String nom) {
+        Integer id = IDENTIFIANTS.get(nom);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Nom d'un type d'appareil (sans verrou).
+     * @param identifiant Identifiant obtenu par identifiant(String)
+     */
+    public static String nom(int identifiant) {
+        if (identifiant < 0 || identifiant >= nombre) {
+            throw new IndexOutOfBoundsException("Type d'appareil inexistant : " + identifiant);
+        }
+        return noms[identifiant];
+    }
+
+    /**
+     * Nombre de types connus (les identifiants vont de 0 à nombre() - 1).
+     */
+    public static int nombre() {
+        return nombre;
+    }
+}
@@ -0,0 +1,41 @@
+package simulation.modele.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteur de modifications d'un modèle (sources, consommateurs,
+ * vitesse du vent, facteurs de consommation...).
+ * Chaque GestionEnergie possède le sien et le transmet aux sources et
+ * consommateurs qu'on lui ajoute : un autre modèle (benchmark, batch) ne
+ * l'invalide pas. Toute mutation qui change une production ou une consommation
+ * l'incrémente ; les caches comparent simplement la version lue lors de leur calcul.
+ * Les mêmes mutations publient aussi SOURCES ou CONSOMMATEURS sur BusEvenements
+ * pour l'affichage (ce compteur ne dit pas ce qui a changé).
+ */
+public final class VersionModele {
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Signale une modification du modèle (invalide les caches).
+     */
+    public void incrementer() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Signale une modification d'un élément, s'il est rattaché à un modèle.
+     * @param version Version du modèle de l'élément (null si non rattaché)
+     */
+    public static void incrementer(VersionModele version) {
+        if (version != null) version.incrementer();
+    }
+
+    /**
+     * Version courante du modèle.
+     * @return Numéro de version
+     */
+    public long courante() {
+        return version.get();
+    }
+}
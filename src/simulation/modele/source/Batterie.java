@@ -34,6 +34,18 @@ public final class Batterie implements SourceEnergie, StockageEnergie {
         niveauActuel = Math.min(capaciteMax, niveauActuel + qte * efficacite);
     }
 
+    /**
+     * Charge sans exception : au plus la place restante (compte tenu de l'efficacité).
+     */
+    @Override
+    public double chargerJusqua(double qte) {
+        double place = capaciteMax - niveauActuel;
+        if (!(qte > 0) || efficacite <= 0 || place <= 0) return 0.0;
+        double pris = Math.min(qte, place / efficacite);
+        niveauActuel = Math.min(capaciteMax, niveauActuel + pris * efficacite);
+        return pris;
+    }
+
     /**
      * Décharge énergie (soustraire du niveau).
      
@@ -48,6 +60,17 @@ public final class Batterie implements SourceEnergie, StockageEnergie {
         niveauActuel = Math.max(0, niveauActuel - qte);
     }
 
+    /**
+     * Décharge sans exception : au plus le niveau actuel.
+     */
+    @Override
+    public double dechargerJusqua(double qte) {
+        if (!(qte > 0)) return 0.0;
+        double donne = Math.min(qte, niveauActuel);
+        niveauActuel -= donne;
+        return donne;
+    }
+
     
      
     @Override
@@ -83,4 +106,6 @@ public final class Batterie implements SourceEnergie, StockageEnergie {
     }
 
     public double getNiveauActuel() { return niveauActuel;};
+
+    public double getEfficacite() { return efficacite; }
     }
@@ -1,6 +1,8 @@
 package simulation.modele.source;
 
+import simulation.modele.simulation.BusEvenements;
 import simulation.modele.simulation.EnergieException;
+import simulation.modele.simulation.VersionModele;
 
 /**
  * Implémentation finale d'Eolienne (héritage restreint via sealed).
@@ -8,6 +10,7 @@ import simulation.modele.simulation.EnergieException;
 public final class Eolienne implements SourceEnergie {
     private double vitesseVent;
     private final double puissanceNominale; // Immuable
+    private VersionModele version; // null tant que la source n'est pas dans un modèle
 
     /**
      * Constructeur.
@@ -24,7 +27,8 @@ public final class Eolienne implements SourceEnergie {
 
     @Override
     public double produireEnergie() {
-        return puissanceNominale * Math.pow(Math.max(0, vitesseVent / 10), 3);
+        double v = Math.max(0, vitesseVent / 10);
+        return puissanceNominale * v * v * v; // cube par multiplication (pas de Math.pow)
     }
 
     @Override
@@ -37,9 +41,24 @@ public final class Eolienne implements SourceEnergie {
         return produireEnergie();
     }
 
+    /**
+     * Rattache la source au compteur de version de son modèle.
+     */
+    @Override
+    public void rattacherVersion(VersionModele version) {
+        this.version = version;
+    }
+
     // Setter contrôlé pour vent (ex. pour simulation)
     public void setVitesseVent(double vitesse) throws EnergieException {
         if (vitesse < 0) throw EnergieException.energieNegative(vitesse);
+        appliquerVitesseVent(vitesse);
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    // Sans validation ni signal : utilisé par SourceEnergie.appliquerMeteo
+    void appliquerVitesseVent(double vitesse) {
         this.vitesseVent = vitesse;
     }
 }
\ No newline at end of file
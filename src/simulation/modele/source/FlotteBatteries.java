@@ -0,0 +1,231 @@
+package simulation.modele.source;
+
+import java.util.Arrays;
+import simulation.modele.simulation.EnergieException;
+
+/**
+ * Flotte de batteries stockée en tableaux parallèles (structure of arrays).
+ * Vue comme un seul stockage agrégé : une batterie = un indice dans chaque tableau.
+ * La répartition d'un excédent ou d'un déficit est une seule boucle sur des double[],
+ * sans allocation ni exception. Mêmes règles que Batterie : l'énergie chargée est
+ * multipliée par l'efficacité, le niveau reste dans [0, capacité].
+ */
+public final class FlotteBatteries implements SourceEnergie, StockageEnergie {
+    private static final int CAPACITE_INITIALE = 16;
+
+    private double[] capaciteMax;
+    private double[] niveau;
+    private double[] efficacite;
+    private int taille;
+
+    public FlotteBatteries() {
+        this(CAPACITE_INITIALE);
+    }
+
+    /**
+     * Constructeur avec capacité initiale (évite les réallocations).
+     * @param capacite Nombre de batteries prévues
+     */
+    public FlotteBatteries(int capacite) {
+        int c = Math.max(1, capacite);
+        this.capaciteMax = new double[c];
+        this.niveau = new double[c];
+        this.efficacite = new double[c];
+    }
+
+    /**
+     * Ajoute une batterie à la flotte.
+     * @return Indice de la batterie
+     */
+    public int ajouter(double capaciteMax, double niveauInitial, double efficacite) throws EnergieException {
+        if (capaciteMax <= 0 || niveauInitial < 0 || niveauInitial > capaciteMax || efficacite < 0 || efficacite > 1) {
+            throw EnergieException.simulationInvalide("Paramètres Batterie invalides");
+        }
+        if (taille == this.capaciteMax.length) {
+            int c = taille * 2;
+            this.capaciteMax = Arrays.copyOf(this.capaciteMax, c);
+            this.niveau = Arrays.copyOf(this.niveau, c);
+            this.efficacite = Arrays.copyOf(this.efficacite, c);
+        }
+        this.capaciteMax[taille] = capaciteMax;
+        this.niveau[taille] = niveauInitial;
+        this.efficacite[taille] = efficacite;
+        return taille++;
+    }
+
+    /**
+     * Charge la flotte avec un excédent, batterie par batterie jusqu'à épuisement.
+     * @param surplus Énergie disponible (kWh)
+     * @return Énergie effectivement prélevée (kWh, avant pertes)
+     */
+    @Override
+    public double chargerJusqua(double surplus) {
+        if (!(surplus > 0)) return 0.0;
+        final double[] cap = capaciteMax, niv = niveau, eff = efficacite;
+        final int n = taille;
+        double reste = surplus;
+        for (int i = 0; i < n && reste > 0; i++) {
+            double e = eff[i];
+            double place = cap[i] - niv[i];
+            if (e <= 0 || place <= 0) continue;
+            double pris = Math.min(reste, place / e);
+            niv[i] = Math.min(cap[i], niv[i] + pris * e);
+            reste -= pris;
+        }
+        return surplus - Math.max(0, reste);
+    }
+
+    /**
+     * Décharge la flotte pour couvrir un déficit, batterie par batterie.
+     * @param deficit Énergie demandée (kWh)
+     * @return Énergie effectivement fournie (kWh)
+     */
+    @Override
+    public double dechargerJusqua(double deficit) {
+        if (!(deficit > 0)) return 0.0;
+        final double[] niv = niveau;
+        final int n = taille;
+        double reste = deficit;
+        for (int i = 0; i < n && reste > 0; i++) {
+            double donne = Math.min(reste, niv[i]);
+            niv[i] -= donne;
+            reste -= donne;
+        }
+        return deficit - Math.max(0, reste);
+    }
+
+    @Override
+    public void charger(double qte) throws EnergieException {
+        if (qte < 0) {
+            throw EnergieException.energieNegative(qte);
+        }
+        chargerJusqua(qte);
+    }
+
+    @Override
+    public void decharger(double qte) throws EnergieException {
+        if (qte < 0) {
+            throw EnergieException.energieNegative(qte);
+        }
+        double disponible = getNiveau();
+        if (qte > disponible) {
+            throw EnergieException.dechargeExcedant(qte, disponible);
+        }
+        dechargerJusqua(qte);
+    }
+
+    /**
+     * Lot par batterie : demandes[i] est proposée à la batterie i (une seule passe).
+     * @param demandes Énergie proposée à chaque batterie (au plus taille() valeurs)
+     * @param absorbes Reçoit l'énergie prélevée par chaque batterie
+     * @return Total prélevé
+     */
+    public double chargerParBatterie(double[] demandes, double[] absorbes) {
+        verifierLot(demandes, absorbes);
+        final double[] cap = capaciteMax, niv = niveau, eff = efficacite;
+        double total = 0.0;
+        for (int i = 0; i < demandes.length; i++) {
+            double place = cap[i] - niv[i];
+            double pris = !(demandes[i] > 0) || eff[i] <= 0 || place <= 0 ? 0.0 : Math.min(demandes[i], place / eff[i]);
+            niv[i] = Math.min(cap[i], niv[i] + pris * eff[i]);
+            absorbes[i] = pris;
+            total += pris;
+        }
+        return total;
+    }
+
+    /**
+     * Lot par batterie : demandes[i] est demandée à la batterie i (une seule passe).
+     * @param demandes Énergie demandée à chaque batterie (au plus taille() valeurs)
+     * @param fournis Reçoit l'énergie fournie par chaque batterie
+     * @return Total fourni
+     */
+    public double dechargerParBatterie(double[] demandes, double[] fournis) {
+        verifierLot(demandes, fournis);
+        final double[] niv = niveau;
+        double total = 0.0;
+        for (int i = 0; i < demandes.length; i++) {
+            double donne = demandes[i] > 0 ? Math.min(demandes[i], niv[i]) : 0.0;
+            niv[i] -= donne;
+            fournis[i] = donne;
+            total += donne;
+        }
+        return total;
+    }
+
+    /**
+     * Niveau d'une seule batterie.
+     */
+    public double getNiveau(int indice) {
+        verifierIndice(indice);
+        return niveau[indice];
+    }
+
+    /**
+     * Niveau cumulé de la flotte.
+     */
+    @Override
+    public double getNiveau() {
+        double total = 0.0;
+        for (int i = 0; i < taille; i++) {
+            total += niveau[i];
+        }
+        return total;
+    }
+
+    /**
+     * Capacité maximale cumulée.
+     */
+    @Override
+    public double getCapacite() {
+        double total = 0.0;
+        for (int i = 0; i < taille; i++) {
+            total += capaciteMax[i];
+        }
+        return total;
+    }
+
+    /**
+     * Efficacité moyenne pondérée par la capacité (1 si la flotte est vide).
+     */
+    public double getEfficaciteMoyenne() {
+        double pondere = 0.0, capacite = 0.0;
+        for (int i = 0; i < taille; i++) {
+            pondere += efficacite[i] * capaciteMax[i];
+            capacite += capaciteMax[i];
+        }
+        return capacite > 0 ? pondere / capacite : 1.0;
+    }
+
+    /**
+     * Production (0 : l'énergie restituée passe par la répartition du stockage).
+     */
+    @Override
+    public double getProduction() {
+        return 0.0;
+    }
+
+    @Override
+    public double produireEnergie() {
+        return getProduction();
+    }
+
+    /**
+     * Nombre de batteries de la flotte.
+     */
+    public int taille() {
+        return taille;
+    }
+
+    private void verifierLot(double[] demandes, double[] resultats) {
+        if (demandes == null || resultats == null || demandes.length > taille || resultats.length < demandes.length) {
+            throw new IllegalArgumentException("Tableaux de demandes et de résultats incompatibles avec la flotte");
+        }
+    }
+
+    private void verifierIndice(int indice) {
+        if (indice < 0 || indice >= taille) {
+            throw new IndexOutOfBoundsException("Batterie inexistante : " + indice);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package simulation.modele.source;
+
+import java.util.Arrays;
+import simulation.modele.simulation.BusEvenements;
+import simulation.modele.simulation.EnergieException;
+import simulation.modele.simulation.VersionModele;
+
+/**
+ * Flotte d'éoliennes stockée en tableaux parallèles (structure of arrays).
+ * Vue comme une seule source agrégée. Le cube de la vitesse est calculé par
+ * multiplications (pas de Math.pow) dans une boucle serrée vectorisable par le JIT.
+ */
+public final class FlotteEolienne implements SourceEnergie {
+    private static final int CAPACITE_INITIALE = 16;
+
+    private double[] vitesseVent;
+    private double[] puissanceNominale;
+    private int taille;
+    private VersionModele version; // null tant que la flotte n'est pas dans un modèle
+
+    public FlotteEolienne() {
+        this(CAPACITE_INITIALE);
+    }
+
+    /**
+     * Constructeur avec capacité initiale (évite les réallocations).
+     * @param capacite Nombre d'éoliennes prévues
+     */
+    public FlotteEolienne(int capacite) {
+        int c = Math.max(1, capacite);
+        this.vitesseVent = new double[c];
+        this.puissanceNominale = new double[c];
+    }
+
+    /**
+     * Ajoute une éolienne à la flotte.
+     * @return Indice de l'éolienne
+     */
+    public int ajouter(double vitesseVent, double puissanceNominale) throws EnergieException {
+        if (vitesseVent < 0 || puissanceNominale <= 0) {
+            throw EnergieException.energieNegative(vitesseVent);
+        }
+        if (taille == this.vitesseVent.length) {
+            int c = taille * 2;
+            this.vitesseVent = Arrays.copyOf(this.vitesseVent, c);
+            this.puissanceNominale = Arrays.copyOf(this.puissanceNominale, c);
+        }
+        this.vitesseVent[taille] = vitesseVent;
+        this.puissanceNominale[taille] = puissanceNominale;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+        return taille++;
+    }
+
+    /**
+     * Rattache la source au compteur de version de son modèle.
+     */
+    @Override
+    public void rattacherVersion(VersionModele version) {
+        this.version = version;
+    }
+
+    /**
+     * Vitesse du vent d'une éolienne.
+     */
+    public void setVitesseVent(int indice, double vitesse) throws EnergieException {
+        verifierIndice(indice);
+        if (vitesse < 0) throw EnergieException.energieNegative(vitesse);
+        this.vitesseVent[indice] = vitesse;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    /**
+     * Même vitesse de vent pour toute la flotte.
+     */
+    public void setVitesseVent(double vitesse) throws EnergieException {
+        if (vitesse < 0) throw EnergieException.energieNegative(vitesse);
+        appliquerVitesseVent(vitesse);
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    // Sans validation ni signal : utilisé par SourceEnergie.appliquerMeteo
+    void appliquerVitesseVent(double vitesse) {
+        Arrays.fill(this.vitesseVent, 0, taille, vitesse);
+    }
+
+    /**
+     * Vitesses de vent de toute la flotte (une par éolienne, dans l'ordre des indices).
+     */
+    public void setVitessesVent(double[] vitesses) throws EnergieException {
+        if (vitesses == null || vitesses.length != taille) {
+            throw EnergieException.simulationInvalide("Nombre de vitesses différent de la taille de la flotte");
+        }
+        for (double v : vitesses) {
+            if (v < 0) throw EnergieException.energieNegative(v);
+        }
+        System.arraycopy(vitesses, 0, this.vitesseVent, 0, taille);
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    /**
+     * Production d'une seule éolienne.
+     */
+    public double getProduction(int indice) {
+        verifierIndice(indice);
+        double v = vitesseVent[indice] / 10;
+        return puissanceNominale[indice] * v * v * v;
+    }
+
+    @Override
+    public double produireEnergie() {
+        final double[] vent = vitesseVent, p = puissanceNominale;
+        final int n = taille;
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            double v = vent[i] / 10; // vitesses validées ≥ 0
+            total += p[i] * v * v * v;
+        }
+        return total;
+    }
+
+    @Override
+    public double getProduction() {
+        return produireEnergie();
+    }
+
+    @Override
+    public double getCapacite() {
+        double total = 0.0;
+        for (int i = 0; i < taille; i++) {
+            total += puissanceNominale[i];
+        }
+        return total;
+    }
+
+    /**
+     * Nombre d'éoliennes de la flotte.
+     */
+    public int taille() {
+        return taille;
+    }
+
+    private void verifierIndice(int indice) {
+        if (indice < 0 || indice >= taille) {
+            throw new IndexOutOfBoundsException("Éolienne inexistante : " + indice);
+        }
+    }
+}
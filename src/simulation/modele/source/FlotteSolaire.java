@@ -0,0 +1,166 @@
+package simulation.modele.source;
+
+import java.util.Arrays;
+import simulation.modele.simulation.BusEvenements;
+import simulation.modele.simulation.EnergieException;
+import simulation.modele.simulation.VersionModele;
+
+/**
+ * Flotte de panneaux solaires stockée en tableaux parallèles (structure of arrays).
+ * Vue comme une seule source agrégée : un panneau = un indice dans chaque tableau,
+ * sans objet par panneau. La production est une boucle serrée sur des double[].
+ */
+public final class FlotteSolaire implements SourceEnergie {
+    private static final int CAPACITE_INITIALE = 16;
+
+    private double[] surface;
+    private double[] rendement;
+    private double[] puissanceNominale;
+    private int taille;
+    private double facteurSoleil = 1.0; // commun à toute la flotte
+    private VersionModele version; // null tant que la flotte n'est pas dans un modèle
+
+    public FlotteSolaire() {
+        this(CAPACITE_INITIALE);
+    }
+
+    /**
+     * Constructeur avec capacité initiale (évite les réallocations).
+     * @param capacite Nombre de panneaux prévus
+     */
+    public FlotteSolaire(int capacite) {
+        int c = Math.max(1, capacite);
+        this.surface = new double[c];
+        this.rendement = new double[c];
+        this.puissanceNominale = new double[c];
+    }
+
+    /**
+     * Ajoute un panneau à la flotte.
+     * @return Indice du panneau
+     */
+    public int ajouter(double surface, double rendement, double puissanceNominale) throws EnergieException {
+        verifier(surface, rendement, puissanceNominale);
+        if (taille == this.surface.length) {
+            int c = taille * 2;
+            this.surface = Arrays.copyOf(this.surface, c);
+            this.rendement = Arrays.copyOf(this.rendement, c);
+            this.puissanceNominale = Arrays.copyOf(this.puissanceNominale, c);
+        }
+        this.surface[taille] = surface;
+        this.rendement[taille] = rendement;
+        this.puissanceNominale[taille] = puissanceNominale;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+        return taille++;
+    }
+
+    /**
+     * Modifie un panneau existant.
+     */
+    public void modifier(int indice, double surface, double rendement, double puissanceNominale) throws EnergieException {
+        verifierIndice(indice);
+        verifier(surface, rendement, puissanceNominale);
+        this.surface[indice] = surface;
+        this.rendement[indice] = rendement;
+        this.puissanceNominale[indice] = puissanceNominale;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    public void setRendement(int indice, double rendement) throws EnergieException {
+        verifierIndice(indice);
+        verifier(surface[indice], rendement, puissanceNominale[indice]);
+        this.rendement[indice] = rendement;
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    /**
+     * Ensoleillement commun à la flotte (ex. profil météo).
+     */
+    public void setFacteurSoleil(double facteur) throws EnergieException {
+        if (facteur < 0 || facteur > 1) {
+            throw EnergieException.simulationInvalide("Facteur soleil hors [0, 1] : " + facteur);
+        }
+        appliquerFacteurSoleil(facteur);
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    // Sans validation ni signal : utilisé par SourceEnergie.appliquerMeteo
+    void appliquerFacteurSoleil(double facteur) {
+        this.facteurSoleil = facteur;
+    }
+
+    /**
+     * Rattache la source au compteur de version de son modèle.
+     */
+    @Override
+    public void rattacherVersion(VersionModele version) {
+        this.version = version;
+    }
+
+    public double getFacteurSoleil() {
+        return facteurSoleil;
+    }
+
+    /**
+     * Production d'un seul panneau.
+     */
+    public double getProduction(int indice) {
+        verifierIndice(indice);
+        return surface[indice] * rendement[indice] * puissanceNominale[indice] * facteurSoleil;
+    }
+
+    @Override
+    public double produireEnergie() {
+        return getProductionCrete() * facteurSoleil;
+    }
+
+    @Override
+    public double getProduction() {
+        return produireEnergie();
+    }
+
+    /**
+     * Production en plein soleil (facteur 1), indépendante de la météo courante.
+     */
+    public double getProductionCrete() {
+        final double[] s = surface, r = rendement, p = puissanceNominale;
+        final int n = taille;
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            total += s[i] * r[i] * p[i];
+        }
+        return total;
+    }
+
+    @Override
+    public double getCapacite() {
+        double total = 0.0;
+        for (int i = 0; i < taille; i++) {
+            total += puissanceNominale[i];
+        }
+        return total;
+    }
+
+    /**
+     * Nombre de panneaux de la flotte.
+     */
+    public int taille() {
+        return taille;
+    }
+
+    private static void verifier(double surface, double rendement, double puissanceNominale) throws EnergieException {
+        if (surface <= 0 || rendement < 0 || rendement > 1 || puissanceNominale <= 0) {
+            throw EnergieException.simulationInvalide("Paramètres Panneau invalides");
+        }
+    }
+
+    private void verifierIndice(int indice) {
+        if (indice < 0 || indice >= taille) {
+            throw new IndexOutOfBoundsException("Panneau inexistant : " + indice);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package simulation.modele.source;
 
+import simulation.modele.simulation.BusEvenements;
 import simulation.modele.simulation.EnergieException;
+import simulation.modele.simulation.VersionModele;
 
 /**
  * Implémentation finale de PanneauSolaire (héritage restreint).
@@ -9,6 +11,8 @@ public final class PanneauSolaire implements SourceEnergie {
     private final double surface; 
     private final double rendement; 
     private final double puissanceNominale; 
+    private double facteurSoleil = 1.0; // 0 = nuit, 1 = plein soleil
+    private VersionModele version; // null tant que la source n'est pas dans un modèle
 
     
     public PanneauSolaire(double surface, double rendement, double puissanceNominale) throws EnergieException {
@@ -22,7 +26,7 @@ public final class PanneauSolaire implements SourceEnergie {
 
     @Override
     public double produireEnergie() {
-        return surface * rendement * puissanceNominale; // Logique simple ; ajoute facteur soleil futur
+        return surface * rendement * puissanceNominale * facteurSoleil;
     }
 
     @Override
@@ -34,4 +38,38 @@ public final class PanneauSolaire implements SourceEnergie {
     public double getProduction() {
         return produireEnergie();
     }
-}
\ No newline at end of file
+
+    // Setter contrôlé pour l'ensoleillement (ex. profil météo)
+    public void setFacteurSoleil(double facteur) throws EnergieException {
+        if (facteur < 0 || facteur > 1) {
+            throw EnergieException.simulationInvalide("Facteur soleil hors [0, 1] : " + facteur);
+        }
+        appliquerFacteurSoleil(facteur);
+        VersionModele.incrementer(version);
+        BusEvenements.signaler(BusEvenements.Evenement.SOURCES);
+    }
+
+    // Sans validation ni signal : utilisé par SourceEnergie.appliquerMeteo
+    void appliquerFacteurSoleil(double facteur) {
+        this.facteurSoleil = facteur;
+    }
+
+    /**
+     * Rattache la source au compteur de version de son modèle.
+     */
+    @Override
+    public void rattacherVersion(VersionModele version) {
+        this.version = version;
+    }
+
+    public double getFacteurSoleil() {
+        return facteurSoleil;
+    }
+
+    /**
+     * Production en plein soleil (facteur 1), indépendante de la météo courante.
+     */
+    public double getProductionCrete() {
+        return surface * rendement * puissanceNominale;
+    }
+}
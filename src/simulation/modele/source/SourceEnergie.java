@@ -1,13 +1,15 @@
 package simulation.modele.source;
 
-
+import java.util.List;
+import simulation.modele.simulation.VersionModele;
 
 /**
  * Interface sealed pour sources d'énergie (héritage restreint).
- * Permits inclut Batterie pour polymorphisme.
+ * Permits inclut Batterie pour polymorphisme, et les flottes
+ * (FlotteSolaire, FlotteEolienne, FlotteBatteries) pour les grands parcs.
  */
 
-public sealed interface SourceEnergie permits PanneauSolaire, Eolienne, Batterie { 
+public sealed interface SourceEnergie permits PanneauSolaire, Eolienne, Batterie, FlotteSolaire, FlotteEolienne, FlotteBatteries { 
     /**
      * Production actuelle.
      * @return Production.
@@ -27,4 +29,36 @@ public sealed interface SourceEnergie permits PanneauSolaire, Eolienne, Batterie
     default double produireEnergie() {
         return getProduction();
     }
+
+    /**
+     * Rattache la source au compteur de version du modèle qui la contient
+     * (appelé par GestionEnergie.ajouterSource). Sans effet pour les sources
+     * dont les mutations ne changent pas les totaux mis en cache.
+     * @param version Version du modèle
+     */
+    default void rattacherVersion(VersionModele version) {
+    }
+
+    /**
+     * Applique la météo d'une unité de temps aux sources qui en dépendent, sans
+     * version ni événement par source : l'appelant signale une seule modification
+     * pour tout le pas. Les valeurs doivent déjà être bornées.
+     * @param sources Les sources
+     * @param irradiance Ensoleillement dans [0, 1]
+     * @param vent Vitesse du vent (≥ 0)
+     */
+    static void appliquerMeteo(List<SourceEnergie> sources, double irradiance, double vent) {
+        for (int i = 0, n = sources.size(); i < n; i++) {
+            SourceEnergie s = sources.get(i);
+            if (s instanceof PanneauSolaire p) {
+                p.appliquerFacteurSoleil(irradiance);
+            } else if (s instanceof Eolienne e) {
+                e.appliquerVitesseVent(vent);
+            } else if (s instanceof FlotteSolaire f) {
+                f.appliquerFacteurSoleil(irradiance);
+            } else if (s instanceof FlotteEolienne f) {
+                f.appliquerVitesseVent(vent);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -4,8 +4,12 @@ import simulation.modele.simulation.EnergieException;
 
 /**
  * Interface sealed pour stockage (héritage restreint).
+ *
+ * charger/decharger valident et lèvent une exception ; chargerJusqua/dechargerJusqua
+ * ne lèvent jamais : elles prennent ce qui est possible et renvoient la quantité
+ * effective (à utiliser dans les boucles de répartition par unité de temps).
  */
-public sealed interface StockageEnergie permits Batterie {
+public sealed interface StockageEnergie permits Batterie, FlotteBatteries {
     /**
      * Charge énergie.
     
@@ -18,10 +22,62 @@ public sealed interface StockageEnergie permits Batterie {
      */
     void decharger(double qte) throws EnergieException;
 
+    /**
+     * Charge au plus qte, dans la limite de la capacité (sans exception).
+     * @param qte Énergie proposée (négative ou NaN : rien n'est chargé)
+     * @return Énergie effectivement prélevée, avant pertes
+     */
+    double chargerJusqua(double qte);
+
+    /**
+     * Décharge au plus qte, dans la limite du niveau (sans exception).
+     * @param qte Énergie demandée (négative ou NaN : rien n'est déchargé)
+     * @return Énergie effectivement fournie
+     */
+    double dechargerJusqua(double qte);
+
+    /**
+     * Applique une suite de demandes de charge, dans l'ordre.
+     * @param demandes Énergies proposées
+     * @param absorbes Reçoit l'énergie prélevée pour chaque demande (même longueur au moins)
+     * @return Total prélevé
+     */
+    default double chargerJusqua(double[] demandes, double[] absorbes) {
+        verifierLot(demandes, absorbes);
+        double total = 0.0;
+        for (int i = 0; i < demandes.length; i++) {
+            absorbes[i] = chargerJusqua(demandes[i]);
+            total += absorbes[i];
+        }
+        return total;
+    }
+
+    /**
+     * Applique une suite de demandes de décharge, dans l'ordre.
+     * @param demandes Énergies demandées
+     * @param fournis Reçoit l'énergie fournie pour chaque demande (même longueur au moins)
+     * @return Total fourni
+     */
+    default double dechargerJusqua(double[] demandes, double[] fournis) {
+        verifierLot(demandes, fournis);
+        double total = 0.0;
+        for (int i = 0; i < demandes.length; i++) {
+            fournis[i] = dechargerJusqua(demandes[i]);
+            total += fournis[i];
+        }
+        return total;
+    }
+
     /**
      * Niveau actuel.
      
      */
     double getCapacite();  // Pour colCapacite dans VueGestionSource
     double getNiveau();
-}
\ No newline at end of file
+
+    private static void verifierLot(double[] demandes, double[] resultats) {
+        if (demandes == null || resultats == null || resultats.length < demandes.length) {
+            throw new IllegalArgumentException("Tableaux de demandes et de résultats incompatibles");
+        }
+    }
+}
@@ -2,9 +2,8 @@ package vue;
 
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -17,12 +16,17 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import Controleur.*;
+import simulation.modele.simulation.BusEvenements;
+import simulation.modele.simulation.BusEvenements.Evenement;
 import simulation.modele.simulation.GestionEnergie;
-import simulation.modele.simulation.Consommateur;
-import simulation.modele.source.SourceEnergie;
+import simulation.modele.simulation.IndexRecherche;
+import simulation.modele.simulation.IndexeurModele;
+import java.util.List;
+import java.util.Set;
 
 /**
- * ApplicationPrincipaleModern.java - VERSION SANS ALERTES
+ * ApplicationPrincipaleModern.java - VERSION SANS FENÊTRE D'ALERTES
+ * (les alertes sont générées à chaque pas de simulation et indexées pour la recherche)
  */
 public class ApplicationPrincipaleModern extends Application {
 
@@ -32,6 +36,7 @@ public class ApplicationPrincipaleModern extends Application {
     private ControleurSimulation controleurSimulation;
     private ControleurHistorique controleurHistorique;
     private ControleurOptimisation controleurOptimisation;
+    private ControleurAlertes controleurAlertes;
 
     private VueGestionSource vueSource;
     private VueGestionConsommateur vueConsommateur;
@@ -44,9 +49,14 @@ public class ApplicationPrincipaleModern extends Application {
     private ToggleGroup navGroup;
 
     private TextField txtRechercheGlobale;
+    private IndexeurModele indexeur;
+    private static final int MAX_RESULTATS_RECHERCHE = 50;
     private Label lblStatut;
     private Label lblInfoStats;
 
+    // Valeurs des tuiles du tableau de bord (mises à jour sur événement)
+    private Label valSources, valConsos, valSims, valProd, valConso;
+
     @Override
     public void start(Stage primaryStage) {
         initialiserModeleEtControleurs();
@@ -88,6 +98,9 @@ public class ApplicationPrincipaleModern extends Application {
         controleurSimulation = new ControleurSimulation(gestionEnergie);
         controleurHistorique = new ControleurHistorique(controleurSimulation.getHistorique());
         controleurOptimisation = new ControleurOptimisation(gestionEnergie);
+        controleurAlertes = new ControleurAlertes(gestionEnergie);
+        indexeur = new IndexeurModele(gestionEnergie, controleurSimulation.getHistorique());
+        indexeur.suivreAlertes(controleurAlertes.getRegistre());
 
         vueSource = new VueGestionSource(controleurSource);
         vueConsommateur = new VueGestionConsommateur(controleurConsommateur);
@@ -100,15 +113,50 @@ public class ApplicationPrincipaleModern extends Application {
     }
     
     /**
-     * Ajoute des listeners pour mettre à jour automatiquement les statistiques
+     * Abonne le tableau de bord aux changements du modèle.
+     * Les événements sont regroupés et livrés au plus une fois par pulse ;
+     * sans changement, rien n'est recalculé.
      */
     private void ajouterListenersMAJ() {
-        // Timer pour mise à jour automatique toutes les 2 secondes
-        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
-            new javafx.animation.KeyFrame(javafx.util.Duration.seconds(2), e -> mettreAJourStatistiques())
-        );
-        timeline.setCycleCount(javafx.animation.Timeline.INDEFINITE);
-        timeline.play();
+        BusEvenements bus = BusEvenements.global();
+        bus.definirExecuteur(new ExecuteurPulse());
+        bus.abonner(this::surChangementsModele);
+        // Index de recherche tenu à jour incrémentalement (aucun parcours à la frappe)
+        bus.abonner(indexeur);
+    }
+
+    /**
+     * Recalcule uniquement les tuiles touchées par les événements reçus.
+     */
+    private void surChangementsModele(Set<Evenement> evenements) {
+        boolean sources = evenements.contains(Evenement.SOURCES);
+        boolean consos = evenements.contains(Evenement.CONSOMMATEURS);
+        boolean simulation = evenements.contains(Evenement.SIMULATION);
+        boolean historique = evenements.contains(Evenement.HISTORIQUE);
+
+        // Règles d'alerte évaluées une fois par pulse ; les nouvelles alertes
+        // publient ALERTES et sont indexées au pulse suivant
+        if (sources || consos || simulation) {
+            controleurAlertes.verifierEtGenererAlertes();
+        }
+        if (sources || consos || historique) {
+            mettreAJourStatistiques();
+        }
+        if (valSources != null) {
+            if (sources) valSources.setText(String.valueOf(controleurSource.obtenirSources().size()));
+            if (consos) valConsos.setText(String.valueOf(controleurConsommateur.obtenirConsommateurs().size()));
+            if (historique) valSims.setText(String.valueOf(controleurHistorique.compterSimulations()));
+            if (sources || simulation) {
+                valProd.setText(String.format("%.2f kWh", controleurSource.calculerProductionTotale()));
+            }
+            if (consos || simulation) {
+                valConso.setText(String.format("%.2f kWh", controleurConsommateur.calculerConsommationTotale()));
+            }
+        }
+        // Historique affiché : seuls les nouveaux records sont transmis à la table
+        if (historique && vueHistorique.getScene() != null) {
+            vueHistorique.recharger();
+        }
     }
 
     private VBox creerBarreLaterale() {
@@ -224,7 +272,7 @@ public class ApplicationPrincipaleModern extends Application {
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
         txtRechercheGlobale = new TextField();
-        txtRechercheGlobale.setPromptText("Recherche rapide (sources, consommateurs, simulations)...");
+        txtRechercheGlobale.setPromptText("Recherche (ex. batterie niveau<20, frigo, historique bilan<0)...");
         txtRechercheGlobale.setPrefWidth(380);
         txtRechercheGlobale.setOnAction(e -> effectuerRechercheGlobale(txtRechercheGlobale.getText()));
 
@@ -253,40 +301,42 @@ public class ApplicationPrincipaleModern extends Application {
             return;
         }
 
-        String terme = requete.toLowerCase().trim();
+        long debut = System.nanoTime();
+        List<IndexRecherche.Resultat> trouves = indexeur.getIndex().rechercher(requete, MAX_RESULTATS_RECHERCHE);
+        double dureeMs = (System.nanoTime() - debut) / 1e6;
+
         StringBuilder resultats = new StringBuilder();
         resultats.append("╔═══════════════════════════════════════╗\n");
         resultats.append("    RÉSULTATS DE RECHERCHE\n");
         resultats.append("╚═══════════════════════════════════════╝\n\n");
-        resultats.append("Terme recherché : \"").append(requete).append("\"\n\n");
+        resultats.append("Terme recherché : \"").append(requete).append("\"\n");
+        resultats.append("Filtres numériques : champ:min..max, champ>x, champ<=x (ex. capacite>5)\n\n");
 
-        int compteur = 0;
-
-        resultats.append("📌 SOURCES D'ÉNERGIE:\n");
-        for (SourceEnergie source : controleurSource.obtenirSources()) {
-            String nomType = source.getClass().getSimpleName().toLowerCase();
-            if (nomType.contains(terme)) {
-                resultats.append(String.format("  • %s - Production: %.2f kWh\n", 
-                    source.getClass().getSimpleName(), source.getProduction()));
-                compteur++;
-            }
+        // Résultats classés par pertinence, avec leur catégorie
+        for (IndexRecherche.Resultat r : trouves) {
+            resultats.append(String.format("  %s %-13s %s\n", iconeCategorie(r.categorie()), r.categorie(), r.libelle()));
         }
-
-        resultats.append("\n📌 CONSOMMATEURS:\n");
-        for (Consommateur conso : controleurConsommateur.obtenirConsommateurs()) {
-            if (conso.getNom().toLowerCase().contains(terme)) {
-                resultats.append(String.format("  • %s - Consommation: %.2f kWh\n", 
-                    conso.getNom(), conso.getConsommation()));
-                compteur++;
-            }
+        if (trouves.isEmpty()) {
+            resultats.append("  Aucun résultat\n");
         }
 
         resultats.append("\n╔═══════════════════════════════════════╗\n");
-        resultats.append(String.format("Total : %d résultat(s) trouvé(s)\n", compteur));
+        resultats.append(String.format("Total : %d résultat(s) trouvé(s) sur %d élément(s) indexé(s) en %.2f ms\n",
+            trouves.size(), indexeur.getIndex().taille(), dureeMs));
         resultats.append("╚═══════════════════════════════════════╝\n");
 
         afficherResultatsRecherche(resultats.toString());
-        afficherNotification("✓ Recherche effectuée : " + compteur + " résultat(s)");
+        afficherNotification("✓ Recherche effectuée : " + trouves.size() + " résultat(s)");
+    }
+
+    private String iconeCategorie(IndexRecherche.Categorie categorie) {
+        switch (categorie) {
+            case SOURCE: return "⚡";
+            case CONSOMMATEUR: return "🏠";
+            case APPAREIL: return "🔌";
+            case ALERTE: return "⚠️";
+            default: return "📊";
+        }
     }
 
     private void rechercherDansBarre(String requete) {
@@ -353,15 +403,21 @@ public class ApplicationPrincipaleModern extends Application {
 
         int nbSources = controleurSource.obtenirSources().size();
         int nbConsos = controleurConsommateur.obtenirConsommateurs().size();
-        int nbSims = controleurHistorique.compterSimulations();
+        long nbSims = controleurHistorique.compterSimulations();
         double prodTotale = controleurSource.calculerProductionTotale();
         double consoTotale = controleurConsommateur.calculerConsommationTotale();
 
-        Label lblSources = creerLabelStat("Sources", String.valueOf(nbSources), "⚡");
-        Label lblConsos = creerLabelStat("Consommateurs", String.valueOf(nbConsos), "🏢");
-        Label lblSims = creerLabelStat("Simulations", String.valueOf(nbSims), "📊");
-        Label lblProd = creerLabelStat("Production", String.format("%.2f kWh", prodTotale), "🔋");
-        Label lblConso = creerLabelStat("Consommation", String.format("%.2f kWh", consoTotale), "⚡");
+        valSources = creerValeurStat(String.valueOf(nbSources));
+        valConsos = creerValeurStat(String.valueOf(nbConsos));
+        valSims = creerValeurStat(String.valueOf(nbSims));
+        valProd = creerValeurStat(String.format("%.2f kWh", prodTotale));
+        valConso = creerValeurStat(String.format("%.2f kWh", consoTotale));
+
+        Label lblSources = creerLabelStat("Sources", valSources, "⚡");
+        Label lblConsos = creerLabelStat("Consommateurs", valConsos, "🏢");
+        Label lblSims = creerLabelStat("Simulations", valSims, "📊");
+        Label lblProd = creerLabelStat("Production", valProd, "🔋");
+        Label lblConso = creerLabelStat("Consommation", valConso, "⚡");
 
         stats.add(lblSources, 0, 0);
         stats.add(lblConsos, 1, 0);
@@ -401,16 +457,20 @@ public class ApplicationPrincipaleModern extends Application {
         return rootDash;
     }
 
-    private Label creerLabelStat(String titre, String valeur, String icone) {
+    private Label creerValeurStat(String valeur) {
+        Label val = new Label(valeur);
+        val.setTextFill(Color.WHITE);
+        val.setFont(Font.font(18));
+        val.setStyle("-fx-font-weight: bold;");
+        return val;
+    }
+
+    private Label creerLabelStat(String titre, Label val, String icone) {
         VBox box = new VBox(5);
         box.setAlignment(Pos.CENTER);
         Label lbl = new Label(icone + " " + titre);
         lbl.setTextFill(Color.web("#bcd3e6"));
         lbl.setFont(Font.font(12));
-        Label val = new Label(valeur);
-        val.setTextFill(Color.WHITE);
-        val.setFont(Font.font(18));
-        val.setStyle("-fx-font-weight: bold;");
         box.getChildren().addAll(lbl, val);
         return new Label() {{ setGraphic(box); }};
     }
@@ -486,7 +546,7 @@ public class ApplicationPrincipaleModern extends Application {
     private void mettreAJourStatistiques() {
         int nbSources = controleurSource.obtenirSources().size();
         int nbConsos = controleurConsommateur.obtenirConsommateurs().size();
-        int nbSims = controleurHistorique.compterSimulations();
+        long nbSims = controleurHistorique.compterSimulations();
         
         if (lblInfoStats != null) {
             lblInfoStats.setText(String.format("Sources: %d  •  Consommateurs: %d  •  Simulations: %d", 
@@ -538,7 +598,7 @@ public class ApplicationPrincipaleModern extends Application {
         guide.setHeaderText("Raccourcis & fonctionnalités");
         guide.setContentText(
             "• Barre latérale : Navigation entre les vues\n" +
-            "• Recherche globale : Trouve sources/consommateurs\n" +
+            "• Recherche globale : Sources, consommateurs, appareils, historique (ex. solaire capacite>5)\n" +
             "• Bouton Actualiser : Rafraîchit la vue active\n" +
             "• ESC : Quitter l'application\n" +
             "• Toutes les suppressions sont fonctionnelles"
@@ -557,10 +617,21 @@ public class ApplicationPrincipaleModern extends Application {
         confirmation.setHeaderText("Êtes-vous sûr?");
         confirmation.setContentText("Voulez-vous quitter l'application?");
         confirmation.showAndWait().ifPresent(r -> {
-            if (r == ButtonType.OK) System.exit(0);
+            if (r == ButtonType.OK) Platform.exit(); // passe par stop()
         });
     }
 
+    /**
+     * Arrêt de l'application : threads des contrôleurs (simulation, alertes) arrêtés, historique fermé.
+     */
+    @Override
+    public void stop() {
+        // La vue intégrée n'est jamais affichée comme fenêtre : sa boucle est fermée ici
+        if (vueSimulation != null) vueSimulation.fermer();
+        if (controleurSimulation != null) controleurSimulation.close();
+        if (controleurAlertes != null) controleurAlertes.close();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,42 @@
+package vue;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * Executor qui exécute ses tâches au prochain pulse JavaFX.
+ *
+ * Le minuteur n'est actif que lorsqu'une tâche attend : au repos,
+ * aucun pulse n'est demandé. Utilisé par le bus d'événements pour qu'un
+ * tableau de bord ne se recalcule qu'une fois par image.
+ */
+public final class ExecuteurPulse implements Executor {
+
+    private final ArrayDeque<Runnable> taches = new ArrayDeque<>(); // thread JavaFX uniquement
+    private final AnimationTimer minuteur = new AnimationTimer() {
+        @Override
+        public void handle(long maintenant) {
+            stop();
+            Runnable tache;
+            while ((tache = taches.pollFirst()) != null) {
+                tache.run();
+            }
+        }
+    };
+
+    @Override
+    public void execute(Runnable tache) {
+        if (Platform.isFxApplicationThread()) {
+            planifier(tache);
+        } else {
+            Platform.runLater(() -> planifier(tache));
+        }
+    }
+
+    private void planifier(Runnable tache) {
+        taches.addLast(tache);
+        minuteur.start();
+    }
+}
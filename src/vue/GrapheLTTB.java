@@ -0,0 +1,176 @@
+package vue;
+
+import javafx.collections.ObservableList;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptateur entre des séries complètes (SerieEchantillonnee) et un LineChart.
+ *
+ * Le graphique n'affiche jamais plus de points que sa largeur en pixels :
+ * la fenêtre visible est sous-échantillonnée (LTTB) à chaque rafraîchissement,
+ * et les XYChart.Data existants sont réutilisés. Molette : zoom autour du
+ * curseur ; glisser : déplacement ; double-clic : retour au suivi du temps réel.
+ */
+public final class GrapheLTTB {
+
+    private static final double FACTEUR_ZOOM = 1.25;
+    private static final double LARGEUR_MIN = 5.0;
+
+    private final LineChart<Number, Number> graphique;
+    private final NumberAxis axeX;
+    private final List<SerieEchantillonnee> series = new ArrayList<>();
+    private final List<XYChart.Series<Number, Number>> seriesGraphique = new ArrayList<>();
+    private double[] tamponX = new double[0];
+    private double[] tamponY = new double[0];
+
+    private double largeurFenetre;
+    private double finFenetre;
+    private boolean suivre = true;
+    private boolean modifie = true;
+    private double sourisPrecedente;
+
+    /**
+     * Constructeur.
+     * @param graphique Le graphique (axe X numérique)
+     * @param largeurFenetre Étendue initiale de la fenêtre visible (unités de l'axe X)
+     */
+    public GrapheLTTB(LineChart<Number, Number> graphique, double largeurFenetre) {
+        if (graphique == null || !(graphique.getXAxis() instanceof NumberAxis axe)) {
+            throw new IllegalArgumentException("Un LineChart à axe X numérique est requis");
+        }
+        if (!(largeurFenetre > 0)) {
+            throw new IllegalArgumentException("La largeur de fenêtre doit être positive");
+        }
+        this.graphique = graphique;
+        this.axeX = axe;
+        this.largeurFenetre = largeurFenetre;
+        axeX.setAutoRanging(false);
+        graphique.setAnimated(false);
+        graphique.widthProperty().addListener(o -> modifie = true);
+        configurerNavigation();
+    }
+
+    /**
+     * Crée une série et l'ajoute au graphique.
+     * @param nom Nom affiché dans la légende
+     * @param capacite Nombre de points conservés
+     * @return La série, à alimenter par ajouter(x, y)
+     */
+    public SerieEchantillonnee ajouterSerie(String nom, int capacite) {
+        SerieEchantillonnee serie = new SerieEchantillonnee(capacite);
+        XYChart.Series<Number, Number> serieGraphique = new XYChart.Series<>();
+        serieGraphique.setName(nom);
+        series.add(serie);
+        seriesGraphique.add(serieGraphique);
+        graphique.getData().add(serieGraphique);
+        return serie;
+    }
+
+    /**
+     * Signale que des points ont été ajoutés aux séries.
+     */
+    public void marquerModifie() {
+        modifie = true;
+    }
+
+    /**
+     * Vide toutes les séries et revient au suivi du temps réel.
+     */
+    public void vider() {
+        series.forEach(SerieEchantillonnee::vider);
+        suivre = true;
+        modifie = true;
+    }
+
+    /**
+     * Recalcule les points affichés si la fenêtre ou les données ont changé.
+     * À appeler au plus une fois par pulse.
+     */
+    public void rafraichir() {
+        if (!modifie) return;
+        modifie = false;
+
+        double xMax = 0.0;
+        for (SerieEchantillonnee serie : series) {
+            xMax = Math.max(xMax, serie.xMax());
+        }
+        if (suivre) {
+            finFenetre = Math.max(xMax, largeurFenetre);
+        }
+        double debutFenetre = finFenetre - largeurFenetre;
+        axeX.setLowerBound(debutFenetre);
+        axeX.setUpperBound(finFenetre);
+        axeX.setTickUnit(largeurFenetre / 10);
+
+        double largeurPixels = axeX.getWidth() > 0 ? axeX.getWidth() : graphique.getPrefWidth();
+        int seuil = Math.max(3, (int) largeurPixels);
+        if (tamponX.length < seuil) {
+            tamponX = new double[seuil];
+            tamponY = new double[seuil];
+        }
+
+        for (int s = 0; s < series.size(); s++) {
+            int n = series.get(s).echantillonner(debutFenetre, finFenetre, seuil, tamponX, tamponY);
+            ObservableList<XYChart.Data<Number, Number>> donnees = seriesGraphique.get(s).getData();
+            // Réutilisation des points existants ; ajout ou retrait groupé en fin de liste
+            if (donnees.size() > n) {
+                donnees.remove(n, donnees.size());
+            }
+            int existants = donnees.size();
+            for (int k = 0; k < existants; k++) {
+                XYChart.Data<Number, Number> point = donnees.get(k);
+                point.setXValue(tamponX[k]);
+                point.setYValue(tamponY[k]);
+            }
+            if (n > existants) {
+                List<XYChart.Data<Number, Number>> ajouts = new ArrayList<>(n - existants);
+                for (int k = existants; k < n; k++) {
+                    ajouts.add(new XYChart.Data<>(tamponX[k], tamponY[k]));
+                }
+                donnees.addAll(ajouts);
+            }
+        }
+    }
+
+    public boolean estEnSuivi() {
+        return suivre;
+    }
+
+    private void configurerNavigation() {
+        graphique.setOnScroll(e -> {
+            if (e.getDeltaY() == 0) return;
+            double xSouris = valeurSouris(e.getSceneX(), e.getSceneY());
+            double facteur = e.getDeltaY() > 0 ? 1 / FACTEUR_ZOOM : FACTEUR_ZOOM;
+            double nouvelleLargeur = Math.max(LARGEUR_MIN, largeurFenetre * facteur);
+            // Le point sous le curseur reste à la même position relative
+            double relatif = (finFenetre - xSouris) / largeurFenetre;
+            finFenetre = xSouris + relatif * nouvelleLargeur;
+            largeurFenetre = nouvelleLargeur;
+            suivre = false;
+            modifie = true;
+        });
+        graphique.setOnMousePressed(e -> sourisPrecedente = e.getX());
+        graphique.setOnMouseDragged(e -> {
+            double largeurPixels = Math.max(1.0, axeX.getWidth());
+            finFenetre -= (e.getX() - sourisPrecedente) * largeurFenetre / largeurPixels;
+            sourisPrecedente = e.getX();
+            suivre = false;
+            modifie = true;
+        });
+        graphique.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                suivre = true;
+                modifie = true;
+            }
+        });
+    }
+
+    private double valeurSouris(double sceneX, double sceneY) {
+        double local = axeX.sceneToLocal(sceneX, sceneY).getX();
+        return axeX.getValueForDisplay(local).doubleValue();
+    }
+}
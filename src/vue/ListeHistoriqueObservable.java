@@ -0,0 +1,96 @@
+package vue;
+
+import javafx.collections.ObservableListBase;
+import simulation.modele.simulation.Historique;
+import simulation.modele.simulation.RecordSimulation;
+import simulation.modele.simulation.SerieTemporelle;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Liste observable en lecture seule adossée aux instantanés de l'Historique.
+ *
+ * synchroniser() compare le nouvel instantané au précédent par numéro absolu
+ * de record : seuls les records retirés en tête (rétention) et ajoutés en fin
+ * sont signalés, en un seul changement groupé. Aucune copie de l'historique ;
+ * les RecordSimulation ne sont créés que pour les lignes affichées, par pages
+ * conservées dans un petit cache.
+ */
+public final class ListeHistoriqueObservable extends ObservableListBase<RecordSimulation> {
+
+    private static final int BITS_PAGE = 8; // 256 records par page
+    private static final int TAILLE_PAGE = 1 << BITS_PAGE;
+    private static final int PAGES_EN_CACHE = 32;
+
+    private SerieTemporelle.Vue serie;
+    private long premier;
+    private long generation = -1;
+
+    // Pages de records déjà créés, par numéro absolu de page (LRU)
+    private final Map<Long, RecordSimulation[]> pages = new LinkedHashMap<>(PAGES_EN_CACHE * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, RecordSimulation[]> eldest) {
+            return size() > PAGES_EN_CACHE;
+        }
+    };
+
+    /**
+     * Aligne la liste sur un instantané de l'historique (thread JavaFX).
+     * @param instantane Instantané obtenu de l'historique
+     */
+    public void synchroniser(Historique.Instantane instantane) {
+        SerieTemporelle.Vue ancienne = serie;
+        long anciennePremier = premier;
+        int ancienneTaille = ancienne == null ? 0 : ancienne.size();
+
+        SerieTemporelle.Vue nouvelle = instantane.serie();
+        long nouveauPremier = instantane.premier();
+        int nouvelleTaille = nouvelle.size();
+
+        boolean remplacement = instantane.generation() != generation;
+        if (!remplacement && nouveauPremier == anciennePremier && nouvelleTaille == ancienneTaille) {
+            return; // rien de nouveau
+        }
+
+        serie = nouvelle;
+        premier = nouveauPremier;
+        if (remplacement) {
+            generation = instantane.generation();
+            pages.clear();
+        }
+
+        beginChange();
+        if (remplacement) {
+            if (ancienneTaille > 0) nextRemove(0, ancienne);
+            if (nouvelleTaille > 0) nextAdd(0, nouvelleTaille);
+        } else {
+            // Records retirés en tête par la rétention, puis ajouts en fin
+            int retires = (int) Math.min(ancienneTaille, nouveauPremier - anciennePremier);
+            if (retires > 0) nextRemove(0, ancienne.subList(0, retires));
+            int conserves = ancienneTaille - retires;
+            if (nouvelleTaille > conserves) nextAdd(conserves, nouvelleTaille);
+        }
+        endChange();
+    }
+
+    @Override
+    public RecordSimulation get(int index) {
+        if (serie == null || index < 0 || index >= serie.size()) {
+            throw new IndexOutOfBoundsException("Index : " + index + ", taille : " + size());
+        }
+        long absolu = premier + index;
+        RecordSimulation[] page = pages.computeIfAbsent(absolu >>> BITS_PAGE, p -> new RecordSimulation[TAILLE_PAGE]);
+        int pos = (int) (absolu & (TAILLE_PAGE - 1));
+        RecordSimulation record = page[pos];
+        if (record == null) {
+            record = serie.get(index);
+            page[pos] = record;
+        }
+        return record;
+    }
+
+    @Override
+    public int size() {
+        return serie == null ? 0 : serie.size();
+    }
+}
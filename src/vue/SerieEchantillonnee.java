@@ -0,0 +1,177 @@
+package vue;
+
+/**
+ * Série (x, y) complète conservée dans un tampon circulaire primitif,
+ * restituée sous-échantillonnée par l'algorithme Largest-Triangle-Three-Buckets.
+ *
+ * Les x doivent être croissants (temps) : la fenêtre visible est trouvée par
+ * recherche dichotomique. Quand le tampon est plein, les points les plus
+ * anciens sont écrasés. Classe non synchronisée : utilisée sur le thread JavaFX.
+ */
+public final class SerieEchantillonnee {
+
+    private final int capacite;
+    private final int masque;
+    private final double[] xs;
+    private final double[] ys;
+    private long ecrits;
+
+    /**
+     * Constructeur.
+     * @param capacite Nombre de points conservés (arrondi à la puissance de 2 supérieure)
+     */
+    public SerieEchantillonnee(int capacite) {
+        if (capacite < 4 || capacite > (1 << 28)) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacite);
+        }
+        int puissance = Integer.highestOneBit(capacite);
+        this.capacite = puissance == capacite ? capacite : puissance << 1;
+        this.masque = this.capacite - 1;
+        this.xs = new double[this.capacite];
+        this.ys = new double[this.capacite];
+    }
+
+    /**
+     * Ajoute un point en fin de série.
+     * @param x Abscisse (croissante)
+     * @param y Ordonnée
+     */
+    public void ajouter(double x, double y) {
+        int i = (int) ecrits & masque;
+        xs[i] = x;
+        ys[i] = y;
+        ecrits++;
+    }
+
+    public void vider() {
+        ecrits = 0;
+    }
+
+    public int taille() {
+        return (int) Math.min(ecrits, capacite);
+    }
+
+    /** Abscisse du k-ième point conservé (0 = le plus ancien). */
+    public double x(int k) {
+        return xs[physique(k)];
+    }
+
+    /** Ordonnée du k-ième point conservé (0 = le plus ancien). */
+    public double y(int k) {
+        return ys[physique(k)];
+    }
+
+    public double xMin() {
+        return taille() == 0 ? 0.0 : x(0);
+    }
+
+    public double xMax() {
+        return taille() == 0 ? 0.0 : x(taille() - 1);
+    }
+
+    /**
+     * Sous-échantillonne les points d'abscisse comprise dans [xDebut, xFin].
+     * Les voisins immédiats de la fenêtre sont inclus pour que la courbe
+     * touche les bords du graphique.
+     * @param xDebut Borne gauche de la fenêtre
+     * @param xFin Borne droite de la fenêtre
+     * @param seuil Nombre de points voulu (ex. largeur en pixels), au moins 3
+     * @param sortieX Abscisses retenues (longueur >= seuil)
+     * @param sortieY Ordonnées retenues (longueur >= seuil)
+     * @return Nombre de points écrits
+     */
+    public int echantillonner(double xDebut, double xFin, int seuil, double[] sortieX, double[] sortieY) {
+        int n = taille();
+        if (n == 0 || xFin < xDebut) return 0;
+        int debut = Math.max(0, premierSuperieurOuEgal(xDebut) - 1);
+        int fin = Math.min(n, premierSuperieur(xFin) + 1);
+        return lttb(debut, fin, Math.max(3, seuil), sortieX, sortieY);
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets sur [debut, fin) : premier et dernier points
+     * conservés, puis dans chaque seau le point formant le plus grand triangle
+     * avec le point retenu précédemment et la moyenne du seau suivant.
+     */
+    private int lttb(int debut, int fin, int seuil, double[] sortieX, double[] sortieY) {
+        int n = fin - debut;
+        if (n <= seuil) {
+            for (int k = 0; k < n; k++) {
+                sortieX[k] = x(debut + k);
+                sortieY[k] = y(debut + k);
+            }
+            return n;
+        }
+
+        double pas = (double) (n - 2) / (seuil - 2);
+        int a = debut;
+        int ecrit = 0;
+        sortieX[ecrit] = x(a);
+        sortieY[ecrit++] = y(a);
+
+        for (int i = 0; i < seuil - 2; i++) {
+            // Moyenne du seau suivant (le dernier point sert de seau final)
+            int moyDebut = debut + (int) ((i + 1) * pas) + 1;
+            int moyFin = Math.min(debut + (int) ((i + 2) * pas) + 1, fin);
+            double moyX = 0.0, moyY = 0.0;
+            for (int k = moyDebut; k < moyFin; k++) {
+                moyX += x(k);
+                moyY += y(k);
+            }
+            int nbMoy = moyFin - moyDebut;
+            if (nbMoy > 0) {
+                moyX /= nbMoy;
+                moyY /= nbMoy;
+            } else {
+                moyX = x(fin - 1);
+                moyY = y(fin - 1);
+            }
+
+            // Point du seau courant maximisant l'aire du triangle
+            int seauDebut = debut + (int) (i * pas) + 1;
+            int seauFin = debut + (int) ((i + 1) * pas) + 1;
+            double ax = x(a), ay = y(a);
+            double aireMax = -1.0;
+            int choisi = seauDebut;
+            for (int k = seauDebut; k < seauFin; k++) {
+                double aire = Math.abs((ax - moyX) * (y(k) - ay) - (ax - x(k)) * (moyY - ay));
+                if (aire > aireMax) {
+                    aireMax = aire;
+                    choisi = k;
+                }
+            }
+            sortieX[ecrit] = x(choisi);
+            sortieY[ecrit++] = y(choisi);
+            a = choisi;
+        }
+
+        sortieX[ecrit] = x(fin - 1);
+        sortieY[ecrit++] = y(fin - 1);
+        return ecrit;
+    }
+
+    private int physique(int k) {
+        long premier = ecrits - taille();
+        return (int) (premier + k) & masque;
+    }
+
+    /** Premier index dont x >= valeur (taille() si aucun). */
+    private int premierSuperieurOuEgal(double valeur) {
+        int bas = 0, haut = taille();
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (x(milieu) < valeur) bas = milieu + 1; else haut = milieu;
+        }
+        return bas;
+    }
+
+    /** Premier index dont x > valeur (taille() si aucun). */
+    private int premierSuperieur(double valeur) {
+        int bas = 0, haut = taille();
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (x(milieu) <= valeur) bas = milieu + 1; else haut = milieu;
+        }
+        return bas;
+    }
+}
@@ -1,5 +1,6 @@
 package vue;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -29,13 +30,15 @@ public class VueAlertes extends Stage {
     
     /**
      * Constructeur de la vue.
-     * @param controleur Le contrôleur associé
+     * @param controleur Le contrôleur associé (fermé quand la fenêtre est fermée)
      */
     public VueAlertes(ControleurAlertes controleur) {
         this.controleur = controleur;
         initialiserInterface();
         configurerEcouteurs();
         this.setTitle("🔔 Centre de Gestion des Alertes");
+        // La fenêtre possède le contrôleur : son diffuseur s'arrête avec elle
+        this.setOnHidden(e -> controleur.close());
     }
     
     /**
@@ -234,7 +237,12 @@ public class VueAlertes extends Stage {
             }
         });
         
-        tableauAlertes.getColumns().addAll(colDate, colType, colSeverite, colMessage, colStatut);
+        TableColumn<AlerteRecord, String> colOccurrences = new TableColumn<>("Occurrences");
+        colOccurrences.setCellValueFactory(cellData -> 
+            new javafx.beans.property.SimpleStringProperty(String.valueOf(cellData.getValue().getOccurrences())));
+        colOccurrences.setPrefWidth(90);
+        
+        tableauAlertes.getColumns().addAll(colDate, colType, colSeverite, colMessage, colStatut, colOccurrences);
         
         // Événement de sélection avec Lambda
         tableauAlertes.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
@@ -403,13 +411,13 @@ public class VueAlertes extends Stage {
      * Utilise des expressions Lambda.
      */
     private void configurerEcouteurs() {
-        // Écouter les nouvelles alertes du contrôleur
+        // Écouter les nouvelles alertes du contrôleur (livrées par lots sur le thread JavaFX)
         controleur.definirGestionnaireNouvelleAlerte(alerte -> {
             ajouterNotification(alerte);
             if (chkNotificationsSonores.isSelected()) {
                 jouerSonAlerte();
             }
-        });
+        }, Platform::runLater);
     }
     
     /**
@@ -425,15 +433,20 @@ public class VueAlertes extends Stage {
             "═══════════════════════════════════\n\n" +
             "📅 Date/Heure:\n    %s\n\n" +
             "🏷️  Type:\n    %s\n\n" +
+            "🔌 Source:\n    %s\n\n" +
             "⚠️  Sévérité:\n    %s\n\n" +
             "💬 Message:\n    %s\n\n" +
             "📊 Statut:\n    %s\n\n" +
+            "🔁 Occurrences:\n    %d (dernière : %s)\n\n" +
             "═══════════════════════════════════\n",
             alerte.dateHeure(),
             alerte.type(),
+            alerte.source(),
             alerte.severite(),
             alerte.message(),
-            alerte.statut()
+            alerte.statut(),
+            alerte.occurrences(),
+            alerte.getDerniereOccurrence()
         );
         
         txtDetailsAlerte.setText(details);
@@ -4,8 +4,9 @@ import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import Controleur.ControleurHistorique;
+import simulation.modele.simulation.Historique;
 import simulation.modele.simulation.RecordSimulation;
-import java.util.List;
+import simulation.modele.simulation.StatistiquesHistorique;
 
 /**
  * Interface graphique pour visualiser et gérer l'historique des simulations.
@@ -17,6 +18,7 @@ public class VueHistorique extends VBox {
     
     // Composants graphiques
     private TableView<RecordSimulation> tableauHistorique;
+    private final ListeHistoriqueObservable donneesHistorique = new ListeHistoriqueObservable();
     private Label lblNombreSimulations, lblProductionMoyenne, lblConsommationMoyenne;
     private TextArea txtDetailsSelection;
     
@@ -98,7 +100,8 @@ public class VueHistorique extends VBox {
         Label titre = new Label("📜 Historique Complet des Simulations");
         titre.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
-        tableauHistorique = new TableView<>();
+        // Liste incrémentale : seuls les nouveaux records sont signalés à la table
+        tableauHistorique = new TableView<>(donneesHistorique);
         tableauHistorique.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         
         TableColumn<RecordSimulation, Integer> colTemps = new TableColumn<>("Temps");
@@ -127,6 +130,8 @@ public class VueHistorique extends VBox {
         });
         
         tableauHistorique.getColumns().addAll(colTemps, colProduction, colConsommation, colBilan, colEtat);
+        // Ordre chronologique imposé : la liste est une vue en lecture seule de l'historique
+        tableauHistorique.getColumns().forEach(colonne -> colonne.setSortable(false));
         
         tableauHistorique.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null) afficherDetails(newVal);
@@ -243,39 +248,34 @@ public class VueHistorique extends VBox {
      * ✅ MÉTHODE PUBLIQUE pour recharger toutes les données
      */
     public void recharger() {
-        actualiserTableau();
-        actualiserStatistiques();
+        Historique.Instantane instantane = controleur.obtenirInstantane();
+        actualiserTableau(instantane);
+        actualiserStatistiques(instantane.statistiques());
     }
     
     /**
-     * Actualise le tableau avec les données de l'historique.
+     * Actualise le tableau : seuls les records ajoutés ou retirés depuis
+     * le dernier rechargement sont transmis, en un seul changement.
      */
-    private void actualiserTableau() {
-        List<RecordSimulation> historique = controleur.obtenirHistorique();
-        tableauHistorique.getItems().clear();
-        tableauHistorique.getItems().addAll(historique);
+    private void actualiserTableau(Historique.Instantane instantane) {
+        donneesHistorique.synchroniser(instantane);
     }
     
     /**
-     * Actualise les statistiques affichées.
+     * Actualise les statistiques affichées depuis les agrégats incrémentaux.
      */
-    private void actualiserStatistiques() {
-        List<RecordSimulation> historique = controleur.obtenirHistorique();
+    private void actualiserStatistiques(StatistiquesHistorique stats) {
+        lblNombreSimulations.setText(String.valueOf(stats.getNombre()));
         
-        lblNombreSimulations.setText(String.valueOf(historique.size()));
-        
-        if (historique.isEmpty()) {
+        if (stats.getNombre() == 0) {
             lblProductionMoyenne.setText("0.00 kWh");
             lblConsommationMoyenne.setText("0.00 kWh");
             txtDetailsSelection.setText("Aucune simulation sélectionnée");
             return;
         }
         
-        double prodMoy = historique.stream().mapToDouble(RecordSimulation::production).average().orElse(0);
-        double consoMoy = historique.stream().mapToDouble(RecordSimulation::consommation).average().orElse(0);
-        
-        lblProductionMoyenne.setText(String.format("%.2f kWh", prodMoy));
-        lblConsommationMoyenne.setText(String.format("%.2f kWh", consoMoy));
+        lblProductionMoyenne.setText(String.format("%.2f kWh", stats.getProductionMoyenne()));
+        lblConsommationMoyenne.setText(String.format("%.2f kWh", stats.getConsommationMoyenne()));
     }
     
     /**
@@ -1,13 +1,16 @@
 package vue;
 
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
+import javafx.stage.Modality;
 import javafx.stage.Stage;
 import Controleur.ControleurSimulation;
+import simulation.modele.simulation.BoucleSimulation;
 import simulation.modele.simulation.RecordSimulation;
 import java.util.List;
 
@@ -24,20 +27,25 @@ public class VueSimulation extends Stage {
     private PieChart graphiqueRepartition;
     private TextArea txtHistorique;
     private Button btnDemarrer, btnPause, btnReset;
-
-    // Séries pour graphique
-    private XYChart.Series<Number, Number> serieProduction;
-    private XYChart.Series<Number, Number> serieConsommation;
-
-    // Animation
+    private Alert alerteEnergie; // non modale, réutilisée d'une alerte à l'autre
+
+    // Séries complètes, affichées sous-échantillonnées (LTTB)
+    private static final int CAPACITE_SERIES = 1 << 20;
+    private GrapheLTTB grapheEvolution;
+    private SerieEchantillonnee serieProduction;
+    private SerieEchantillonnee serieConsommation;
+
+    // Simulation sur son propre thread ; l'AnimationTimer ne fait qu'afficher
+    private static final int CAPACITE_TAMPON = 1 << 16;
+    private static final double FENETRE_INITIALE = 50.0; // secondes simulées visibles
+    private final BoucleSimulation boucle;
     private AnimationTimer timer;
-    private boolean simulationEnCours = false;
-    private long tempsDebut;
-    private double tempsSimulation; // secondes écoulées
+    private ComboBox<Integer> cmbFrequence;
+    private double tempsSimulation; // secondes simulées (1 pas = 1 s)
 
     // Simulation naturelle
-    private double productionMax = 120.0;
-    private double consommationMax = 100.0;
+    private final double productionMax = 120.0;
+    private final double consommationMax = 100.0;
     private double production;
     private double consommation;
 
@@ -45,10 +53,23 @@ public class VueSimulation extends Stage {
         this.controleur = controleur;
         this.production = productionMax;
         this.consommation = 0.0;
+        this.boucle = new BoucleSimulation(this::calculerPas, controleur::ajouterRecordSimulation, CAPACITE_TAMPON);
         initialiserInterface();
         configurerAnimation();
         configurerGestionnaireAlerte();
         this.setTitle("Simulation Énergétique en Temps Réel");
+        this.setOnHidden(e -> fermer());
+    }
+
+    /**
+     * Arrête l'affichage et ferme la boucle (son thread se termine).
+     * Une vue fermée ne redémarre plus : en créer une nouvelle.
+     */
+    public void fermer() {
+        timer.stop();
+        boucle.close();
+        btnDemarrer.setDisable(true);
+        btnPause.setDisable(true);
     }
 
     // ------------------- Interface -------------------
@@ -127,7 +148,6 @@ public class VueSimulation extends Stage {
     private LineChart<Number, Number> creerGraphiqueEvolution() {
         NumberAxis axeX = new NumberAxis();
         axeX.setLabel("Temps (s)");
-        axeX.setAutoRanging(true);
         axeX.setForceZeroInRange(false);
 
         NumberAxis axeY = new NumberAxis();
@@ -139,13 +159,10 @@ public class VueSimulation extends Stage {
         graphique.setPrefSize(600, 300);
         graphique.setCreateSymbols(false);
 
-        serieProduction = new XYChart.Series<>();
-        serieProduction.setName("Production");
-
-        serieConsommation = new XYChart.Series<>();
-        serieConsommation.setName("Consommation");
-
-        graphique.getData().addAll(serieProduction, serieConsommation);
+        // Molette : zoom ; glisser : déplacement ; double-clic : suivi du temps réel
+        grapheEvolution = new GrapheLTTB(graphique, FENETRE_INITIALE);
+        serieProduction = grapheEvolution.ajouterSerie("Production", CAPACITE_SERIES);
+        serieConsommation = grapheEvolution.ajouterSerie("Consommation", CAPACITE_SERIES);
         return graphique;
     }
 
@@ -199,75 +216,96 @@ public class VueSimulation extends Stage {
         Button btnFermer = new Button("Fermer");
         btnFermer.setOnAction(e -> this.close());
 
-        conteneur.getChildren().addAll(btnDemarrer, btnPause, btnReset, btnConfigurerAlerte, btnFermer);
+        // Pas simulés par seconde (1 pas = 1 s simulée : 1000 Hz = avance rapide x1000)
+        cmbFrequence = new ComboBox<>();
+        cmbFrequence.getItems().addAll(1, 10, 100, 1000, 5000);
+        cmbFrequence.setValue(1);
+        cmbFrequence.setOnAction(e -> boucle.definirFrequence(cmbFrequence.getValue()));
+        Label lblFrequence = new Label("Pas/s :");
+
+        conteneur.getChildren().addAll(btnDemarrer, btnPause, btnReset, btnConfigurerAlerte, lblFrequence, cmbFrequence, btnFermer);
         return conteneur;
     }
 
     // ------------------- Animation -------------------
+    /**
+     * Calcule le pas n (thread de simulation) : aucune écriture dans l'interface.
+     */
+    private RecordSimulation calculerPas(long n) {
+        double t = n;
+        // Production exponentielle décroissante
+        double prod = productionMax * Math.exp(-0.02 * t);
+        // Consommation croissante puis stabilisée
+        double conso = consommationMax * (1 - Math.exp(-0.01 * t));
+        return new RecordSimulation((int) n, conso, prod);
+    }
+
     private void configurerAnimation() {
+        // Une seule lecture du tampon et un seul rendu par pulse, quel que soit le nombre de pas
         timer = new AnimationTimer() {
-            private long dernierTemps = 0;
-
             @Override
             public void handle(long now) {
-                if (now - dernierTemps >= 1_000_000_000) { // 1 seconde
-                    if (simulationEnCours) {
-                        tempsSimulation = (System.currentTimeMillis() - tempsDebut) / 1000.0;
-
-                        // Production exponentielle décroissante
-                        production = productionMax * Math.exp(-0.02 * tempsSimulation);
-
-                        // Consommation croissante puis stabilisée
-                        consommation = consommationMax * (1 - Math.exp(-0.01 * tempsSimulation));
-
-                        // Ajouter à l'historique
-                        RecordSimulation record = new RecordSimulation((int) production, consommation, tempsSimulation);
-                        controleur.ajouterRecordSimulation(record);
-
-                        // Mettre à jour interface
-                        mettreAJourInterface();
-                    }
-                    dernierTemps = now;
+                int n = boucle.getTampon().vider((temps, prod, conso) -> {
+                    tempsSimulation = temps;
+                    production = prod;
+                    consommation = conso;
+                    serieProduction.ajouter(temps, prod);
+                    serieConsommation.ajouter(temps, conso);
+                });
+                if (n > 0) {
+                    grapheEvolution.marquerModifie();
+                    mettreAJourInterface();
                 }
+                // Zoom et déplacement restent fluides même en pause de données
+                grapheEvolution.rafraichir();
             }
         };
     }
 
     private void configurerGestionnaireAlerte() {
-        controleur.definirGestionnaireAlerte(message -> {
-            Alert alerte = new Alert(Alert.AlertType.INFORMATION);
-            alerte.setTitle("⚠️ Alerte Énergie");
-            alerte.setHeaderText(null);
-            alerte.setContentText(message);
-            alerte.showAndWait();
-        });
+        // Livraison par lots sur le thread JavaFX ; show() ne bloque pas la boucle d'animation
+        controleur.definirGestionnaireAlerte(lot -> {
+            if (alerteEnergie == null) {
+                alerteEnergie = new Alert(Alert.AlertType.INFORMATION);
+                alerteEnergie.initOwner(this);
+                alerteEnergie.initModality(Modality.NONE);
+                alerteEnergie.setTitle("⚠️ Alerte Énergie");
+                alerteEnergie.setHeaderText(null);
+            }
+            alerteEnergie.setContentText(lot.get(lot.size() - 1));
+            if (!alerteEnergie.isShowing()) {
+                alerteEnergie.show();
+            }
+        }, Platform::runLater);
     }
 
     // ------------------- Contrôles -------------------
     private void demarrerSimulation() {
-        simulationEnCours = true;
-        tempsDebut = System.currentTimeMillis();
+        boucle.demarrer();
         timer.start();
         btnDemarrer.setDisable(true);
         btnPause.setDisable(false);
     }
 
     private void pauserSimulation() {
-        simulationEnCours = false;
-        timer.stop();
+        // Le timer continue : derniers points en attente, zoom et déplacement
+        boucle.pause();
         btnDemarrer.setDisable(false);
         btnPause.setDisable(true);
     }
 
     private void reinitialiserSimulation() {
         pauserSimulation();
+        boucle.reinitialiser();
+        boucle.getTampon().vider((temps, prod, conso) -> {});
+        tempsSimulation = 0;
         production = productionMax;
         consommation = 0.0;
-        serieProduction.getData().clear();
-        serieConsommation.getData().clear();
+        grapheEvolution.vider();
         txtHistorique.clear();
         controleur.viderHistorique();
         mettreAJourInterface();
+        grapheEvolution.rafraichir();
     }
 
     // ------------------- Mise à jour interface -------------------
@@ -283,23 +321,20 @@ public class VueSimulation extends Stage {
         );
         lblTemps.setText(String.format("%.1f s", tempsSimulation));
 
-        serieProduction.getData().add(new XYChart.Data<>(tempsSimulation, production));
-        serieConsommation.getData().add(new XYChart.Data<>(tempsSimulation, consommation));
-
-        if (serieProduction.getData().size() > 50) {
-            serieProduction.getData().remove(0);
-            serieConsommation.getData().remove(0);
-        }
-
         mettreAJourGraphiqueRepartition();
         mettreAJourHistorique();
     }
 
     private void mettreAJourGraphiqueRepartition() {
-        graphiqueRepartition.getData().clear();
-        PieChart.Data dataProd = new PieChart.Data("Production", production);
-        PieChart.Data dataConso = new PieChart.Data("Consommation", consommation);
-        graphiqueRepartition.getData().addAll(dataProd, dataConso);
+        // Mise à jour des parts existantes plutôt que reconstruction
+        if (graphiqueRepartition.getData().isEmpty()) {
+            graphiqueRepartition.getData().addAll(
+                    new PieChart.Data("Production", production),
+                    new PieChart.Data("Consommation", consommation));
+        } else {
+            graphiqueRepartition.getData().get(0).setPieValue(production);
+            graphiqueRepartition.getData().get(1).setPieValue(consommation);
+        }
     }
 
     private void mettreAJourHistorique() {
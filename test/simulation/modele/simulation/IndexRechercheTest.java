@@ -0,0 +1,48 @@
+package simulation.modele.simulation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import org.junit.Test;
+import simulation.modele.simulation.IndexRecherche.Categorie;
+
+/**
+ * Tests de l'index de recherche.
+ */
+public class IndexRechercheTest {
+
+    /**
+     * Un filtre numérique qui amorce les candidats ne doit pas laisser d'état
+     * sur les documents hors filtre parcourus par les listes de mots.
+     */
+    @Test
+    public void filtreNumeriqueSansEffetSurLaRechercheSuivante() {
+        IndexRecherche index = new IndexRecherche();
+        for (int i = 0; i < 10; i++) {
+            index.ajouter(Categorie.SOURCE, "Eolienne n°" + i, "eolienne", Map.of("capacite", (double) i));
+        }
+        assertEquals(10, index.rechercher("eolienne", 20).size());
+        assertEquals(4, index.rechercher("eolienne capacite>=6", 20).size());
+        assertEquals(10, index.rechercher("eolienne", 20).size());
+        assertEquals(1, index.rechercher("eolienne capacite:3", 20).size());
+        assertEquals(10, index.rechercher("eolienne", 20).size());
+    }
+
+    /**
+     * Un champ volatil modifié sur place est filtré sur sa valeur courante,
+     * sans changer l'identifiant du document, et ne survit pas à la réutilisation de l'identifiant.
+     */
+    @Test
+    public void champVolatilModifieSurPlace() {
+        IndexRecherche index = new IndexRecherche();
+        int id = index.ajouter(Categorie.SOURCE, "Panneau", "panneau", Map.of("capacite", 5.0));
+        index.definirValeur(id, "production", 3.0);
+        assertEquals(1, index.rechercher("panneau production>2", 10).size());
+        index.definirValeur(id, "production", 1.0);
+        assertEquals(0, index.rechercher("panneau production>2", 10).size());
+        assertEquals(id, index.rechercher("production:0..1", 10).get(0).id());
+        index.supprimer(id);
+        index.ajouter(Categorie.SOURCE, "Autre", "panneau", Map.of());
+        assertEquals(0, index.rechercher("production:0..5", 10).size());
+    }
+}